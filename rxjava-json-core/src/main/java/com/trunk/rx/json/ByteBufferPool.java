@@ -0,0 +1,91 @@
+package com.trunk.rx.json;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of ByteBuffers of a fixed size, so buffers written to a socket or file can be reused once the write has
+ * completed rather than being allocated per write. Buffers may be acquired and released from any thread. Released
+ * buffers beyond the maximum number pooled are left to the garbage collector.
+ */
+public final class ByteBufferPool {
+
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+  public static final int DEFAULT_MAXIMUM_POOLED = 256;
+
+  private static final class Holder {
+    private static final ByteBufferPool DEFAULT = new ByteBufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAXIMUM_POOLED, false);
+  }
+
+  private final int bufferSize;
+  private final int maximumPooled;
+  private final boolean direct;
+  private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
+
+  /**
+   * @return the shared pool of {@value #DEFAULT_BUFFER_SIZE} byte heap buffers
+   */
+  public static ByteBufferPool defaultPool() {
+    return Holder.DEFAULT;
+  }
+
+  /**
+   * @param direct whether to allocate the buffers outside of the heap
+   */
+  public static ByteBufferPool of(int bufferSize, int maximumPooled, boolean direct) {
+    if (bufferSize < 16) {
+      throw new IllegalArgumentException("Buffer size must be at least 16");
+    }
+    if (maximumPooled < 0) {
+      throw new IllegalArgumentException("Maximum pooled must not be negative");
+    }
+    return new ByteBufferPool(bufferSize, maximumPooled, direct);
+  }
+
+  private ByteBufferPool(int bufferSize, int maximumPooled, boolean direct) {
+    this.bufferSize = bufferSize;
+    this.maximumPooled = maximumPooled;
+    this.direct = direct;
+  }
+
+  /**
+   * @return a cleared buffer, from the pool if there is one
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    if (buffer != null) {
+      pooled.decrementAndGet();
+      return buffer;
+    }
+    return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Return a buffer to the pool. The buffer must not be used after it has been released.
+   */
+  public void release(ByteBuffer buffer) {
+    if (buffer.capacity() != bufferSize || buffer.isDirect() != direct || buffer.isReadOnly()) {
+      return;
+    }
+    if (pooled.incrementAndGet() > maximumPooled) {
+      pooled.decrementAndGet();
+      return;
+    }
+    buffer.clear();
+    buffers.offer(buffer);
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @return the number of buffers waiting in the pool
+   */
+  public int getPooledCount() {
+    return pooled.get();
+  }
+}
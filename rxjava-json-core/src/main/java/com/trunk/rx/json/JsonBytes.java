@@ -0,0 +1,54 @@
+package com.trunk.rx.json;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A chunk of UTF-8 encoded JSON in a ByteBuffer from a {@link ByteBufferPool}. The buffer is ready to read, from its
+ * position to its limit, and should be released once it has been written so it can be reused.
+ */
+public final class JsonBytes {
+  private final ByteBuffer buffer;
+  private final ByteBufferPool pool;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  public JsonBytes(ByteBuffer buffer, ByteBufferPool pool) {
+    this.buffer = buffer;
+    this.pool = pool;
+  }
+
+  /**
+   * @return the buffer, which must not be used after the chunk is released
+   * @throws IllegalStateException if the chunk has been released
+   */
+  public ByteBuffer getBuffer() {
+    if (released.get()) {
+      throw new IllegalStateException("Buffer has been released");
+    }
+    return buffer;
+  }
+
+  /**
+   * @return a copy of the bytes remaining in the buffer, without changing its position
+   */
+  public byte[] toByteArray() {
+    ByteBuffer bytes = getBuffer().duplicate();
+    byte[] array = new byte[bytes.remaining()];
+    bytes.get(array);
+    return array;
+  }
+
+  /**
+   * Return the buffer to its pool. Releasing a chunk more than once has no effect.
+   */
+  public void release() {
+    if (released.compareAndSet(false, true)) {
+      pool.release(buffer);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JsonBytes{size=" + buffer.remaining() + ", released=" + released.get() + "}";
+  }
+}
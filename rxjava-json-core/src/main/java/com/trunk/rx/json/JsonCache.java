@@ -0,0 +1,255 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.element.JsonElement;
+import com.trunk.rx.json.token.JsonFragment;
+import com.trunk.rx.json.token.JsonToken;
+import com.trunk.rx.json.transformer.TransformerJsonTokenToString;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.MultipleAssignmentSubscription;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of rendered JSON, keyed by a key and the version of its value, such as an ETag. The JSON is held encoded as
+ * UTF-8, in a single {@link JsonFragment}, so a hit emits one token that writers copy as it is, without creating or
+ * subscribing to the element again.
+ * <p>
+ * The cache holds at most a maximum number of bytes of JSON, evicting the least recently used entries, and entries
+ * may expire a time after they were rendered. Concurrent misses for the same key and version share one rendering,
+ * which is no longer shared, and is unsubscribed from, once all of them have unsubscribed. Errors are not cached. A cache may be used from any thread.
+ */
+public final class JsonCache {
+
+  private final long maximumBytes;
+  private final long timeToLiveMillis;
+  private final Scheduler scheduler;
+
+  // guarded by this
+  private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<Object, Rendering> renderings = new HashMap<>();
+  private long byteCount = 0;
+  private long hitCount = 0;
+  private long hitByteCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * @return a cache whose entries do not expire
+   */
+  public static JsonCache of(long maximumBytes) {
+    return of(maximumBytes, 0, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @param timeToLive how long an entry is used after it was rendered, or 0 for entries that do not expire
+   */
+  public static JsonCache of(long maximumBytes, long timeToLive, TimeUnit unit) {
+    return of(maximumBytes, timeToLive, unit, Schedulers.computation());
+  }
+
+  /**
+   * @param timeToLive how long an entry is used after it was rendered, or 0 for entries that do not expire
+   * @param scheduler  the clock of the time to live
+   */
+  public static JsonCache of(long maximumBytes, long timeToLive, TimeUnit unit, Scheduler scheduler) {
+    if (maximumBytes < 0) {
+      throw new IllegalArgumentException("Maximum bytes must not be negative");
+    }
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("Time to live must not be negative");
+    }
+    return new JsonCache(maximumBytes, unit.toMillis(timeToLive), scheduler);
+  }
+
+  private JsonCache(long maximumBytes, long timeToLiveMillis, Scheduler scheduler) {
+    this.maximumBytes = maximumBytes;
+    this.timeToLiveMillis = timeToLiveMillis;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * @return an element of the JSON of the element cached under the key and version, rendering it when subscribed to
+   * if it is not cached
+   */
+  public JsonElement get(Object key, Object version, Observable<JsonToken> element) {
+    return get(key, version, () -> element);
+  }
+
+  /**
+   * @param element creates the element if it is not cached
+   * @return an element of the JSON of the element cached under the key and version, rendering it when subscribed to
+   * if it is not cached
+   */
+  public JsonElement get(Object key, Object version, Func0<? extends Observable<JsonToken>> element) {
+    Objects.requireNonNull(key, "get requires a non-null key");
+    Objects.requireNonNull(version, "get requires a non-null version");
+    return new CachedElement(Observable.defer(() -> lookup(key, version, element)));
+  }
+
+  /**
+   * Remove the entry of the key, if there is one. A rendering in progress is still cached.
+   */
+  public synchronized void invalidate(Object key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      byteCount -= entry.fragment.utf8Length();
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+    byteCount = 0;
+  }
+
+  public synchronized int getSize() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of bytes of JSON cached
+   */
+  public synchronized long getByteCount() {
+    return byteCount;
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of bytes of JSON emitted from the cache
+   */
+  public synchronized long getHitByteCount() {
+    return hitByteCount;
+  }
+
+  /**
+   * @return the number of subscriptions that were not served from the cache, including those that shared a rendering
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  private synchronized Observable<JsonToken> lookup(Object key, Object version, Func0<? extends Observable<JsonToken>> element) {
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      if (entry.version.equals(version) && !isExpired(entry)) {
+        ++hitCount;
+        hitByteCount += entry.fragment.utf8Length();
+        return Observable.<JsonToken>just(entry.fragment);
+      }
+      invalidate(key);
+    }
+    ++missCount;
+    Rendering rendering = renderings.get(key);
+    if (rendering == null || !rendering.version.equals(version)) {
+      rendering = new Rendering(key, version, element);
+      renderings.put(key, rendering);
+    }
+    ++rendering.subscriberCount;
+    Rendering shared = rendering;
+    return rendering.fragment.doOnUnsubscribe(() -> onUnsubscribed(shared));
+  }
+
+  private synchronized void onRendered(Rendering rendering, JsonFragment fragment) {
+    if (renderings.get(rendering.key) != rendering) {
+      // another version is being rendered
+      return;
+    }
+    renderings.remove(rendering.key);
+    int bytes = fragment.utf8Length();
+    if (bytes > maximumBytes) {
+      return;
+    }
+    invalidate(rendering.key);
+    entries.put(rendering.key, new Entry(rendering.version, fragment, scheduler.now()));
+    byteCount += bytes;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (byteCount > maximumBytes) {
+      Entry evicted = eldest.next();
+      eldest.remove();
+      byteCount -= evicted.fragment.utf8Length();
+      ++evictionCount;
+    }
+  }
+
+  private synchronized void onRenderFailed(Rendering rendering) {
+    if (renderings.get(rendering.key) == rendering) {
+      renderings.remove(rendering.key);
+    }
+  }
+
+  private void onUnsubscribed(Rendering rendering) {
+    boolean abandoned;
+    synchronized (this) {
+      abandoned = --rendering.subscriberCount == 0;
+      if (abandoned) {
+        // a rendering that has not terminated is abandoned, so a later miss renders again rather than waiting on it
+        onRenderFailed(rendering);
+      }
+    }
+    if (abandoned) {
+      // outside the lock, as the element may do anything when unsubscribed from
+      rendering.connection.unsubscribe();
+    }
+  }
+
+  private boolean isExpired(Entry entry) {
+    return timeToLiveMillis > 0 && scheduler.now() - entry.rendered >= timeToLiveMillis;
+  }
+
+  private static final class Entry {
+    private final Object version;
+    private final JsonFragment fragment;
+    private final long rendered;
+
+    Entry(Object version, JsonFragment fragment, long rendered) {
+      this.version = version;
+      this.fragment = fragment;
+      this.rendered = rendered;
+    }
+  }
+
+  private final class Rendering {
+    private final Object key;
+    private final Object version;
+    // rendered once, and replayed to each subscription that shares it
+    private final Observable<JsonToken> fragment;
+    // the subscription to the element, unsubscribed from once no subscription shares the rendering
+    private final MultipleAssignmentSubscription connection = new MultipleAssignmentSubscription();
+    // guarded by the cache
+    private int subscriberCount = 0;
+
+    Rendering(Object key, Object version, Func0<? extends Observable<JsonToken>> element) {
+      this.key = key;
+      this.version = version;
+      this.fragment = Observable.defer(() -> element.call())
+        .collect(StringBuilder::new, TransformerJsonTokenToString::appendTo)
+        .map(json -> JsonFragment.ofUtf8(json.toString().getBytes(StandardCharsets.UTF_8)))
+        .doOnNext(rendered -> onRendered(this, rendered))
+        .doOnError(e -> onRenderFailed(this))
+        .<JsonToken>map(rendered -> rendered)
+        .replay()
+        .autoConnect(1, connection::set);
+    }
+  }
+
+  private static final class CachedElement extends JsonElement {
+    CachedElement(Observable<JsonToken> tokens) {
+      super(tokens);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.trunk.rx.json;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * The digest of JSON encoded as UTF-8, such as a SHA-256 hash, to use as an ETag or in a Digest header or trailer.
+ */
+public final class JsonDigest {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final String algorithm;
+  private final byte[] digest;
+  private final long byteCount;
+
+  public JsonDigest(String algorithm, byte[] digest, long byteCount) {
+    this.algorithm = algorithm;
+    this.digest = digest.clone();
+    this.byteCount = byteCount;
+  }
+
+  /**
+   * @return the name of the MessageDigest algorithm
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * @return a copy of the digest
+   */
+  public byte[] getDigest() {
+    return digest.clone();
+  }
+
+  /**
+   * @return the number of bytes of JSON digested
+   */
+  public long getByteCount() {
+    return byteCount;
+  }
+
+  public String toHex() {
+    char[] hex = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; ++i) {
+      hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+      hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+    }
+    return new String(hex);
+  }
+
+  public String toBase64() {
+    return Base64.getEncoder().encodeToString(digest);
+  }
+
+  /**
+   * @return the digest as a strong ETag, quoted URL safe Base64 without padding
+   */
+  public String toETag() {
+    return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    JsonDigest that = (JsonDigest) o;
+    return byteCount == that.byteCount && algorithm.equals(that.algorithm) && Arrays.equals(digest, that.digest);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(digest);
+  }
+
+  @Override
+  public String toString() {
+    return "JsonDigest{" + algorithm + "=" + toHex() + ", byteCount=" + byteCount + "}";
+  }
+}
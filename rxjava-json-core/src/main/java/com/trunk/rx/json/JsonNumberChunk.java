@@ -0,0 +1,54 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.path.JsonPath;
+
+import java.nio.Buffer;
+
+/**
+ * A run of consecutive elements of a matched numeric array, held in a primitive buffer such as a
+ * {@link java.nio.DoubleBuffer} or {@link java.nio.LongBuffer}. The buffer is ready to read, from its position to its
+ * limit, and belongs to the receiver.
+ */
+public class JsonNumberChunk<B extends Buffer> {
+  private final JsonPath path;
+  private final long offset;
+  private final B values;
+  private final boolean last;
+
+  public JsonNumberChunk(JsonPath path, long offset, B values, boolean last) {
+    this.path = path;
+    this.offset = offset;
+    this.values = values;
+    this.last = last;
+  }
+
+  /**
+   * @return the path of the array
+   */
+  public JsonPath getPath() {
+    return path;
+  }
+
+  /**
+   * @return the index in the array of the first value of this chunk
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  public B getValues() {
+    return values;
+  }
+
+  /**
+   * @return true if this is the last chunk of the array, which may be empty
+   */
+  public boolean isLast() {
+    return last;
+  }
+
+  @Override
+  public String toString() {
+    return "JsonNumberChunk{path=" + path + ", offset=" + offset + ", size=" + values.remaining() + ", last=" + last + "}";
+  }
+}
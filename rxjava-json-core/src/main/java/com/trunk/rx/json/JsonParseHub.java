@@ -0,0 +1,467 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.character.CharacterObservable;
+import com.trunk.rx.json.operator.OperatorJsonToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathMatcher;
+import com.trunk.rx.json.path.NoopToken;
+import com.trunk.rx.json.token.JsonDocumentEnd;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.Subscriber;
+import rx.exceptions.MissingBackpressureException;
+import rx.internal.operators.BackpressureUtils;
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parses a single source of JSON once for any number of subscribers, each of which matches its own
+ * <a href="http://goessner.net/articles/JsonPath/">JSON path</a>. Subscribers can attach and detach at any time and
+ * receive the same {@link JsonPathEvent}s they would from {@link RxJson#parse(JsonPath...)}, so they can be further
+ * processed with, for example, {@link com.trunk.rx.json.operator.OperatorCollectObjects}.
+ * <p>
+ * The source is subscribed to when the first subscriber attaches and unsubscribed from when the last detaches. A
+ * subscriber that attaches part way through a matched object starts with the next matched object.
+ * <p>
+ * Each subscriber has its own buffer of bufferSize events. What happens when a subscriber's buffer is full is decided
+ * by the {@link SlowConsumerPolicy}.
+ */
+public class JsonParseHub {
+
+  public static final int DEFAULT_BUFFER_SIZE = 128;
+
+  public enum SlowConsumerPolicy {
+    /**
+     * Stop parsing until the slowest subscriber has space in its buffer. No events are lost, but every subscriber
+     * proceeds at the pace of the slowest.
+     */
+    BACKPRESSURE,
+    /**
+     * Drop events for a subscriber whose buffer is full. Other subscribers are unaffected.
+     */
+    DROP,
+    /**
+     * Fail a subscriber whose buffer is full with a {@link MissingBackpressureException}. Other subscribers are
+     * unaffected.
+     */
+    ERROR
+  }
+
+  private final Observable<JsonTokenEvent> tokens;
+  private final int bufferSize;
+  private final SlowConsumerPolicy slowConsumerPolicy;
+
+  private final Object lock = new Object();
+  // guarded by lock
+  private Connection connection = null;
+
+  /**
+   * @return a hub that parses the given source strictly, with back pressure from the slowest subscriber
+   */
+  public static JsonParseHub from(Observable<String> source) {
+    return from(source, new OperatorJsonToken(), DEFAULT_BUFFER_SIZE, SlowConsumerPolicy.BACKPRESSURE);
+  }
+
+  /**
+   * @param source             the JSON to parse
+   * @param parser             the parser to use, which may be lenient
+   * @param bufferSize         the maximum number of events buffered for each subscriber
+   * @param slowConsumerPolicy what to do when a subscriber's buffer is full
+   */
+  public static JsonParseHub from(Observable<String> source, OperatorJsonToken parser, int bufferSize, SlowConsumerPolicy slowConsumerPolicy) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("bufferSize must be positive");
+    }
+    return new JsonParseHub(source.lift(CharacterObservable.toCharacter()).lift(parser), bufferSize, slowConsumerPolicy);
+  }
+
+  private JsonParseHub(Observable<JsonTokenEvent> tokens, int bufferSize, SlowConsumerPolicy slowConsumerPolicy) {
+    this.tokens = tokens;
+    this.bufferSize = bufferSize;
+    this.slowConsumerPolicy = slowConsumerPolicy;
+  }
+
+  /**
+   * @return an Observable of the events matching the given path, which attaches to the hub when subscribed to
+   */
+  public Observable<JsonPathEvent> observe(String path) {
+    return observe(JsonPath.parse(path));
+  }
+
+  /**
+   * @return an Observable of the events matching the given path, which attaches to the hub when subscribed to
+   */
+  public Observable<JsonPathEvent> observe(JsonPath path) {
+    if (path.hasFilter() || path.hasTail()) {
+      throw new IllegalArgumentException("Filter expressions and negative positions are not supported by JsonParseHub");
+    }
+    return Observable.create(child -> attach(path, child));
+  }
+
+  /**
+   * @return the number of subscribers currently attached
+   */
+  public int subscriberCount() {
+    synchronized (lock) {
+      return connection == null ? 0 : connection.subscriberCount();
+    }
+  }
+
+  private void attach(JsonPath path, Subscriber<? super JsonPathEvent> child) {
+    Connection c;
+    boolean connect = false;
+    PathSubscriber subscriber;
+    synchronized (lock) {
+      if (connection == null || connection.terminated) {
+        connection = new Connection();
+        connect = true;
+      }
+      c = connection;
+      subscriber = new PathSubscriber(path, child, c);
+      c.add(subscriber);
+    }
+    child.add(Subscriptions.create(() -> c.remove(subscriber)));
+    child.setProducer(subscriber::request);
+    if (connect) {
+      tokens.subscribe(c.upstream);
+    }
+    c.requestMore();
+  }
+
+  private void disconnected(Connection c) {
+    synchronized (lock) {
+      if (connection == c) {
+        connection = null;
+      }
+    }
+  }
+
+  /**
+   * A single subscription to the source, shared by the subscribers attached while it is active.
+   */
+  private class Connection {
+    final TokenSubscriber upstream = new TokenSubscriber();
+    final AtomicLong outstanding = new AtomicLong(0);
+    final AtomicInteger wip = new AtomicInteger(0);
+    volatile boolean terminated = false;
+
+    // guarded by lock, read without it
+    volatile Route[] routes = new Route[0];
+
+    int subscriberCount() {
+      int count = 0;
+      for (Route route : routes) {
+        count += route.subscribers.length;
+      }
+      return count;
+    }
+
+    void add(PathSubscriber subscriber) {
+      // routes are compiled so that each distinct path is matched once per token
+      Map<JsonPath, List<PathSubscriber>> byPath = byPath();
+      byPath.computeIfAbsent(subscriber.path, p -> new ArrayList<>()).add(subscriber);
+      routes = compile(byPath);
+    }
+
+    void remove(PathSubscriber subscriber) {
+      boolean empty;
+      synchronized (lock) {
+        Map<JsonPath, List<PathSubscriber>> byPath = byPath();
+        List<PathSubscriber> subscribers = byPath.get(subscriber.path);
+        if (subscribers == null || !subscribers.remove(subscriber)) {
+          return;
+        }
+        if (subscribers.isEmpty()) {
+          byPath.remove(subscriber.path);
+        }
+        routes = compile(byPath);
+        empty = byPath.isEmpty();
+        if (empty) {
+          disconnected(this);
+        }
+      }
+      if (empty) {
+        upstream.unsubscribe();
+      } else {
+        // the removed subscriber may have been the slowest
+        requestMore();
+      }
+    }
+
+    private Map<JsonPath, List<PathSubscriber>> byPath() {
+      Map<JsonPath, List<PathSubscriber>> byPath = new LinkedHashMap<>();
+      for (Route route : routes) {
+        byPath.put(route.path, new ArrayList<>(Arrays.asList(route.subscribers)));
+      }
+      return byPath;
+    }
+
+    private Route[] compile(Map<JsonPath, List<PathSubscriber>> byPath) {
+      Route[] result = new Route[byPath.size()];
+      int i = 0;
+      for (Map.Entry<JsonPath, List<PathSubscriber>> entry : byPath.entrySet()) {
+        Route existing = find(entry.getKey());
+        result[i++] = new Route(
+          entry.getKey(),
+          entry.getValue().toArray(new PathSubscriber[entry.getValue().size()]),
+          existing == null ? JsonPathMatcher.of(entry.getKey()) : existing.matcher
+        );
+      }
+      return result;
+    }
+
+    private Route find(JsonPath path) {
+      for (Route route : routes) {
+        if (route.path.equals(path)) {
+          return route;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Request as many tokens as every subscriber that applies back pressure has space for.
+     */
+    void requestMore() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        Route[] current = routes;
+        if (terminated || current.length == 0) {
+          continue;
+        }
+        long capacity = bufferSize;
+        if (slowConsumerPolicy == SlowConsumerPolicy.BACKPRESSURE) {
+          for (Route route : current) {
+            for (PathSubscriber subscriber : route.subscribers) {
+              capacity = Math.min(capacity, subscriber.capacity());
+            }
+          }
+        }
+        long n = capacity - outstanding.get();
+        if (n > 0) {
+          outstanding.addAndGet(n);
+          upstream.requestMore(n);
+        }
+      } while (wip.decrementAndGet() != 0);
+    }
+
+    void onToken(JsonTokenEvent tokenEvent) {
+      outstanding.decrementAndGet();
+      Route[] current = routes;
+      if (tokenEvent.getToken() == JsonDocumentEnd.instance()) {
+        JsonPathEvent documentEnd = new JsonPathEvent(NoopToken.instance(), tokenEvent);
+        for (Route route : current) {
+          for (PathSubscriber subscriber : route.subscribers) {
+            subscriber.joined = true;
+            subscriber.offer(documentEnd);
+          }
+        }
+      } else {
+        for (Route route : current) {
+          Optional<JsonPath> matched = route.matcher.matchedFragment(tokenEvent.getJsonPath());
+          if (!matched.isPresent()) {
+            continue;
+          }
+          JsonPathEvent pathEvent = new JsonPathEvent(matched.get(), tokenEvent);
+          for (PathSubscriber subscriber : route.subscribers) {
+            if (!subscriber.joined) {
+              // skip the remainder of a value that was being matched when the subscriber attached
+              if (!startsMatch(matched.get(), tokenEvent)) {
+                continue;
+              }
+              subscriber.joined = true;
+            }
+            subscriber.offer(pathEvent);
+          }
+        }
+      }
+      requestMore();
+    }
+
+    /**
+     * @return true if the token is the first of the matched value, which is a scalar or the start of an object or
+     * array at the matched path, rather than a token within it
+     */
+    private boolean startsMatch(JsonPath matched, JsonTokenEvent tokenEvent) {
+      JsonToken token = tokenEvent.getToken();
+      return matched.equals(tokenEvent.getJsonPath()) && !token.isName() && !token.isObjectEnd() && !token.isArrayEnd();
+    }
+
+    void onTerminate(Throwable t) {
+      synchronized (lock) {
+        // no more subscribers are added once terminated
+        terminated = true;
+        disconnected(this);
+      }
+      for (Route route : routes) {
+        for (PathSubscriber subscriber : route.subscribers) {
+          subscriber.done(t);
+        }
+      }
+    }
+
+    private class TokenSubscriber extends Subscriber<JsonTokenEvent> {
+      TokenSubscriber() {
+        request(0);
+      }
+
+      void requestMore(long n) {
+        request(n);
+      }
+
+      @Override
+      public void onCompleted() {
+        onTerminate(null);
+      }
+
+      @Override
+      public void onError(Throwable e) {
+        onTerminate(e);
+      }
+
+      @Override
+      public void onNext(JsonTokenEvent tokenEvent) {
+        onToken(tokenEvent);
+      }
+    }
+  }
+
+  private static class Route {
+    final JsonPath path;
+    final PathSubscriber[] subscribers;
+    // only accessed by the source
+    final JsonPathMatcher matcher;
+
+    Route(JsonPath path, PathSubscriber[] subscribers, JsonPathMatcher matcher) {
+      this.path = path;
+      this.subscribers = subscribers;
+      this.matcher = matcher;
+    }
+  }
+
+  private class PathSubscriber {
+    final JsonPath path;
+    final Subscriber<? super JsonPathEvent> child;
+    final Connection connection;
+    final Queue<JsonPathEvent> queue = new ConcurrentLinkedQueue<>();
+    final AtomicInteger queued = new AtomicInteger(0);
+    final AtomicLong requested = new AtomicLong(0);
+    final AtomicInteger wip = new AtomicInteger(0);
+    // only accessed by the source
+    boolean joined = false;
+    volatile boolean done = false;
+    volatile Throwable error = null;
+    // only accessed in drain
+    boolean terminalDelivered = false;
+
+    PathSubscriber(JsonPath path, Subscriber<? super JsonPathEvent> child, Connection connection) {
+      this.path = path;
+      this.child = child;
+      this.connection = connection;
+    }
+
+    long capacity() {
+      return bufferSize - queued.get();
+    }
+
+    void offer(JsonPathEvent event) {
+      if (done) {
+        return;
+      }
+      if (queued.get() >= bufferSize) {
+        if (slowConsumerPolicy == SlowConsumerPolicy.DROP) {
+          return;
+        } else if (slowConsumerPolicy == SlowConsumerPolicy.ERROR) {
+          queue.clear();
+          queued.set(0);
+          done(new MissingBackpressureException("Subscriber to " + path + " has more than " + bufferSize + " events buffered"));
+          connection.remove(this);
+          return;
+        }
+      }
+      queue.offer(event);
+      queued.incrementAndGet();
+      drain();
+    }
+
+    void request(long n) {
+      if (n < 0) {
+        throw new IllegalArgumentException();
+      }
+      if (n > 0) {
+        BackpressureUtils.getAndAddRequest(requested, n);
+      }
+      drain();
+    }
+
+    void done(Throwable t) {
+      error = t;
+      done = true;
+      drain();
+    }
+
+    void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      for (;;) {
+        long r = requested.get();
+        long e = 0;
+        while (e != r) {
+          if (child.isUnsubscribed()) {
+            return;
+          }
+          boolean d = done;
+          JsonPathEvent event = queue.poll();
+          if (event == null) {
+            if (d) {
+              terminate();
+              return;
+            }
+            break;
+          }
+          child.onNext(event);
+          queued.decrementAndGet();
+          ++e;
+        }
+        if (e == r && done && queue.isEmpty()) {
+          terminate();
+          return;
+        }
+        if (e != 0) {
+          BackpressureUtils.produced(requested, e);
+          connection.requestMore();
+        }
+        missed = wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void terminate() {
+      if (terminalDelivered || child.isUnsubscribed()) {
+        return;
+      }
+      terminalDelivered = true;
+      if (error != null) {
+        child.onError(error);
+      } else {
+        child.onCompleted();
+      }
+    }
+  }
+}
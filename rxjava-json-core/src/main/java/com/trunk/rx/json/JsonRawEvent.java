@@ -0,0 +1,49 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.path.JsonPath;
+
+import java.util.Objects;
+
+/**
+ * The source text of a matched object, as it appeared in the parsed JSON.
+ */
+public class JsonRawEvent {
+  private final JsonPath path;
+  private final String raw;
+
+  public JsonRawEvent(JsonPath path, String raw) {
+    this.path = path;
+    this.raw = raw;
+  }
+
+  public JsonPath getPath() {
+    return path;
+  }
+
+  public String getRaw() {
+    return raw;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    JsonRawEvent that = (JsonRawEvent) o;
+    return Objects.equals(path, that.path) &&
+      Objects.equals(raw, that.raw);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, raw);
+  }
+
+  @Override
+  public String toString() {
+    return "JsonRawEvent{path=" + path + ", raw='" + raw + "'}";
+  }
+}
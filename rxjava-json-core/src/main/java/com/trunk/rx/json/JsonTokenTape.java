@@ -0,0 +1,403 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.path.ArrayIndexToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.ObjectToken;
+import com.trunk.rx.json.token.JsonToken;
+import com.trunk.rx.json.token.JsonTokenType;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A compact, immutable representation of the tokens of a collected object. Rather than a {@link JsonTokenEvent},
+ * {@link JsonToken} and full {@link JsonPath} per token, the tape holds a byte per token type, an offset into a
+ * single shared text buffer and the last fragment of the token's path relative to the matched root.
+ * <p>
+ * Tokens can be read without allocation using a {@link Cursor}, or lazily converted to {@link JsonTokenEvent}s by
+ * iterating the tape as a Collection.
+ */
+public final class JsonTokenTape extends AbstractCollection<JsonTokenEvent> {
+
+  // an entry that only carries a path fragment, used when a token's parent path was not seen in an earlier token
+  private static final byte PATH = -1;
+
+  private final JsonPath root;
+  private final int size;
+  private final int entries;
+  private final byte[] types;
+  private final int[] depths;
+  private final int[] fragments;
+  private final int[] textOffsets;
+  private final char[] text;
+
+  public static Builder builder(JsonPath root) {
+    return new Builder(root);
+  }
+
+  private JsonTokenTape(JsonPath root, int size, int entries, byte[] types, int[] depths, int[] fragments, int[] textOffsets, char[] text) {
+    this.root = root;
+    this.size = size;
+    this.entries = entries;
+    this.types = types;
+    this.depths = depths;
+    this.fragments = fragments;
+    this.textOffsets = textOffsets;
+    this.text = text;
+  }
+
+  /**
+   * @return the matched path all token paths are relative to
+   */
+  public JsonPath getPath() {
+    return root;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of characters of token text held by the tape
+   */
+  public int textLength() {
+    return textOffsets[entries];
+  }
+
+  /**
+   * @return a cursor over the tokens of this tape
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * @return the tape as a JsonObjectEvent whose tokens are a List, materialised as they are iterated, so the event is
+   * equal to one of the same tokens collected in any other List
+   */
+  public JsonObjectEvent toObjectEvent() {
+    return new JsonObjectEvent(root, new Events());
+  }
+
+  @Override
+  public Iterator<JsonTokenEvent> iterator() {
+    Cursor cursor = cursor();
+    return new Iterator<JsonTokenEvent>() {
+      boolean hasNext = cursor.next();
+
+      @Override
+      public boolean hasNext() {
+        return hasNext;
+      }
+
+      @Override
+      public JsonTokenEvent next() {
+        if (!hasNext) {
+          throw new NoSuchElementException();
+        }
+        JsonTokenEvent event = cursor.event();
+        hasNext = cursor.next();
+        return event;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "JsonTokenTape{path=" + root + ", size=" + size + ", textLength=" + textLength() + '}';
+  }
+
+  private String entryText(int entry) {
+    return new String(text, textOffsets[entry], textOffsets[entry + 1] - textOffsets[entry]);
+  }
+
+  /**
+   * The tokens of the tape as an immutable List. Iterating walks the tape, and indexed access, as by equals,
+   * materialises all of the tokens once.
+   */
+  private final class Events extends AbstractList<JsonTokenEvent> {
+    private volatile List<JsonTokenEvent> events = null;
+
+    @Override
+    public JsonTokenEvent get(int index) {
+      List<JsonTokenEvent> result = events;
+      if (result == null) {
+        result = Collections.unmodifiableList(new ArrayList<>(JsonTokenTape.this));
+        events = result;
+      }
+      return result.get(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<JsonTokenEvent> iterator() {
+      List<JsonTokenEvent> result = events;
+      return result == null ? JsonTokenTape.this.iterator() : result.iterator();
+    }
+  }
+
+  /**
+   * A forward only view of the tape that exposes each token without allocating a token or path.
+   */
+  public final class Cursor {
+    private int entry = -1;
+    private int[] stack = new int[16];
+    private int stackSize = 0;
+
+    private Cursor() {
+      // do nothing
+    }
+
+    /**
+     * Move to the next token.
+     *
+     * @return false if there are no more tokens
+     */
+    public boolean next() {
+      while (++entry < entries) {
+        int depth = depths[entry];
+        if (depth > 0) {
+          if (depth > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(depth, stack.length * 2));
+          }
+          stack[depth - 1] = fragments[entry];
+        }
+        stackSize = depth;
+        if (types[entry] != PATH) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public JsonTokenType type() {
+      return JsonTokenType.fromOrdinal(types[entry]);
+    }
+
+    /**
+     * @return the depth of the current token below the matched root
+     */
+    public int depth() {
+      return stackSize;
+    }
+
+    public int textLength() {
+      return textOffsets[entry + 1] - textOffsets[entry];
+    }
+
+    public char charAt(int index) {
+      return text[textOffsets[entry] + index];
+    }
+
+    public String text() {
+      return entryText(entry);
+    }
+
+    public JsonToken token() {
+      return type().toToken(text());
+    }
+
+    /**
+     * @return the absolute path of the current token
+     */
+    public JsonPath path() {
+      if (stackSize == 0) {
+        return root;
+      }
+      List<JsonPath> tokens = new ArrayList<>();
+      Optional<JsonPath> r = Optional.of(root);
+      while (r.isPresent()) {
+        tokens.add(r.get());
+        r = r.get().getNextPathToken();
+      }
+      for (int i = 0; i < stackSize; ++i) {
+        int fragment = stack[i];
+        tokens.add(fragment >= 0 ? ArrayIndexToken.of(fragment) : ObjectToken.of(entryText(-1 - fragment)));
+      }
+      return JsonPath.from(tokens);
+    }
+
+    public JsonTokenEvent event() {
+      return new JsonTokenEvent(token(), path());
+    }
+  }
+
+  /**
+   * Appends tokens to a new tape. Token paths must start with the root path of the tape.
+   */
+  public static final class Builder {
+    private final JsonPath root;
+    private int size = 0;
+    private int entries = 0;
+    private byte[] types = new byte[32];
+    private int[] depths = new int[32];
+    private int[] fragments = new int[32];
+    private int[] textOffsets = new int[33];
+    private char[] text = new char[256];
+
+    // the path fragments of the last entry, as stored in the tape
+    private int[] stack = new int[16];
+    private int stackSize = 0;
+    private int lastName = -1;
+
+    private Builder(JsonPath root) {
+      this.root = root;
+    }
+
+    public Builder append(JsonTokenEvent tokenEvent) {
+      return append(tokenEvent.getToken(), tokenEvent.getJsonPath());
+    }
+
+    public Builder append(JsonToken token, JsonPath path) {
+      JsonTokenType type = JsonTokenType.of(token);
+      Optional<JsonPath> p = Optional.of(path);
+      Optional<JsonPath> r = Optional.of(root);
+      while (r.isPresent()) {
+        if (!p.isPresent() || !r.get().tokenEquals(p.get())) {
+          throw new IllegalArgumentException("Path " + path + " is not within " + root);
+        }
+        r = r.get().getNextPathToken();
+        p = p.get().getNextPathToken();
+      }
+
+      int depth = 0;
+      int fragment = 0;
+      while (p.isPresent()) {
+        JsonPath f = p.get();
+        ++depth;
+        boolean last = !f.getNextPathToken().isPresent();
+        if (depth <= stackSize && sameFragment(stack[depth - 1], f)) {
+          fragment = stack[depth - 1];
+        } else if (last && type == JsonTokenType.NAME && isName(f, token.value())) {
+          // a name token carries its own path fragment
+          fragment = -1 - entries;
+        } else {
+          int before = entries;
+          fragment = fragmentOf(f, depth);
+          if (!last && entries == before) {
+            appendEntry(PATH, depth, fragment);
+          }
+        }
+        p = f.getNextPathToken();
+      }
+
+      appendEntry((byte) type.ordinal(), depth, fragment);
+      if (type.hasText()) {
+        appendText(token.value());
+      }
+      if (type == JsonTokenType.NAME) {
+        lastName = entries - 1;
+      }
+      ++size;
+      return this;
+    }
+
+    public JsonTokenTape build() {
+      return new JsonTokenTape(
+        root,
+        size,
+        entries,
+        Arrays.copyOf(types, entries),
+        Arrays.copyOf(depths, entries),
+        Arrays.copyOf(fragments, entries),
+        Arrays.copyOf(textOffsets, entries + 1),
+        Arrays.copyOf(text, textOffsets[entries])
+      );
+    }
+
+    public JsonPath getPath() {
+      return root;
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    private int fragmentOf(JsonPath f, int depth) {
+      if (f instanceof ArrayIndexToken) {
+        return ((ArrayIndexToken) f).getIndex();
+      }
+      if (!(f instanceof ObjectToken)) {
+        throw new IllegalArgumentException("Unsupported path fragment " + f);
+      }
+      String name = ((ObjectToken) f).getName();
+      if (lastName >= 0 && textEquals(lastName, name)) {
+        return -1 - lastName;
+      }
+      // carry the name in its own entry
+      int entry = entries;
+      appendEntry(PATH, depth, -1 - entry);
+      appendText(name);
+      return -1 - entry;
+    }
+
+    private boolean isName(JsonPath f, String name) {
+      return f instanceof ObjectToken && ((ObjectToken) f).getName().equals(name);
+    }
+
+    private boolean sameFragment(int fragment, JsonPath f) {
+      if (fragment >= 0) {
+        return f instanceof ArrayIndexToken && ((ArrayIndexToken) f).getIndex() == fragment;
+      }
+      return f instanceof ObjectToken && textEquals(-1 - fragment, ((ObjectToken) f).getName());
+    }
+
+    private boolean textEquals(int entry, String s) {
+      int start = textOffsets[entry];
+      int length = textOffsets[entry + 1] - start;
+      if (length != s.length()) {
+        return false;
+      }
+      for (int i = 0; i < length; ++i) {
+        if (text[start + i] != s.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void appendEntry(byte type, int depth, int fragment) {
+      if (entries == types.length) {
+        int newLength = entries * 2;
+        types = Arrays.copyOf(types, newLength);
+        depths = Arrays.copyOf(depths, newLength);
+        fragments = Arrays.copyOf(fragments, newLength);
+        textOffsets = Arrays.copyOf(textOffsets, newLength + 1);
+      }
+      types[entries] = type;
+      depths[entries] = depth;
+      fragments[entries] = fragment;
+      textOffsets[entries + 1] = textOffsets[entries];
+      ++entries;
+
+      if (depth > stack.length) {
+        stack = Arrays.copyOf(stack, Math.max(depth, stack.length * 2));
+      }
+      if (depth > 0) {
+        stack[depth - 1] = fragment;
+      }
+      stackSize = depth;
+    }
+
+    private void appendText(String s) {
+      int end = textOffsets[entries];
+      if (end + s.length() > text.length) {
+        text = Arrays.copyOf(text, Math.max(end + s.length(), text.length * 2));
+      }
+      s.getChars(0, s.length(), text, end);
+      textOffsets[entries] = end + s.length();
+    }
+  }
+}
@@ -6,10 +6,22 @@ import com.trunk.rx.json.element.JsonObject;
 import com.trunk.rx.json.element.JsonRaw;
 import com.trunk.rx.json.element.JsonValueBuilder;
 import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathCache;
 import com.trunk.rx.json.token.JsonToken;
+import com.trunk.rx.json.transformer.TransformerDigestBytes;
+import com.trunk.rx.json.transformer.TransformerJsonTokenToChunks;
+import com.trunk.rx.json.transformer.TransformerJsonTokenToDigest;
 import com.trunk.rx.json.transformer.TransformerJsonTokenToString;
 import com.trunk.rx.json.transformer.TransformerRxJson;
+import com.trunk.rx.json.transformer.TransformerWriteJson;
 import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The entry point to parsing and writing JSON using RxJava. This aggregates the core functionality of
@@ -37,6 +49,33 @@ public class RxJson {
     return TransformerRxJson.from(paths);
   }
 
+  /**
+   * @param path a <a href="http://goessner.net/articles/JsonPath/">JSON path</a>
+   * @return the parsed JsonPath, shared with other parses of an equal path
+   */
+  public static JsonPath path(String path) {
+    return JsonPathCache.defaultCache().parse(path);
+  }
+
+  /**
+   * @return the cache of parsed JsonPaths used when paths are given as Strings, whose statistics show how often
+   * paths are reparsed
+   */
+  public static JsonPathCache pathCache() {
+    return JsonPathCache.defaultCache();
+  }
+
+  /**
+   * A hub that parses the given JSON once for any number of subscribers to different
+   * <a href="http://goessner.net/articles/JsonPath/">JSON paths</a>.
+   *
+   * @param source the JSON to parse
+   * @return a JsonParseHub that applies back pressure from its slowest subscriber
+   */
+  public static JsonParseHub parseHub(Observable<String> source) {
+    return JsonParseHub.from(source);
+  }
+
   /**
    * @return a new empty, immutable JsonArray
    */
@@ -95,6 +134,20 @@ public class RxJson {
     return JsonObject.of(values);
   }
 
+  /**
+   * @return a new mutable builder of a JsonArray, for arrays with many elements
+   */
+  public static <T extends JsonElement> JsonArray.Builder<T> newArrayBuilder() {
+    return JsonArray.builder();
+  }
+
+  /**
+   * @return a new mutable builder of a JsonObject, for objects with many entries
+   */
+  public static <T extends JsonElement> JsonObject.Builder<T> newObjectBuilder() {
+    return JsonObject.builder();
+  }
+
   /**
    * @return a new immutable JsonEntry to insert into a JsonObject
    */
@@ -123,6 +176,132 @@ public class RxJson {
     return TransformerJsonTokenToString.instance();
   }
 
+  /**
+   * @param chunkSize the target number of characters of each String
+   * @return a transformer to convert JsonTokens to JSON as an Observable of Strings of about the given size, rather
+   * than a String per token
+   */
+  public static Observable.Transformer<JsonToken, String> toJson(int chunkSize) {
+    return TransformerJsonTokenToChunks.strings(chunkSize, 0, TimeUnit.MILLISECONDS, Schedulers.immediate());
+  }
+
+  /**
+   * As {@link #toJson(int)}, also emitting a String once its first token has waited for the given latency, so JSON
+   * produced slowly is still streamed promptly.
+   */
+  public static Observable.Transformer<JsonToken, String> toJson(int chunkSize, long maxLatency, TimeUnit unit) {
+    return toJson(chunkSize, maxLatency, unit, Schedulers.computation());
+  }
+
+  /**
+   * As {@link #toJson(int, long, TimeUnit)}, with the latency timed on the given scheduler.
+   */
+  public static Observable.Transformer<JsonToken, String> toJson(int chunkSize, long maxLatency, TimeUnit unit, Scheduler scheduler) {
+    return TransformerJsonTokenToChunks.strings(chunkSize, maxLatency, unit, scheduler);
+  }
+
+  /**
+   * @return a transformer to convert JsonTokens to JSON encoded as UTF-8 into buffers from the default pool, each
+   * emitted once full and the last when the tokens end. Each chunk should be released once it has been written.
+   * @see ByteBufferPool#defaultPool()
+   */
+  public static Observable.Transformer<JsonToken, JsonBytes> toJsonBytes() {
+    return toJsonBytes(ByteBufferPool.defaultPool());
+  }
+
+  /**
+   * As {@link #toJsonBytes()}, with buffers from the given pool.
+   */
+  public static Observable.Transformer<JsonToken, JsonBytes> toJsonBytes(ByteBufferPool pool) {
+    return TransformerJsonTokenToChunks.bytes(pool, 0, TimeUnit.MILLISECONDS, Schedulers.immediate());
+  }
+
+  /**
+   * As {@link #toJsonBytes(ByteBufferPool)}, also emitting a chunk once its first token has waited for the given
+   * latency.
+   */
+  public static Observable.Transformer<JsonToken, JsonBytes> toJsonBytes(ByteBufferPool pool, long maxLatency, TimeUnit unit) {
+    return toJsonBytes(pool, maxLatency, unit, Schedulers.computation());
+  }
+
+  /**
+   * As {@link #toJsonBytes(ByteBufferPool, long, TimeUnit)}, with the latency timed on the given scheduler.
+   */
+  public static Observable.Transformer<JsonToken, JsonBytes> toJsonBytes(ByteBufferPool pool, long maxLatency, TimeUnit unit, Scheduler scheduler) {
+    return TransformerJsonTokenToChunks.bytes(pool, maxLatency, unit, scheduler);
+  }
+
+  /**
+   * Write JSON as UTF-8 to a stream, only requesting more tokens once the JSON so far has been written. The stream is
+   * flushed, but not closed, once the tokens end.
+   *
+   * @return a transformer to write JsonTokens to the stream, emitting the number of bytes written
+   */
+  public static Observable.Transformer<JsonToken, Long> writeTo(OutputStream out) {
+    return writeTo(out, ByteBufferPool.defaultPool());
+  }
+
+  /**
+   * As {@link #writeTo(OutputStream)}, through buffers from the given pool.
+   */
+  public static Observable.Transformer<JsonToken, Long> writeTo(OutputStream out, ByteBufferPool pool) {
+    return TransformerWriteJson.outputStream(out, pool);
+  }
+
+  /**
+   * As {@link #writeTo(OutputStream)} for a Writer.
+   *
+   * @return a transformer to write JsonTokens to the writer, emitting the number of characters written
+   */
+  public static Observable.Transformer<JsonToken, Long> writeTo(Writer writer) {
+    return TransformerWriteJson.writer(writer, TransformerWriteJson.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * As {@link #writeTo(OutputStream)} for a channel in blocking mode.
+   */
+  public static Observable.Transformer<JsonToken, Long> writeTo(WritableByteChannel channel) {
+    return writeTo(channel, ByteBufferPool.defaultPool());
+  }
+
+  /**
+   * As {@link #writeTo(WritableByteChannel)}, through buffers from the given pool.
+   */
+  public static Observable.Transformer<JsonToken, Long> writeTo(WritableByteChannel channel, ByteBufferPool pool) {
+    return TransformerWriteJson.channel(channel, pool);
+  }
+
+  /**
+   * Digest the JSON as UTF-8 without emitting it, for example to validate an ETag without writing the response.
+   *
+   * @param algorithm the name of a MessageDigest algorithm, such as SHA-256
+   * @return a transformer emitting the digest of the JsonTokens once they end
+   * @throws IllegalArgumentException if the algorithm is not available
+   */
+  public static Observable.Transformer<JsonToken, JsonDigest> toDigest(String algorithm) {
+    return toDigest(algorithm, ByteBufferPool.defaultPool());
+  }
+
+  /**
+   * As {@link #toDigest(String)}, encoding through buffers from the given pool.
+   */
+  public static Observable.Transformer<JsonToken, JsonDigest> toDigest(String algorithm, ByteBufferPool pool) {
+    return TransformerJsonTokenToDigest.of(algorithm, pool);
+  }
+
+  /**
+   * Digest chunks of UTF-8 JSON as they stream, such as those of {@link #toJsonBytes()}, for an ETag or a trailer
+   * sent after them. A transformer digests a single stream of chunks.
+   *
+   * @param algorithm the name of a MessageDigest algorithm, such as SHA-256
+   * @return a transformer passing the chunks through unchanged, whose digest is emitted once they complete, or is a
+   * CancellationException if they are unsubscribed from before they complete
+   * @throws IllegalArgumentException if the algorithm is not available
+   */
+  public static TransformerDigestBytes digest(String algorithm) {
+    return TransformerDigestBytes.of(algorithm);
+  }
+
   private RxJson() {
     // do nothing
   }
@@ -0,0 +1,26 @@
+package com.trunk.rx.json.aggregate;
+
+import com.trunk.rx.json.token.JsonToken;
+
+/**
+ * Aggregates the scalar values matched by a path as they are parsed, holding only the aggregate rather than the
+ * values. An aggregator holds the state of a single aggregation, so a new one is created for each subscription.
+ *
+ * @param <T> the type of the aggregate
+ *
+ * @see Aggregators for the built in aggregators
+ */
+public interface Aggregator<T> {
+
+  /**
+   * Add a matched value to the aggregate.
+   *
+   * @param value a string, number, boolean or null token
+   */
+  void add(JsonToken value);
+
+  /**
+   * @return the aggregate of the values added so far
+   */
+  T result();
+}
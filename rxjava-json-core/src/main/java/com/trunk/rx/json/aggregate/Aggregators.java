@@ -0,0 +1,137 @@
+package com.trunk.rx.json.aggregate;
+
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonToken;
+
+/**
+ * The built in aggregators. Each method returns a new aggregator, so a method reference such as
+ * <code>Aggregators::sum</code> can be given to
+ * {@link com.trunk.rx.json.transformer.TransformerRxJson#aggregate(rx.functions.Func0)}.
+ * <p>
+ * Numeric aggregates are kept as primitive doubles and ignore values that are not numbers. The minimum, maximum and
+ * mean of no numbers are {@link Double#NaN}.
+ */
+public final class Aggregators {
+
+  /**
+   * @return an aggregator counting the values that are not null
+   */
+  public static Aggregator<Long> count() {
+    return new Count();
+  }
+
+  /**
+   * @return an aggregator summing numbers, or 0 if there are none
+   */
+  public static Aggregator<Double> sum() {
+    return new Sum();
+  }
+
+  public static Aggregator<Double> min() {
+    return new Min();
+  }
+
+  public static Aggregator<Double> max() {
+    return new Max();
+  }
+
+  public static Aggregator<Double> mean() {
+    return new Mean();
+  }
+
+  /**
+   * @return an aggregator estimating the number of distinct values that are not null
+   * @see HyperLogLog
+   */
+  public static Aggregator<Long> distinct() {
+    return HyperLogLog.of();
+  }
+
+  private Aggregators() {
+    // do nothing
+  }
+
+  private static final class Count implements Aggregator<Long> {
+    private long count = 0;
+
+    @Override
+    public void add(JsonToken value) {
+      if (!value.isNull()) {
+        ++count;
+      }
+    }
+
+    @Override
+    public Long result() {
+      return count;
+    }
+  }
+
+  private static final class Sum implements Aggregator<Double> {
+    private double sum = 0;
+
+    @Override
+    public void add(JsonToken value) {
+      if (value.isNumber()) {
+        sum += ((JsonNumber) value).doubleValue();
+      }
+    }
+
+    @Override
+    public Double result() {
+      return sum;
+    }
+  }
+
+  private static final class Min implements Aggregator<Double> {
+    private double min = Double.NaN;
+
+    @Override
+    public void add(JsonToken value) {
+      if (value.isNumber()) {
+        double d = ((JsonNumber) value).doubleValue();
+        min = Double.isNaN(min) ? d : Math.min(min, d);
+      }
+    }
+
+    @Override
+    public Double result() {
+      return min;
+    }
+  }
+
+  private static final class Max implements Aggregator<Double> {
+    private double max = Double.NaN;
+
+    @Override
+    public void add(JsonToken value) {
+      if (value.isNumber()) {
+        double d = ((JsonNumber) value).doubleValue();
+        max = Double.isNaN(max) ? d : Math.max(max, d);
+      }
+    }
+
+    @Override
+    public Double result() {
+      return max;
+    }
+  }
+
+  private static final class Mean implements Aggregator<Double> {
+    private double sum = 0;
+    private long count = 0;
+
+    @Override
+    public void add(JsonToken value) {
+      if (value.isNumber()) {
+        sum += ((JsonNumber) value).doubleValue();
+        ++count;
+      }
+    }
+
+    @Override
+    public Double result() {
+      return count == 0 ? Double.NaN : sum / count;
+    }
+  }
+}
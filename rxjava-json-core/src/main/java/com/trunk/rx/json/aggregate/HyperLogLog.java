@@ -0,0 +1,114 @@
+package com.trunk.rx.json.aggregate;
+
+import com.trunk.rx.json.token.JsonToken;
+
+/**
+ * Estimates the number of distinct values in a stream using the
+ * <a href="http://algo.inria.fr/flajolet/Publications/FlFuGaMe07.pdf">HyperLogLog</a> algorithm, in a fixed amount of
+ * memory however many values there are. With the default precision of {@value #DEFAULT_PRECISION} the estimate has a
+ * standard error of about 0.8% and the registers take 16KB.
+ * <p>
+ * Values of different types are distinct, so the string <code>"1"</code> and the number <code>1</code> are counted
+ * separately, but numbers are compared by their text, so <code>1</code> and <code>1.0</code> are also distinct.
+ */
+public final class HyperLogLog implements Aggregator<Long> {
+
+  public static final int DEFAULT_PRECISION = 14;
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * @return an estimator with the default precision
+   */
+  public static HyperLogLog of() {
+    return of(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @param precision the number of bits of each hash used to choose a register, so there are 2^precision registers
+   *                  and the standard error is about 1.04 / sqrt(2^precision)
+   */
+  public static HyperLogLog of(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+    }
+    return new HyperLogLog(precision);
+  }
+
+  private HyperLogLog(int precision) {
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  @Override
+  public void add(JsonToken value) {
+    if (value.isNull()) {
+      return;
+    }
+    long hash = FNV_OFFSET_BASIS;
+    // the type is part of the value
+    hash = (hash ^ (value.isString() ? 's' : value.isNumber() ? 'n' : 'b')) * FNV_PRIME;
+    String text = value.value();
+    for (int i = 0; i < text.length(); ++i) {
+      hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+    }
+    addHash(hash);
+  }
+
+  /**
+   * Add a value by its hash, which must be well distributed over all 64 bits.
+   */
+  public void addHash(long hash) {
+    hash = mix(hash);
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // the position of the first set bit of the rest of the hash, with a sentinel bit in case the rest is zero
+    long rest = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  /**
+   * @return the estimated number of distinct values added
+   */
+  @Override
+  public Long result() {
+    return estimate();
+  }
+
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        ++zeros;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double estimate = alpha * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // few values have been added, so count the empty registers instead
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  // the finaliser of MurmurHash3, so every bit of the hash depends on every bit of the value
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,166 @@
+package com.trunk.rx.json.column;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The values of one column of a {@link ColumnBatch}, held in a primitive array of the column's type. A row whose field
+ * is missing or null has no value, which {@link #isNull(int)} tests, and holds the default value of the array.
+ */
+public abstract class Column {
+  private final String name;
+  private final int rowCount;
+  private final BitSet valid;
+
+  Column(String name, int rowCount, BitSet valid) {
+    this.name = name;
+    this.rowCount = rowCount;
+    this.valid = valid;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public abstract ColumnType getType();
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public boolean isNull(int row) {
+    return !valid.get(checkRow(row));
+  }
+
+  /**
+   * @return the number of rows with no value
+   */
+  public int getNullCount() {
+    return rowCount - valid.cardinality();
+  }
+
+  int checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " is not in [0, " + rowCount + ")");
+    }
+    return row;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{name=" + name + ", rows=" + rowCount + ", nulls=" + getNullCount() + "}";
+  }
+
+  public static final class Longs extends Column {
+    private final long[] values;
+
+    Longs(String name, int rowCount, BitSet valid, long[] values) {
+      super(name, rowCount, valid);
+      this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+      return ColumnType.LONG;
+    }
+
+    public long get(int row) {
+      return values[checkRow(row)];
+    }
+
+    /**
+     * @return the values, one per row, which belong to the receiver
+     */
+    public long[] getValues() {
+      return values;
+    }
+  }
+
+  public static final class Doubles extends Column {
+    private final double[] values;
+
+    Doubles(String name, int rowCount, BitSet valid, double[] values) {
+      super(name, rowCount, valid);
+      this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+      return ColumnType.DOUBLE;
+    }
+
+    public double get(int row) {
+      return values[checkRow(row)];
+    }
+
+    /**
+     * @return the values, one per row, which belong to the receiver
+     */
+    public double[] getValues() {
+      return values;
+    }
+  }
+
+  public static final class Booleans extends Column {
+    private final BitSet values;
+
+    Booleans(String name, int rowCount, BitSet valid, BitSet values) {
+      super(name, rowCount, valid);
+      this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+      return ColumnType.BOOLEAN;
+    }
+
+    public boolean get(int row) {
+      return values.get(checkRow(row));
+    }
+
+    /**
+     * @return the values, with a bit set for each row that is true, which belong to the receiver
+     */
+    public BitSet getValues() {
+      return values;
+    }
+  }
+
+  /**
+   * Strings are dictionary encoded: each row holds the code of its string in the dictionary of the distinct strings of
+   * the batch, so repeated strings are held once.
+   */
+  public static final class Strings extends Column {
+    private final int[] codes;
+    private final List<String> dictionary;
+
+    Strings(String name, int rowCount, BitSet valid, int[] codes, List<String> dictionary) {
+      super(name, rowCount, valid);
+      this.codes = codes;
+      this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+      return ColumnType.STRING;
+    }
+
+    /**
+     * @return the string of the row, or null if it has none
+     */
+    public String get(int row) {
+      return isNull(row) ? null : dictionary.get(codes[row]);
+    }
+
+    /**
+     * @return the code of the string of each row, which belong to the receiver
+     */
+    public int[] getCodes() {
+      return codes;
+    }
+
+    public List<String> getDictionary() {
+      return dictionary;
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.trunk.rx.json.column;
+
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonToken;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of rows held as a column of primitive values per field of a {@link ColumnSpec}, ready for vectorised
+ * processing without an object per row or value.
+ */
+public class ColumnBatch {
+  private final int rowCount;
+  private final List<Column> columns;
+  private final Map<String, Column> columnsByName;
+
+  private ColumnBatch(int rowCount, List<Column> columns) {
+    this.rowCount = rowCount;
+    this.columns = Collections.unmodifiableList(columns);
+    this.columnsByName = new HashMap<>();
+    for (Column column : columns) {
+      columnsByName.put(column.getName(), column);
+    }
+  }
+
+  /**
+   * @param capacity the maximum number of rows of the batch
+   * @return a builder filling the columns of the spec row by row
+   */
+  public static Builder builder(ColumnSpec spec, int capacity) {
+    return new Builder(spec, capacity);
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return the columns, in the order of the spec
+   */
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  public Column getColumn(int column) {
+    return columns.get(column);
+  }
+
+  /**
+   * @throws IllegalArgumentException if there is no column with the name
+   */
+  public Column getColumn(String name) {
+    Column column = columnsByName.get(name);
+    if (column == null) {
+      throw new IllegalArgumentException("No column '" + name + "'");
+    }
+    return column;
+  }
+
+  public Column.Longs getLongs(String name) {
+    return getColumn(name, Column.Longs.class);
+  }
+
+  public Column.Doubles getDoubles(String name) {
+    return getColumn(name, Column.Doubles.class);
+  }
+
+  public Column.Booleans getBooleans(String name) {
+    return getColumn(name, Column.Booleans.class);
+  }
+
+  public Column.Strings getStrings(String name) {
+    return getColumn(name, Column.Strings.class);
+  }
+
+  private <C extends Column> C getColumn(String name, Class<C> type) {
+    Column column = getColumn(name);
+    if (!type.isInstance(column)) {
+      throw new IllegalArgumentException("Column '" + name + "' is " + column.getType());
+    }
+    return type.cast(column);
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnBatch{rows=" + rowCount + ", columns=" + columns + "}";
+  }
+
+  /**
+   * Fills the columns of a batch one row at a time. A builder can only build one batch.
+   */
+  public static final class Builder {
+    private final ColumnSpec spec;
+    private final int capacity;
+    private final BitSet[] valid;
+    private final Object[] values;
+    private final List<Map<String, Integer>> codes;
+    private final List<List<String>> dictionaries;
+    private int row = 0;
+
+    private Builder(ColumnSpec spec, int capacity) {
+      if (capacity < 1) {
+        throw new IllegalArgumentException("Capacity must be positive");
+      }
+      this.spec = spec;
+      this.capacity = capacity;
+      this.valid = new BitSet[spec.size()];
+      this.values = new Object[spec.size()];
+      this.codes = new ArrayList<>(spec.size());
+      this.dictionaries = new ArrayList<>(spec.size());
+      for (int i = 0; i < spec.size(); ++i) {
+        valid[i] = new BitSet(capacity);
+        values[i] = allocate(spec.getType(i), capacity);
+        codes.add(spec.getType(i) == ColumnType.STRING ? new HashMap<>() : null);
+        dictionaries.add(spec.getType(i) == ColumnType.STRING ? new ArrayList<>() : null);
+      }
+    }
+
+    /**
+     * Set the value of a column of the current row.
+     *
+     * @param token a scalar token, where null leaves the row without a value
+     * @throws IllegalArgumentException if the token is not of the column's type
+     */
+    public Builder set(int column, JsonToken token) {
+      if (row == capacity) {
+        throw new IllegalStateException("Batch is full");
+      }
+      if (token.isNull()) {
+        valid[column].clear(row);
+        return this;
+      }
+      switch (spec.getType(column)) {
+        case LONG:
+          if (token.isNumber()) {
+            try {
+              ((long[]) values[column])[row] = ((JsonNumber) token).longValue();
+              break;
+            } catch (NumberFormatException e) {
+              // fall through to the error
+            }
+          }
+          throw mismatch(column, token);
+        case DOUBLE:
+          if (!token.isNumber()) {
+            throw mismatch(column, token);
+          }
+          ((double[]) values[column])[row] = ((JsonNumber) token).doubleValue();
+          break;
+        case BOOLEAN:
+          if (!token.isBoolean()) {
+            throw mismatch(column, token);
+          }
+          ((BitSet) values[column]).set(row, Boolean.parseBoolean(token.value()));
+          break;
+        case STRING:
+          if (!token.isString()) {
+            throw mismatch(column, token);
+          }
+          List<String> dictionary = dictionaries.get(column);
+          ((int[]) values[column])[row] = codes.get(column).computeIfAbsent(token.value(), s -> {
+            dictionary.add(s);
+            return dictionary.size() - 1;
+          });
+          break;
+      }
+      valid[column].set(row);
+      return this;
+    }
+
+    /**
+     * End the current row. Columns of the row that were not set have no value.
+     */
+    public Builder endRow() {
+      if (row == capacity) {
+        throw new IllegalStateException("Batch is full");
+      }
+      ++row;
+      return this;
+    }
+
+    public int getRowCount() {
+      return row;
+    }
+
+    public boolean isFull() {
+      return row == capacity;
+    }
+
+    /**
+     * @return a batch of the ended rows, with arrays trimmed to the number of rows
+     */
+    public ColumnBatch build() {
+      List<Column> columns = new ArrayList<>(spec.size());
+      for (int i = 0; i < spec.size(); ++i) {
+        String name = spec.getName(i);
+        switch (spec.getType(i)) {
+          case LONG:
+            columns.add(new Column.Longs(name, row, valid[i], trim((long[]) values[i])));
+            break;
+          case DOUBLE:
+            columns.add(new Column.Doubles(name, row, valid[i], trim((double[]) values[i])));
+            break;
+          case BOOLEAN:
+            columns.add(new Column.Booleans(name, row, valid[i], (BitSet) values[i]));
+            break;
+          case STRING:
+            columns.add(new Column.Strings(name, row, valid[i], trim((int[]) values[i]), Collections.unmodifiableList(dictionaries.get(i))));
+            break;
+        }
+      }
+      return new ColumnBatch(row, columns);
+    }
+
+    private IllegalArgumentException mismatch(int column, JsonToken token) {
+      return new IllegalArgumentException("Column '" + spec.getName(column) + "' is " + spec.getType(column) + " but found " + token);
+    }
+
+    private long[] trim(long[] array) {
+      return array.length == row ? array : Arrays.copyOf(array, row);
+    }
+
+    private double[] trim(double[] array) {
+      return array.length == row ? array : Arrays.copyOf(array, row);
+    }
+
+    private int[] trim(int[] array) {
+      return array.length == row ? array : Arrays.copyOf(array, row);
+    }
+
+    private static Object allocate(ColumnType type, int capacity) {
+      switch (type) {
+        case LONG:
+          return new long[capacity];
+        case DOUBLE:
+          return new double[capacity];
+        case BOOLEAN:
+          return new BitSet(capacity);
+        default:
+          return new int[capacity];
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.trunk.rx.json.column;
+
+import com.trunk.rx.json.exception.MalformedPathException;
+import com.trunk.rx.json.path.ArrayIndexToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.ObjectToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The columns to extract from each matched object, each given by the path of a field within the object, such as
+ * <code>price</code>, <code>meta.id</code> or <code>['unit price']</code>, and the type of its values.
+ * <p>
+ * A ColumnSpec is immutable, so each column added returns a new ColumnSpec.
+ */
+public final class ColumnSpec {
+
+  private static final class Holder {
+    private static final ColumnSpec EMPTY = new ColumnSpec(Collections.emptyList());
+  }
+
+  private final List<Field> fields;
+
+  public static ColumnSpec of() {
+    return Holder.EMPTY;
+  }
+
+  private ColumnSpec(List<Field> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * @param field the path of the field within each object, without the leading <code>$</code>, which is also the
+   *              name of the column
+   * @throws MalformedPathException if the path is malformed or is not the path of a single field
+   */
+  public ColumnSpec with(String field, ColumnType type) {
+    JsonPath path = JsonPath.parse(field.startsWith("[") ? "$" + field : "$." + field);
+    Optional<JsonPath> p = path.getNextPathToken();
+    // the first step is a member of the object, and each step after it is a member or an element
+    if (!p.isPresent() || !(p.get() instanceof ObjectToken)) {
+      throw new MalformedPathException("Column '" + field + "' must be the path of a member");
+    }
+    while (p.isPresent()) {
+      if (!(p.get() instanceof ObjectToken) &&
+        !(p.get() instanceof ArrayIndexToken && ((ArrayIndexToken) p.get()).getIndex() >= 0)) {
+        throw new MalformedPathException("Column '" + field + "' must be the path of a single field");
+      }
+      p = p.get().getNextPathToken();
+    }
+    for (Field f : fields) {
+      if (f.path.equals(path)) {
+        throw new IllegalArgumentException("Column '" + field + "' is already defined");
+      }
+    }
+    List<Field> newFields = new ArrayList<>(fields);
+    newFields.add(new Field(field, path, type));
+    return new ColumnSpec(Collections.unmodifiableList(newFields));
+  }
+
+  public int size() {
+    return fields.size();
+  }
+
+  public String getName(int column) {
+    return fields.get(column).name;
+  }
+
+  public ColumnType getType(int column) {
+    return fields.get(column).type;
+  }
+
+  /**
+   * @return the name of the top level member containing the column's field
+   */
+  public String getMember(int column) {
+    return ((ObjectToken) fields.get(column).path.getNextPathToken().get()).getName();
+  }
+
+  /**
+   * @return the path of the column's field, relative to the object, starting with a {@link com.trunk.rx.json.path.RootToken}
+   */
+  public JsonPath getPath(int column) {
+    return fields.get(column).path;
+  }
+
+  private static final class Field {
+    final String name;
+    final JsonPath path;
+    final ColumnType type;
+
+    Field(String name, JsonPath path, ColumnType type) {
+      this.name = name;
+      this.path = path;
+      this.type = type;
+    }
+  }
+}
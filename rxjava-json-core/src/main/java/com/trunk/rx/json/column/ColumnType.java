@@ -0,0 +1,23 @@
+package com.trunk.rx.json.column;
+
+/**
+ * The type of the values of a column, which determines how they are stored in a {@link ColumnBatch}.
+ */
+public enum ColumnType {
+  /**
+   * Integers, stored in a long[]
+   */
+  LONG,
+  /**
+   * Numbers, stored in a double[]
+   */
+  DOUBLE,
+  /**
+   * Booleans, stored in a BitSet
+   */
+  BOOLEAN,
+  /**
+   * Strings, stored as an int[] of codes into a dictionary of the distinct strings of the batch
+   */
+  STRING
+}
@@ -6,12 +6,29 @@ import com.trunk.rx.json.token.JsonComma;
 import com.trunk.rx.json.token.JsonToken;
 import rx.Observable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON array of JsonElements.
+ * <p>
+ * An array built from a {@link Builder}, or from elements given as arguments, holds its elements in a list, so
+ * emitting its tokens walks the list rather than a chain of concatenated Observables, however many elements were
+ * added. Adding to an array copies its list, so use a builder to add many elements. When every element is known the
+ * tokens of the whole array are known; see {@link JsonElement#getKnownTokens()}.
+ */
 public class JsonArray<T extends JsonElement> extends JsonElement {
 
   private final Observable<T> elements;
+  // null if the elements are not held in a list
+  private final List<T> list;
+  // the most elements subscribed to at once
+  private final int maxConcurrent;
 
   public static <T extends JsonElement> JsonArray<T> of() {
-    return new JsonArray<>(Observable.empty());
+    return new JsonArray<>(Collections.<T>emptyList(), 1);
   }
 
   public static <T extends JsonElement> JsonArray<T> of(Observable<T> elements) {
@@ -24,31 +41,130 @@ public class JsonArray<T extends JsonElement> extends JsonElement {
 
   @SafeVarargs
   public static <T extends JsonElement> JsonArray<T> of(T... elements) {
-    return new JsonArray<>(Observable.from(elements));
+    return new JsonArray<>(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(elements))), 1);
+  }
+
+  /**
+   * @return a new mutable builder of a list backed array
+   */
+  public static <T extends JsonElement> Builder<T> builder() {
+    return new Builder<>();
   }
 
   protected JsonArray(Observable<T> elements) {
+    this(elements, 1);
+  }
+
+  private JsonArray(Observable<T> elements, int maxConcurrent) {
     super(
       Observable.<JsonToken>just(JsonArrayStart.instance())
         .concatWith(
-          elements
-            .concatMap(jsonElement -> Observable.<JsonToken>just(JsonComma.instance()).concatWith(jsonElement))
+          concatMap(elements, jsonElement -> Observable.<JsonToken>just(JsonComma.instance()).concatWith(jsonElement), maxConcurrent)
             .skip(1)
         )
         .concatWith(Observable.just(JsonArrayEnd.instance()))
     );
     this.elements = elements;
+    this.list = null;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  private JsonArray(List<T> list, int maxConcurrent) {
+    super(new TokenSegments.Lazy(() -> getTokenSegments(list, maxConcurrent)));
+    this.elements = Observable.from(list);
+    this.list = list;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  private static TokenSegments getTokenSegments(List<? extends JsonElement> list, int maxConcurrent) {
+    TokenSegments tokens = new TokenSegments(maxConcurrent).add(JsonArrayStart.instance());
+    for (int i = 0; i < list.size(); ++i) {
+      if (i > 0) {
+        tokens.add(JsonComma.instance());
+      }
+      tokens.add(list.get(i));
+    }
+    return tokens.add(JsonArrayEnd.instance());
   }
 
   public JsonArray<T> addAll(Observable<? extends T> elements) {
-    return new JsonArray<>(this.elements.concatWith(elements));
+    return new JsonArray<>(this.elements.concatWith(elements), maxConcurrent);
   }
 
   public JsonArray<T> addAll(Iterable<? extends T> elements) {
-    return new JsonArray<>(this.elements.concatWith(Observable.from(elements)));
+    if (list != null) {
+      return new JsonArray<>(new Builder<>(list).addAll(elements).list, maxConcurrent);
+    }
+    return new JsonArray<>(this.elements.concatWith(Observable.from(elements)), maxConcurrent);
   }
 
   public JsonArray<T> add(T element) {
-    return new JsonArray<>(this.elements.concatWith(Observable.just(element)));
+    if (list != null) {
+      return new JsonArray<>(new Builder<>(list).add(element).list, maxConcurrent);
+    }
+    return new JsonArray<>(this.elements.concatWith(Observable.just(element)), maxConcurrent);
+  }
+
+  /**
+   * Subscribe to up to the given number of elements at once, rather than to one after another, so elements from
+   * independent remote calls are fetched concurrently. Elements are still emitted in order, with the tokens of later
+   * elements buffered until those of earlier elements have been emitted.
+   *
+   * @param maxConcurrent the most elements subscribed to at once, where 1 is one after another
+   */
+  public JsonArray<T> eager(int maxConcurrent) {
+    requireMaxConcurrent(maxConcurrent);
+    if (list != null) {
+      return new JsonArray<>(list, maxConcurrent);
+    }
+    return new JsonArray<>(this.elements, maxConcurrent);
+  }
+
+  /**
+   * A mutable builder of a list backed JsonArray, for arrays with many elements. A builder is not thread safe.
+   */
+  public static final class Builder<T extends JsonElement> {
+    private final List<T> list;
+    private int maxConcurrent = 1;
+
+    private Builder() {
+      this.list = new ArrayList<>();
+    }
+
+    private Builder(List<T> list) {
+      this.list = new ArrayList<>(list.size() + 1);
+      this.list.addAll(list);
+    }
+
+    public Builder<T> add(T element) {
+      list.add(element);
+      return this;
+    }
+
+    public Builder<T> addAll(Iterable<? extends T> elements) {
+      for (T element : elements) {
+        list.add(element);
+      }
+      return this;
+    }
+
+    /**
+     * @see JsonArray#eager(int)
+     */
+    public Builder<T> eager(int maxConcurrent) {
+      this.maxConcurrent = requireMaxConcurrent(maxConcurrent);
+      return this;
+    }
+
+    public int size() {
+      return list.size();
+    }
+
+    /**
+     * @return an immutable array of the elements added so far; the builder may still be used
+     */
+    public JsonArray<T> build() {
+      return new JsonArray<>(Collections.unmodifiableList(new ArrayList<>(list)), maxConcurrent);
+    }
   }
 }
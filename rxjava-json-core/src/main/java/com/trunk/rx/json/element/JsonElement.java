@@ -1,7 +1,17 @@
 package com.trunk.rx.json.element;
 
+import com.trunk.rx.json.token.JsonFragment;
 import com.trunk.rx.json.token.JsonToken;
+import com.trunk.rx.json.transformer.TransformerJsonTokenToString;
 import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.internal.util.RxRingBuffer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 public class JsonElement extends Observable<JsonToken> {
 
@@ -13,12 +23,92 @@ public class JsonElement extends Observable<JsonToken> {
     return Holder.EMPTY;
   }
 
+  // the tokens of the element, if they are fixed when it is created, otherwise null
+  private final Func0<JsonToken[]> knownTokens;
+
   protected JsonElement(Observable<JsonToken> tokens) {
-    super(tokens::subscribe);
+    this(tokens, null);
   }
 
   protected JsonElement(JsonToken token) {
-    this(Observable.just(token));
+    this(new JsonToken[] {token});
+  }
+
+  /**
+   * Create an element with the tokens of another, which are known if they are known for the other element.
+   */
+  protected JsonElement(JsonElement element) {
+    this(element, element.knownTokens);
+  }
+
+  JsonElement(JsonToken[] tokens) {
+    this(Observable.from(tokens), () -> tokens);
+  }
+
+  JsonElement(TokenSegments.Lazy tokens) {
+    this(Observable.defer(() -> tokens.get().tokens()), () -> tokens.get().knownTokens());
+  }
+
+  private JsonElement(Observable<JsonToken> tokens, Func0<JsonToken[]> knownTokens) {
+    super(tokens::subscribe);
+    this.knownTokens = knownTokens;
+  }
+
+  /**
+   * The tokens of an element are known if it was created from values, rather than from Observables, such as a
+   * JsonObject or JsonArray from a builder whose values are all known. The tokens of such an element can be written
+   * synchronously, without subscribing to it.
+   *
+   * @return the tokens of the element if they are known
+   */
+  public Optional<List<JsonToken>> getKnownTokens() {
+    JsonToken[] tokens = knownTokens();
+    return tokens == null ? Optional.empty() : Optional.of(Collections.unmodifiableList(Arrays.asList(tokens)));
+  }
+
+  /**
+   * Render the element once, as a single fragment of JSON that writers copy as it is rather than writing its tokens
+   * again, for elements that are constant or rarely change. The rendered element is immutable, so may be shared
+   * between threads and subscriptions.
+   *
+   * @return an element of the rendered JSON
+   * @throws IllegalStateException if the tokens of the element are not known
+   */
+  public JsonElement prerender() {
+    JsonToken[] tokens = knownTokens();
+    if (tokens == null) {
+      throw new IllegalStateException("Cannot prerender an element whose tokens are not known");
+    }
+    if (tokens.length == 1 && tokens[0] instanceof JsonFragment) {
+      return this;
+    }
+    StringBuilder json = new StringBuilder();
+    for (JsonToken token : tokens) {
+      TransformerJsonTokenToString.appendTo(json, token);
+    }
+    return new JsonElement(new JsonToken[] {JsonFragment.of(json.toString())});
+  }
+
+  /**
+   * @return the tokens of the element if they are known, otherwise null
+   */
+  JsonToken[] knownTokens() {
+    return knownTokens == null ? null : knownTokens.call();
+  }
+
+  /**
+   * Concatenate the Observables mapped from the values in order. With a maximum concurrency above 1, up to that many
+   * are subscribed to at once, and the values of later Observables are buffered until earlier Observables complete.
+   */
+  protected static <T, R> Observable<R> concatMap(Observable<T> values, Func1<? super T, ? extends Observable<? extends R>> func, int maxConcurrent) {
+    return maxConcurrent > 1 ? values.concatMapEager(func, RxRingBuffer.SIZE, maxConcurrent) : values.concatMap(func);
+  }
+
+  protected static int requireMaxConcurrent(int maxConcurrent) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("Maximum concurrency must be positive");
+    }
+    return maxConcurrent;
   }
 
   public Observable<JsonToken> withNonExecutionPrefix() {
@@ -1,7 +1,5 @@
 package com.trunk.rx.json.element;
 
-import rx.Observable;
-
 public class JsonNull extends JsonElement {
 
   private static final class Holder {
@@ -13,6 +11,6 @@ public class JsonNull extends JsonElement {
   }
 
   public JsonNull() {
-    super(Observable.just(com.trunk.rx.json.token.JsonNull.instance()));
+    super(com.trunk.rx.json.token.JsonNull.instance());
   }
 }
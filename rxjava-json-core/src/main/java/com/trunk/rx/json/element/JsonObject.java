@@ -10,13 +10,31 @@ import com.trunk.rx.json.token.JsonQuote;
 import com.trunk.rx.json.token.JsonToken;
 import rx.Observable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON object of entries whose values are JsonElements.
+ * <p>
+ * An object built from a {@link Builder}, or from entries given as arguments, holds its entries in a list, so emitting
+ * its tokens walks the list rather than a chain of concatenated Observables, however many entries were added. Adding
+ * to an object copies its list, so use a builder to add many entries. When the values of every entry are known, as for
+ * values from a JsonValueBuilder, the tokens of the whole object are known and it can be written without subscribing
+ * to it; see {@link JsonElement#getKnownTokens()}.
+ */
 public class JsonObject<T extends JsonElement> extends JsonElement {
 
   private final Observable<Entry<T>> elements;
+  // null if the entries are not held in a list
+  private final List<Entry<T>> entries;
   private final boolean suppressNulls;
+  // the most entry values subscribed to at once
+  private final int maxConcurrent;
 
   public static <T extends JsonElement> JsonObject<T> of() {
-    return new JsonObject<>(Observable.empty(), false);
+    return new JsonObject<>(Collections.<Entry<T>>emptyList(), false, 1);
   }
 
   public static <T extends JsonElement> JsonObject<T> of(Observable<Entry<T>> elements) {
@@ -29,11 +47,18 @@ public class JsonObject<T extends JsonElement> extends JsonElement {
 
   @SafeVarargs
   public static <T extends JsonElement> JsonObject<T> of(Entry<T>... elements) {
-    return new JsonObject<>(Observable.from(elements), false);
+    return new JsonObject<>(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(elements))), false, 1);
+  }
+
+  /**
+   * @return a new mutable builder of a list backed object
+   */
+  public static <T extends JsonElement> Builder<T> builder() {
+    return new Builder<>();
   }
 
   public static <T extends JsonElement> Entry<T> entry(String key, T value) {
-    return entry(key, just(value));
+    return new Entry<>(key, just(value), value);
   }
 
   public static <T extends JsonElement> Entry<T> entry(String key, Observable<T> value) {
@@ -41,70 +66,216 @@ public class JsonObject<T extends JsonElement> extends JsonElement {
   }
 
   protected JsonObject(Observable<Entry<T>> elements, boolean suppressNulls) {
-    super(
-      Observable.<JsonToken>just(JsonObjectStart.instance())
-        .concatWith(
-          elements
-            .concatMap(
-              entry ->
-                entry.getValue().take(1)
-                  .filter(value -> !suppressNulls || !(value instanceof JsonNull))
-                  .flatMap(
-                    value ->
-                      getKeyValuePairTokens(entry.key, value)
-                  )
-                  .switchIfEmpty(
-                    suppressNulls ?
-                      Observable.empty() :
-                      getKeyValuePairTokens(entry.key, RxJson.valueBuilder().Null())
-                  )
-            )
-            .skip(1) // the first comma
-        )
-        .concatWith(Observable.just(JsonObjectEnd.instance())));
+    this(elements, suppressNulls, 1);
+  }
+
+  private JsonObject(Observable<Entry<T>> elements, boolean suppressNulls, int maxConcurrent) {
+    super(getTokens(elements, suppressNulls, maxConcurrent));
     this.elements = elements;
+    this.entries = null;
     this.suppressNulls = suppressNulls;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  private JsonObject(List<Entry<T>> entries, boolean suppressNulls, int maxConcurrent) {
+    super(new TokenSegments.Lazy(() -> getTokenSegments(entries, suppressNulls, maxConcurrent)));
+    this.elements = Observable.from(entries);
+    this.entries = entries;
+    this.suppressNulls = suppressNulls;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  private static <T extends JsonElement> Observable<JsonToken> getTokens(Observable<Entry<T>> elements, boolean suppressNulls, int maxConcurrent) {
+    return Observable.<JsonToken>just(JsonObjectStart.instance())
+      .concatWith(
+        concatMap(elements, entry -> getEntryTokens(entry, suppressNulls), maxConcurrent)
+          .skip(1) // the first comma
+      )
+      .concatWith(Observable.just(JsonObjectEnd.instance()));
+  }
+
+  private static <T extends JsonElement> TokenSegments getTokenSegments(List<Entry<T>> entries, boolean suppressNulls, int maxConcurrent) {
+    for (Entry<T> entry : entries) {
+      if (entry.element == null) {
+        // whether the entry is suppressed, and so whether the next needs a comma, is not known until it is emitted
+        return new TokenSegments().add(getTokens(Observable.from(entries), suppressNulls, maxConcurrent));
+      }
+    }
+    TokenSegments tokens = new TokenSegments(maxConcurrent).add(JsonObjectStart.instance());
+    boolean first = true;
+    for (Entry<T> entry : entries) {
+      if (suppressNulls && entry.element instanceof JsonNull) {
+        continue;
+      }
+      if (!first) {
+        tokens.add(JsonComma.instance());
+      }
+      first = false;
+      tokens.add(JsonQuote.instance())
+        .add(JsonName.of(entry.key))
+        .add(JsonQuote.instance())
+        .add(JsonColon.instance())
+        .add(entry.element);
+    }
+    return tokens.add(JsonObjectEnd.instance());
+  }
+
+  private static <T extends JsonElement> Observable<JsonToken> getEntryTokens(Entry<T> entry, boolean suppressNulls) {
+    if (entry.element != null) {
+      // the value is already known, so there is no need to subscribe to it
+      return suppressNulls && entry.element instanceof JsonNull ?
+        Observable.empty() :
+        getKeyValuePairTokens(entry.key, entry.element);
+    }
+    return entry.getValue().take(1)
+      .filter(value -> !suppressNulls || !(value instanceof JsonNull))
+      .flatMap(
+        value ->
+          getKeyValuePairTokens(entry.key, value)
+      )
+      .switchIfEmpty(
+        suppressNulls ?
+          Observable.empty() :
+          Observable.defer(() -> getKeyValuePairTokens(entry.key, RxJson.valueBuilder().Null()))
+      );
   }
 
   private static Observable<JsonToken> getKeyValuePairTokens(String key, JsonElement value) {
-    return Observable.<JsonToken>just(JsonComma.instance())
-      .concatWith(Observable.just(JsonQuote.instance(), JsonName.of(key), JsonQuote.instance()))
-      .concatWith(Observable.just(JsonColon.instance()))
+    return Observable.<JsonToken>from(new JsonToken[] {
+      JsonComma.instance(), JsonQuote.instance(), JsonName.of(key), JsonQuote.instance(), JsonColon.instance()
+    })
       .concatWith(value);
   }
 
   public JsonObject<T> addAll(Observable<Entry<T>> elements) {
-    return new JsonObject<>(this.elements.concatWith(elements), suppressNulls);
+    return new JsonObject<>(this.elements.concatWith(elements), suppressNulls, maxConcurrent);
   }
 
   public JsonObject<T> addAll(Iterable<Entry<T>> elements) {
-    return new JsonObject<>(this.elements.concatWith(Observable.from(elements)), suppressNulls);
+    if (entries != null) {
+      return new JsonObject<>(new Builder<>(entries).addAll(elements).entries, suppressNulls, maxConcurrent);
+    }
+    return new JsonObject<>(this.elements.concatWith(Observable.from(elements)), suppressNulls, maxConcurrent);
   }
 
   public JsonObject<T> add(String key, T value) {
-    return new JsonObject<>(this.elements.concatWith(Observable.just(entry(key, value))), suppressNulls);
+    return add(entry(key, value));
   }
 
   public JsonObject<T> add(String key, Observable<T> value) {
-    return new JsonObject<>(this.elements.concatWith(Observable.just(entry(key, value))), suppressNulls);
+    return add(entry(key, value));
+  }
+
+  private JsonObject<T> add(Entry<T> entry) {
+    if (entries != null) {
+      return new JsonObject<>(new Builder<>(entries).add(entry).entries, suppressNulls, maxConcurrent);
+    }
+    return new JsonObject<>(this.elements.concatWith(Observable.just(entry)), suppressNulls, maxConcurrent);
   }
 
   public JsonObject<T> suppressNulls() {
-    return new JsonObject<>(this.elements, true);
+    return suppressNulls(true);
   }
 
   public JsonObject<T> suppressNulls(boolean suppress) {
-    return new JsonObject<>(this.elements, suppress);
+    if (entries != null) {
+      return new JsonObject<>(entries, suppress, maxConcurrent);
+    }
+    return new JsonObject<>(this.elements, suppress, maxConcurrent);
+  }
+
+  /**
+   * Subscribe to the values of up to the given number of entries at once, rather than to one after another, so values
+   * from independent remote calls are fetched concurrently. Entries are still emitted in order, with the tokens of
+   * later values buffered until those of earlier values have been emitted.
+   *
+   * @param maxConcurrent the most values subscribed to at once, where 1 is one after another
+   */
+  public JsonObject<T> eager(int maxConcurrent) {
+    requireMaxConcurrent(maxConcurrent);
+    if (entries != null) {
+      return new JsonObject<>(entries, suppressNulls, maxConcurrent);
+    }
+    return new JsonObject<>(this.elements, suppressNulls, maxConcurrent);
+  }
+
+  /**
+   * A mutable builder of a list backed JsonObject, for objects with many entries. A builder is not thread safe.
+   */
+  public static final class Builder<T extends JsonElement> {
+    private final List<Entry<T>> entries;
+    private boolean suppressNulls = false;
+    private int maxConcurrent = 1;
+
+    private Builder() {
+      this.entries = new ArrayList<>();
+    }
+
+    private Builder(List<Entry<T>> entries) {
+      this.entries = new ArrayList<>(entries.size() + 1);
+      this.entries.addAll(entries);
+    }
+
+    public Builder<T> add(String key, T value) {
+      return add(entry(key, value));
+    }
+
+    public Builder<T> add(String key, Observable<T> value) {
+      return add(entry(key, value));
+    }
+
+    public Builder<T> add(Entry<T> entry) {
+      entries.add(entry);
+      return this;
+    }
+
+    public Builder<T> addAll(Iterable<Entry<T>> elements) {
+      for (Entry<T> entry : elements) {
+        entries.add(entry);
+      }
+      return this;
+    }
+
+    public Builder<T> suppressNulls(boolean suppress) {
+      suppressNulls = suppress;
+      return this;
+    }
+
+    /**
+     * @see JsonObject#eager(int)
+     */
+    public Builder<T> eager(int maxConcurrent) {
+      this.maxConcurrent = requireMaxConcurrent(maxConcurrent);
+      return this;
+    }
+
+    public int size() {
+      return entries.size();
+    }
+
+    /**
+     * @return an immutable object of the entries added so far; the builder may still be used
+     */
+    public JsonObject<T> build() {
+      return new JsonObject<>(Collections.unmodifiableList(new ArrayList<>(entries)), suppressNulls, maxConcurrent);
+    }
   }
 
   public static final class Entry<T extends JsonElement> {
 
     private String key;
     private Observable<T> value;
+    // the value, if it is known
+    private T element;
 
     public Entry(String key, Observable<T> value) {
+      this(key, value, null);
+    }
+
+    private Entry(String key, Observable<T> value, T element) {
       this.key = key;
       this.value = value;
+      this.element = element;
     }
 
     public String getKey() {
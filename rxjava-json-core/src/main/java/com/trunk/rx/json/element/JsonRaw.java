@@ -1,7 +1,5 @@
 package com.trunk.rx.json.element;
 
-import rx.Observable;
-
 public class JsonRaw extends JsonElement {
 
   public static JsonRaw of(String rawString) {
@@ -9,6 +7,6 @@ public class JsonRaw extends JsonElement {
   }
 
   protected JsonRaw(String rawString) {
-    super(Observable.just(com.trunk.rx.json.token.JsonRaw.of(rawString)));
+    super(com.trunk.rx.json.token.JsonRaw.of(rawString));
   }
 }
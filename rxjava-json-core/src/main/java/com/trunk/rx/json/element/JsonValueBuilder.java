@@ -119,7 +119,7 @@ public class JsonValueBuilder {
     if (value == null) {
       return Null();
     }
-    return new JsonElement(Observable.just(JsonQuote.instance(), JsonString.of(value), JsonQuote.instance()));
+    return new JsonElement(new JsonToken[] {JsonQuote.instance(), JsonString.of(value), JsonQuote.instance()});
   }
 
   /**
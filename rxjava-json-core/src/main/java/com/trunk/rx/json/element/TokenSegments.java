@@ -0,0 +1,122 @@
+package com.trunk.rx.json.element;
+
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.functions.Func0;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembles the tokens of a list backed element. Runs of tokens that are known, including the known tokens of
+ * nested elements, are held in arrays, so an element whose tokens are all known is emitted by a single producer
+ * walking an array.
+ */
+final class TokenSegments {
+  private final int maxConcurrent;
+  private final List<Observable<JsonToken>> segments = new ArrayList<>();
+  private final List<JsonToken> run = new ArrayList<>();
+  // set once assembled
+  private JsonToken[] knownTokens = null;
+  private Observable<JsonToken> tokens = null;
+
+  TokenSegments() {
+    this(1);
+  }
+
+  /**
+   * @param maxConcurrent the most segments subscribed to at once
+   */
+  TokenSegments(int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  TokenSegments add(JsonToken token) {
+    run.add(token);
+    return this;
+  }
+
+  TokenSegments add(JsonElement element) {
+    JsonToken[] tokens = element.knownTokens();
+    if (tokens == null) {
+      addSegment(element);
+    } else {
+      for (JsonToken token : tokens) {
+        run.add(token);
+      }
+    }
+    return this;
+  }
+
+  TokenSegments add(Observable<JsonToken> tokens) {
+    addSegment(tokens);
+    return this;
+  }
+
+  /**
+   * @return the tokens if they are all known, otherwise null
+   */
+  JsonToken[] knownTokens() {
+    return knownTokens;
+  }
+
+  Observable<JsonToken> tokens() {
+    return tokens;
+  }
+
+  private TokenSegments assemble() {
+    if (segments.isEmpty()) {
+      knownTokens = run.toArray(new JsonToken[run.size()]);
+      tokens = Observable.from(knownTokens);
+    } else {
+      endRun();
+      tokens = segments.size() == 1 ? segments.get(0) : JsonElement.concatMap(Observable.from(segments), segment -> segment, maxConcurrent);
+    }
+    run.clear();
+    return this;
+  }
+
+  // the run before a segment is emitted with it, so only segments that are not known count towards the concurrency
+  private void addSegment(Observable<JsonToken> tokens) {
+    if (run.isEmpty()) {
+      segments.add(tokens);
+    } else {
+      segments.add(Observable.from(run.toArray(new JsonToken[run.size()])).concatWith(tokens));
+      run.clear();
+    }
+  }
+
+  private void endRun() {
+    if (!run.isEmpty()) {
+      segments.add(Observable.from(run.toArray(new JsonToken[run.size()])));
+      run.clear();
+    }
+  }
+
+  /**
+   * Assembles the tokens when they are first needed, so an element that is only added to, or is only written as part
+   * of another, does not hold a copy of its tokens.
+   */
+  static final class Lazy {
+    private final Func0<TokenSegments> factory;
+    private volatile TokenSegments tokens = null;
+
+    Lazy(Func0<TokenSegments> factory) {
+      this.factory = factory;
+    }
+
+    TokenSegments get() {
+      TokenSegments result = tokens;
+      if (result == null) {
+        synchronized (this) {
+          result = tokens;
+          if (result == null) {
+            result = factory.call().assemble();
+            tokens = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
+}
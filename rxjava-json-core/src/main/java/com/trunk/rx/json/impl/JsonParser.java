@@ -5,6 +5,8 @@ import com.trunk.rx.json.element.JsonNonExecutablePrefix;
 import com.trunk.rx.json.exception.MalformedJsonException;
 import com.trunk.rx.json.path.ArrayIndexToken;
 import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathMatcher;
+import com.trunk.rx.json.path.NameSelector;
 import com.trunk.rx.json.path.NoopToken;
 import com.trunk.rx.json.path.ObjectToken;
 import com.trunk.rx.json.path.RootToken;
@@ -15,6 +17,7 @@ import com.trunk.rx.json.token.JsonName;
 import com.trunk.rx.json.token.JsonNull;
 import com.trunk.rx.json.token.JsonNumber;
 import com.trunk.rx.json.token.JsonObject;
+import com.trunk.rx.json.token.JsonRaw;
 import com.trunk.rx.json.token.JsonString;
 import com.trunk.rx.json.token.JsonToken;
 import org.slf4j.Logger;
@@ -24,12 +27,17 @@ import rx.Subscriber;
 import rx.functions.Action0;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * A streaming JSON parser based on Gson's
@@ -41,8 +49,16 @@ public class JsonParser extends Subscriber<Character> {
 
   private static final char[] NON_EXECUTE_PREFIX = JsonNonExecutablePrefix.PREFIX.toCharArray();
   private static final char BOM = '\uFEFF';
+  // stands in for values inside a captured region, which are validated but never materialised
+  private static final Optional<JsonToken> CAPTURED_VALUE = Optional.of(JsonNull.instance());
+  // stands in for the name of a member that cannot be matched, which is skipped along with its value
+  private static final Optional<JsonToken> SKIPPED_NAME = Optional.of(JsonName.of(""));
 
   private final boolean lenient;
+  private final Collection<JsonPath> captureMatchers;
+  private final List<JsonPathMatcher> projectionMatchers;
+  private final Set<String> projection;
+  private final NameSelector nameSelector;
 
   // is this the first character of the stream
   private boolean firstChar = true;
@@ -84,6 +100,30 @@ public class JsonParser extends Subscriber<Character> {
 
   private boolean emitted = false;
 
+  /*
+   * Raw capture of matched values. While capturing, the source text of the value is copied to captureBuffer and no
+   * tokens or paths are created until the value is complete, when it is emitted as a single JsonRaw token.
+   */
+  private boolean capturing = false;
+  private boolean captureContainer = false;
+  private int captureDepth = 0;
+  private JsonPath capturePath = null;
+  private final StringBuilder captureBuffer = new StringBuilder();
+
+  /*
+   * Projection of matched objects. The members of a projected object whose names are not in the projection are
+   * skipped: their names are not emitted and their values are consumed like a captured value, but discarded.
+   */
+  private boolean[] projected = new boolean[32];
+  private boolean skipNextValue = false;
+  private boolean discarding = false;
+
+  /*
+   * Selection of members by name. The members of an object that cannot be matched by any path are skipped like the
+   * members of a projected object, but their names are tested against the buffer without creating a String.
+   */
+  private NameSelector.Names[] selected = new NameSelector.Names[32];
+
   private AtomicBoolean started = new AtomicBoolean(false);
   private AtomicBoolean completed = new AtomicBoolean(false);
   private Queue<JsonTokenEvent> tokenBuffer = new ConcurrentLinkedDeque<>();
@@ -105,7 +145,43 @@ public class JsonParser extends Subscriber<Character> {
   private JsonPath[] paths = new JsonPath[32];
 
   public JsonParser(boolean lenient) {
+    this(lenient, Collections.emptyList());
+  }
+
+  /**
+   * @param lenient         whether to parse leniently
+   * @param captureMatchers paths whose values are emitted as a single {@link JsonRaw} token holding the source text
+   *                        of the value rather than as individual tokens
+   */
+  public JsonParser(boolean lenient, Collection<JsonPath> captureMatchers) {
+    this(lenient, captureMatchers, Collections.emptyList(), Collections.emptySet());
+  }
+
+  /**
+   * @param lenient            whether to parse leniently
+   * @param captureMatchers    paths whose values are emitted as a single {@link JsonRaw} token holding the source text
+   *                           of the value rather than as individual tokens
+   * @param projectionMatchers paths of objects that are projected
+   * @param projection         the names of the members of projected objects to emit, other members are skipped
+   */
+  public JsonParser(boolean lenient, Collection<JsonPath> captureMatchers, Collection<JsonPath> projectionMatchers, Set<String> projection) {
+    this(lenient, captureMatchers, projectionMatchers, projection, Collections.emptyList());
+  }
+
+  /**
+   * @param lenient            whether to parse leniently
+   * @param captureMatchers    paths whose values are emitted as a single {@link JsonRaw} token holding the source text
+   *                           of the value rather than as individual tokens
+   * @param projectionMatchers paths of objects that are projected
+   * @param projection         the names of the members of projected objects to emit, other members are skipped
+   * @param selectionMatchers  paths with name patterns, members that none of them can match are skipped
+   */
+  public JsonParser(boolean lenient, Collection<JsonPath> captureMatchers, Collection<JsonPath> projectionMatchers, Set<String> projection, Collection<JsonPath> selectionMatchers) {
     this.lenient = lenient;
+    this.captureMatchers = captureMatchers;
+    this.projectionMatchers = projectionMatchers.stream().map(JsonPathMatcher::of).collect(Collectors.toList());
+    this.projection = projection;
+    this.nameSelector = NameSelector.of(selectionMatchers).orElse(null);
     request(0);
   }
 
@@ -151,7 +227,7 @@ public class JsonParser extends Subscriber<Character> {
         return;
       }
       if ((currentScope() == JsonScope.BARE_VALUE || currentScope() == JsonScope.NUMBER) &&
-          (bufferOverflow.length() > 0 || bufferOffset > 0)) {
+          (bufferOverflow.length() > 0 || bufferOffset > 0 || capturing)) {
         Optional<JsonToken> token = getCurrentValueAndResetBuffer();
         token.ifPresent(t -> {
           popScope();
@@ -205,6 +281,10 @@ public class JsonParser extends Subscriber<Character> {
         return;
       }
 
+      if (capturing && !discarding) {
+        captureBuffer.append(c);
+      }
+
       if(!captureComment(c)) {
         doOnNext(c);
       }
@@ -230,7 +310,9 @@ public class JsonParser extends Subscriber<Character> {
   }
 
   private void doOnNext(char c) {
-    trace(" - {}\t{}", currentStack(), getPath());
+    if (log.isTraceEnabled()) {
+      trace(" - {}\t{}", currentStack(), getPath());
+    }
     JsonScope scope = currentScope();
     if (scope == JsonScope.EMPTY_DOCUMENT) {
       handleEmptyDocument(c);
@@ -526,7 +608,22 @@ public class JsonParser extends Subscriber<Character> {
     hasSeparator = false;
     setScope(nonEmptyScope);
     pushScope(JsonScope.EMPTY_OBJECT);
-    emitDownstream(JsonObject.start());
+    if (!maybeStartCapture('{', true)) {
+      JsonPath path = getPath();
+      projected[stackSize - 1] = isProjected(path);
+      selected[stackSize - 1] = nameSelector == null ? null : nameSelector.in(path).orElse(null);
+      emitDownstream(JsonObject.start(), path);
+    }
+  }
+
+  private boolean isProjected(JsonPath path) {
+    for (JsonPathMatcher matcher : projectionMatchers) {
+      Optional<JsonPath> matched = matcher.matchedFragment(path);
+      if (matched.isPresent() && matched.get().length() == path.length()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private void startArray(JsonScope nonEmptyScope) {
@@ -534,10 +631,17 @@ public class JsonParser extends Subscriber<Character> {
     setScope(nonEmptyScope);
     pushScope(JsonScope.EMPTY_ARRAY);
     resetPathIndex();
-    emitDownstream(JsonArray.start());
+    if (!maybeStartCapture('[', true)) {
+      emitDownstream(JsonArray.start());
+    }
   }
 
   private void startSimpleValue(char c, JsonScope nonEmptyScope) {
+    if (nonEmptyScope != JsonScope.DANGLING_NAME) {
+      // the value's path depends on the non-empty scope
+      setScope(nonEmptyScope);
+      maybeStartCapture(c, false);
+    }
     if (c == '"' || (lenient && c == '\'')) {
       startQuotedString(c, nonEmptyScope);
     } else if (isNumberStart(c)) {
@@ -547,6 +651,68 @@ public class JsonParser extends Subscriber<Character> {
     }
   }
 
+  /**
+   * Start capturing the value beginning with the given character if its path is matched.
+   *
+   * @return true if the value is being captured
+   */
+  private boolean maybeStartCapture(char c, boolean container) {
+    if (capturing) {
+      return true;
+    }
+    if (skipNextValue) {
+      // a member of a projected object that is not in the projection
+      skipNextValue = false;
+      capturing = true;
+      discarding = true;
+      captureContainer = container;
+      captureDepth = container ? stackSize : stackSize + 1;
+      return true;
+    }
+    if (captureMatchers.isEmpty()) {
+      return false;
+    }
+    JsonPath path = getPath();
+    for (JsonPath matcher : captureMatchers) {
+      if (matcher.matches(path)) {
+        capturing = true;
+        captureContainer = container;
+        // containers have been pushed, simple values are pushed after this
+        captureDepth = container ? stackSize : stackSize + 1;
+        capturePath = path;
+        captureBuffer.setLength(0);
+        captureBuffer.append(c);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Called instead of emitting tokens while capturing, emits the captured value once the token that completes it is
+   * seen.
+   */
+  private void captureToken(JsonToken token) {
+    if (captureContainer) {
+      // the end of the captured container is emitted after its scope has been popped
+      if (stackSize >= captureDepth || (token != JsonObject.end() && token != JsonArray.end())) {
+        return;
+      }
+    }
+    capturing = false;
+    if (discarding) {
+      discarding = false;
+      return;
+    }
+    if (!captureContainer && (currentScope() == JsonScope.BARE_VALUE || currentScope() == JsonScope.NUMBER)) {
+      // a bare value or number is only known to be complete on the character after it, which is not part of it
+      captureBuffer.setLength(captureBuffer.length() - 1);
+    }
+    String raw = captureBuffer.toString();
+    captureBuffer.setLength(0);
+    emitDownstream(JsonRaw.of(raw), capturePath);
+  }
+
   private void startNumber(char c, JsonScope nonEmptyScope) {
     appendBuffer(c);
     if (c == '-') {
@@ -698,6 +864,10 @@ public class JsonParser extends Subscriber<Character> {
   }
 
   private void appendBuffer(char c) {
+    if (capturing && currentScope() != JsonScope.BARE_VALUE) {
+      // captured names, strings and numbers are validated by the scope but their values are never read
+      return;
+    }
     if (bufferOffset == buffer.length - 1) {
       bufferOverflow.append(buffer, 0, bufferOffset);
       bufferOffset = 0;
@@ -713,6 +883,13 @@ public class JsonParser extends Subscriber<Character> {
   private Optional<JsonToken> getCurrentValueAndResetBuffer() {
     JsonScope valueScope = currentScope();
     JsonScope parentScope = parentScope();
+    if (capturing) {
+      return isValidCapturedValue(valueScope, parentScope) ? CAPTURED_VALUE : Optional.empty();
+    }
+    if (parentScope == JsonScope.DANGLING_NAME && (lenient || valueScope == JsonScope.QUOTED_STRING) && !isSelectedName()) {
+      resetBuffer();
+      return SKIPPED_NAME;
+    }
     String value = bufferOverflow.append(buffer, 0, bufferOffset).toString();
     resetBuffer();
     if (parentScope == JsonScope.DANGLING_NAME && (lenient || valueScope == JsonScope.QUOTED_STRING)) {
@@ -739,6 +916,48 @@ public class JsonParser extends Subscriber<Character> {
     }
   }
 
+  private boolean isSelectedName() {
+    // the name is the top of the stack, above its object
+    NameSelector.Names names = selected[stackSize - 2];
+    if (names == null) {
+      return true;
+    }
+    if (bufferOverflow.length() == 0) {
+      return names.selects(buffer, 0, bufferOffset);
+    }
+    return names.selects(new StringBuilder(bufferOverflow).append(buffer, 0, bufferOffset).toString());
+  }
+
+  private boolean isValidCapturedValue(JsonScope valueScope, JsonScope parentScope) {
+    boolean valid;
+    if (parentScope == JsonScope.DANGLING_NAME) {
+      valid = lenient || valueScope == JsonScope.QUOTED_STRING;
+    } else if (valueScope == JsonScope.QUOTED_STRING) {
+      valid = true;
+    } else if (valueScope == JsonScope.NUMBER && validNumberState()) {
+      valid = true;
+    } else if (parentScope == JsonScope.NONEMPTY_DOCUMENT && valueScope == JsonScope.BARE_VALUE && bufferOffset > 0 && buffer[0] == '/') {
+      valid = false;
+    } else {
+      valid = lenient ||
+        (bufferOverflow.length() == 0 && (bufferEquals("true") || bufferEquals("false") || bufferEquals("null")));
+    }
+    resetBuffer();
+    return valid;
+  }
+
+  private boolean bufferEquals(String lowerCaseValue) {
+    if (bufferOffset != lowerCaseValue.length()) {
+      return false;
+    }
+    for (int i = 0; i < bufferOffset; ++i) {
+      if (Character.toLowerCase(buffer[i]) != lowerCaseValue.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean validNumberState() {
     return
       numberState == NumberState.NUMBER_CHAR_NONE ||
@@ -775,14 +994,22 @@ public class JsonParser extends Subscriber<Character> {
 
   private void resetBuffer() {
     bufferOffset = 0;
-    bufferOverflow = new StringBuilder();
+    if (bufferOverflow.length() > 0) {
+      bufferOverflow = new StringBuilder();
+    }
   }
 
   private void incrementPathIndex() {
+    if (capturing) {
+      return;
+    }
     paths[stackSize - 1] = ((ArrayIndexToken) paths[stackSize - 1]).increment();
   }
 
   private void resetPathIndex() {
+    if (capturing) {
+      return;
+    }
     paths[stackSize - 1] = ArrayIndexToken.of(0);
   }
 
@@ -802,7 +1029,11 @@ public class JsonParser extends Subscriber<Character> {
       System.arraycopy(paths, 0, newPaths, 0, stackSize);
       stack = newStack;
       paths = newPaths;
+      projected = Arrays.copyOf(projected, stackSize * 2);
+      selected = Arrays.copyOf(selected, stackSize * 2);
     }
+    projected[stackSize] = false;
+    selected[stackSize] = null;
     stack[stackSize++] = newTop;
   }
 
@@ -842,9 +1073,23 @@ public class JsonParser extends Subscriber<Character> {
   }
 
   private void emitDownstream(JsonToken token) {
+    if (capturing) {
+      captureToken(token);
+      return;
+    }
+    if (token == SKIPPED_NAME.get() || (token.isName() && isSkippedName(token.value()))) {
+      skipNextValue = true;
+      return;
+    }
     emitDownstream(token, getPath());
   }
 
+  private boolean isSkippedName(String name) {
+    // a quoted name has been popped, a bare name has not
+    int objectScope = currentScope() == JsonScope.DANGLING_NAME ? stackSize - 1 : stackSize - 2;
+    return projected[objectScope] && !projection.contains(name);
+  }
+
   private void emitDownstream(JsonToken token, JsonPath path) {
     emitted = true;
     trace(" - emitted {} at {}", token, path);
@@ -856,6 +1101,19 @@ public class JsonParser extends Subscriber<Character> {
     log.trace(message, arguments);
   }
 
+  /**
+   * The names and indices within a captured value are not read, so while capturing the path is that of the captured
+   * value, or of the object of a discarded member, whose name may not have been read either.
+   *
+   * @return the number of scopes whose path is known
+   */
+  private int knownPathSize() {
+    if (!capturing) {
+      return stackSize;
+    }
+    return Math.min(stackSize, discarding ? captureDepth - 2 : captureDepth - 1);
+  }
+
   /**
    * Returns a <a href="http://goessner.net/articles/JsonPath/">JsonPath</a> to
    * the current location in the JSON value.
@@ -863,7 +1121,7 @@ public class JsonParser extends Subscriber<Character> {
   private JsonPath getPath() {
     List<JsonPath> tokens = new ArrayList<>();
     tokens.add(RootToken.instance());
-    for (int i = 0, size = stackSize; i < size; i++) {
+    for (int i = 0, size = knownPathSize(); i < size; i++) {
       if (stack[i] == JsonScope.NONEMPTY_OBJECT || stack[i] == JsonScope.NONEMPTY_ARRAY) {
         tokens.add(paths[i]);
       }
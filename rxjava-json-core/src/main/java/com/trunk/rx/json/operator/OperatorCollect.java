@@ -0,0 +1,277 @@
+package com.trunk.rx.json.operator;
+
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.NoopToken;
+import com.trunk.rx.json.token.JsonDocumentEnd;
+import rx.Producer;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.internal.operators.BackpressureUtils;
+import rx.observers.SerializedSubscriber;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects the tokens of each matched object, emitting what {@link #collect(JsonPath, List)} makes of them once the
+ * object is complete. An object is complete at the end of its document, or at the next token outside it that ends the
+ * path events, as in strict mode once no path can match again, so objects still open when the path events complete
+ * are emitted. Objects still open when they fail are not.
+ * <p>
+ * When paths are matched in {@link com.trunk.rx.json.transformer.TransformerJsonPath#nested() nested} mode, objects
+ * nested in other matched objects are collected at the same time. Overlapping objects share a single token buffer,
+ * of which each object's tokens are an immutable range, and inner objects are emitted before the objects that contain
+ * them.
+ */
+abstract class OperatorCollect<T> implements rx.Observable.Operator<T, JsonPathEvent> {
+
+  /**
+   * @param path   the matched path of the object
+   * @param tokens the tokens of the object, an immutable list that may be kept
+   * @return what is emitted for the object
+   */
+  protected abstract T collect(JsonPath path, List<JsonTokenEvent> tokens);
+
+  @Override
+  public Subscriber<? super JsonPathEvent> call(Subscriber<? super T> s) {
+    Subscriber<? super T> downstream = new SerializedSubscriber<>(s);
+    PathEventSubscriber upstream = new PathEventSubscriber();
+    downstream.add(upstream);
+    downstream.setProducer(new CollectingProducer(upstream, downstream));
+    return upstream;
+  }
+
+  private class PathEventSubscriber extends Subscriber<JsonPathEvent> {
+    AtomicBoolean completed = new AtomicBoolean(false);
+    AtomicBoolean started = new AtomicBoolean(false);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Queue<JsonPathEvent> buffer = new ConcurrentLinkedDeque<>();
+    Action0 reenterProducer = () -> {};
+
+    PathEventSubscriber() {
+      request(0);
+    }
+
+    @Override
+    public void setProducer(Producer p) {
+      super.setProducer(p);
+      started.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onCompleted() {
+      completed.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onError(Throwable e) {
+      error.set(e);
+      completed.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onNext(JsonPathEvent s) {
+      buffer.add(s);
+      started.set(true);
+      reenterProducer.call();
+    }
+
+    void reenterProducer(Action0 f) {
+      reenterProducer = f;
+    }
+
+    void requestMore() {
+      request(1);
+    }
+
+    boolean completed() {
+      return completed.get();
+    }
+
+    boolean started() {
+      return started.get();
+    }
+  }
+
+  private class CollectingProducer implements Producer {
+    private final PathEventSubscriber upstream;
+    private final Subscriber<? super T> downstream;
+
+    AtomicLong currentRequest = new AtomicLong(0);
+    AtomicLong backlog = new AtomicLong(0);
+
+    // tokens shared by all open objects, each of which is a range of this buffer
+    TokenBuffer tokenBuffer = new TokenBuffer();
+    // open objects, outermost first
+    List<OpenObject> openObjects = new ArrayList<>();
+    Queue<T> completedObjects = new ArrayDeque<>();
+
+    JsonTokenEvent currentToken = null;
+    int currentMatches = 0;
+
+    CollectingProducer(PathEventSubscriber upstream, Subscriber<? super T> downstream) {
+      this.upstream = upstream;
+      this.downstream = downstream;
+      upstream.reenterProducer(() -> request(0));
+    }
+
+    @Override
+    public void request(long n) {
+      if (n < 0) {
+        throw new IllegalArgumentException();
+      }
+      if (BackpressureUtils.getAndAddRequest(currentRequest, n) != 0) {
+        return;
+      }
+      long r = BackpressureUtils.addCap(backlog.get(), n);
+      backlog.set(r);
+      currentRequest.set(r);
+      if (r == 0) {
+        return;
+      }
+      if (!upstream.started()) {
+        backlog.set(r);
+        currentRequest.set(0);
+        return;
+      }
+      // loop so that additional requests are processed in sequence
+      for (;;) {
+        if (downstream.isUnsubscribed()) {
+          return;
+        }
+        int e = 0;
+
+        while (r > 0) {
+          T object = completedObjects.poll();
+          if (object != null) {
+            downstream.onNext(object);
+            if (downstream.isUnsubscribed()) {
+              return;
+            }
+            ++e;
+            --r;
+            continue;
+          }
+          if (upstream.buffer.isEmpty()) {
+            upstream.requestMore();
+          }
+          if (upstream.buffer.isEmpty()) {
+            if (!upstream.completed()) {
+              backlog.set(r);
+              currentRequest.set(0);
+              return;
+            }
+            if (!openObjects.isEmpty() && upstream.error.get() == null) {
+              // strict matching completes at the first token after every matched object has ended
+              closeAll();
+              continue;
+            }
+            complete();
+            return;
+          }
+          onPathEvent(upstream.buffer.poll());
+        }
+        if (isDone()) {
+          complete();
+          return;
+        }
+        // check for more requests
+        r = currentRequest.addAndGet(-e);
+        backlog.addAndGet(-e);
+        if (r == 0) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Each token arrives with one path event per matched path, outermost first. Open objects that are not matched by
+     * a token are complete.
+     */
+    private void onPathEvent(JsonPathEvent pathEvent) {
+      if (isDocumentEnd(pathEvent)) {
+        closeAll();
+        currentToken = null;
+        return;
+      }
+      JsonPath matchedPath = pathEvent.getMatchedPathFragment();
+      if (pathEvent.getTokenEvent() != currentToken) {
+        // objects not matched by the last token ended before it
+        close(currentMatches, tokenBuffer.size() - 1);
+        if (!openObjects.isEmpty() && !openObjects.get(0).path.equals(matchedPath)) {
+          close(0, tokenBuffer.size());
+        }
+        if (openObjects.isEmpty() && tokenBuffer.size() > 0) {
+          // the completed objects keep the tokens they share, the next object starts a buffer of its own
+          tokenBuffer = new TokenBuffer();
+        }
+        currentToken = pathEvent.getTokenEvent();
+        currentMatches = 0;
+        tokenBuffer.add(currentToken);
+      }
+      int tokenIndex = tokenBuffer.size() - 1;
+      if (currentMatches >= openObjects.size() || !openObjects.get(currentMatches).path.equals(matchedPath)) {
+        close(currentMatches, tokenIndex);
+        openObjects.add(new OpenObject(matchedPath, tokenIndex));
+      }
+      ++currentMatches;
+    }
+
+    private void closeAll() {
+      close(currentMatches, tokenBuffer.size() - 1);
+      close(0, tokenBuffer.size());
+    }
+
+    /**
+     * Complete the open objects from the given depth, innermost first.
+     */
+    private void close(int depth, int end) {
+      for (int i = openObjects.size() - 1; i >= depth; --i) {
+        OpenObject object = openObjects.remove(i);
+        completedObjects.add(collect(object.path, tokenBuffer.range(object.start, end)));
+      }
+    }
+
+    private boolean isDone() {
+      return upstream.completed() && upstream.buffer.isEmpty() && completedObjects.isEmpty() &&
+        (openObjects.isEmpty() || upstream.error.get() != null);
+    }
+
+    private boolean isDocumentEnd(JsonPathEvent pathEvent) {
+      return pathEvent.getTokenEvent().getToken() == JsonDocumentEnd.instance() ||
+        pathEvent.getMatchedPathFragment() == NoopToken.instance();
+    }
+
+    private void complete() {
+      Throwable t = upstream.error.get();
+      if (t != null) {
+        downstream.onError(t);
+      } else {
+        downstream.onCompleted();
+      }
+      downstream.unsubscribe();
+      upstream.unsubscribe();
+    }
+  }
+
+  private static class OpenObject {
+    final JsonPath path;
+    final int start;
+
+    OpenObject(JsonPath path, int start) {
+      this.path = path;
+      this.start = start;
+    }
+  }
+}
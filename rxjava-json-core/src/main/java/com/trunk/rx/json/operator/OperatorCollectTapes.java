@@ -0,0 +1,24 @@
+package com.trunk.rx.json.operator;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.JsonTokenTape;
+import com.trunk.rx.json.path.JsonPath;
+
+import java.util.List;
+
+/**
+ * Collects the tokens of each matched object like {@link OperatorCollectObjects}, but into a compact
+ * {@link JsonTokenTape} rather than a list of events. The tape is encoded once the object is complete, so the events
+ * are only held while it is open.
+ */
+public class OperatorCollectTapes extends OperatorCollect<JsonTokenTape> {
+
+  @Override
+  protected JsonTokenTape collect(JsonPath path, List<JsonTokenEvent> tokens) {
+    JsonTokenTape.Builder tape = JsonTokenTape.builder(path);
+    for (JsonTokenEvent token : tokens) {
+      tape.append(token);
+    }
+    return tape.build();
+  }
+}
@@ -2,6 +2,7 @@ package com.trunk.rx.json.operator;
 
 import com.trunk.rx.json.JsonTokenEvent;
 import com.trunk.rx.json.impl.JsonParser;
+import com.trunk.rx.json.path.JsonPath;
 import com.trunk.rx.json.token.JsonToken;
 import rx.Observable;
 import rx.Observable.Operator;
@@ -10,6 +11,9 @@ import rx.Subscriber;
 import rx.internal.operators.BackpressureUtils;
 import rx.observers.SerializedSubscriber;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -19,6 +23,10 @@ import java.util.concurrent.atomic.AtomicLong;
 public class OperatorJsonToken implements Operator<JsonTokenEvent, Character> {
 
   private final boolean lenient;
+  private final Collection<JsonPath> captureMatchers;
+  private final Collection<JsonPath> projectionMatchers;
+  private final Set<String> projection;
+  private final Collection<JsonPath> selectionMatchers;
 
   /**
    * Configure this operator to be strict in what it accepts. Only a single
@@ -26,7 +34,7 @@ public class OperatorJsonToken implements Operator<JsonTokenEvent, Character> {
    * href="http://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>
    */
   public OperatorJsonToken strict() {
-    return new OperatorJsonToken(false);
+    return new OperatorJsonToken(false, captureMatchers, projectionMatchers, projection, selectionMatchers);
   }
 
   /**
@@ -59,7 +67,33 @@ public class OperatorJsonToken implements Operator<JsonTokenEvent, Character> {
    * </ul>
    */
   public OperatorJsonToken lenient() {
-    return new OperatorJsonToken(true);
+    return new OperatorJsonToken(true, captureMatchers, projectionMatchers, projection, selectionMatchers);
+  }
+
+  /**
+   * Configure this operator to capture the values at the given paths. Rather than emitting a token per element of a
+   * captured value, a single {@link com.trunk.rx.json.token.JsonRaw} token holding the source text of the value is
+   * emitted at the path of the value. Values nested in a captured value are not captured separately.
+   */
+  public OperatorJsonToken capture(Collection<JsonPath> matchers) {
+    return new OperatorJsonToken(lenient, matchers, projectionMatchers, projection, selectionMatchers);
+  }
+
+  /**
+   * Configure this operator to project the objects at the given paths. Only the members of a projected object with
+   * one of the given names are emitted. Other members are skipped by the parser without creating tokens.
+   */
+  public OperatorJsonToken project(Collection<JsonPath> matchers, Set<String> names) {
+    return new OperatorJsonToken(lenient, captureMatchers, matchers, names, selectionMatchers);
+  }
+
+  /**
+   * Configure this operator to skip the members of objects that cannot be matched by any of the given paths, when
+   * they have name patterns. The name of each member is tested as it is parsed, so no tokens or Strings are created
+   * for the members that are skipped.
+   */
+  public OperatorJsonToken select(Collection<JsonPath> matchers) {
+    return new OperatorJsonToken(lenient, captureMatchers, projectionMatchers, projection, matchers);
   }
 
   public OperatorJsonToken() {
@@ -67,13 +101,29 @@ public class OperatorJsonToken implements Operator<JsonTokenEvent, Character> {
   }
 
   public OperatorJsonToken(boolean lenient) {
+    this(lenient, Collections.emptyList());
+  }
+
+  public OperatorJsonToken(boolean lenient, Collection<JsonPath> captureMatchers) {
+    this(lenient, captureMatchers, Collections.emptyList(), Collections.emptySet());
+  }
+
+  public OperatorJsonToken(boolean lenient, Collection<JsonPath> captureMatchers, Collection<JsonPath> projectionMatchers, Set<String> projection) {
+    this(lenient, captureMatchers, projectionMatchers, projection, Collections.emptyList());
+  }
+
+  public OperatorJsonToken(boolean lenient, Collection<JsonPath> captureMatchers, Collection<JsonPath> projectionMatchers, Set<String> projection, Collection<JsonPath> selectionMatchers) {
     this.lenient = lenient;
+    this.captureMatchers = captureMatchers;
+    this.projectionMatchers = projectionMatchers;
+    this.projection = projection;
+    this.selectionMatchers = selectionMatchers;
   }
 
   @Override
   public Subscriber<? super Character> call(Subscriber<? super JsonTokenEvent> s) {
     Subscriber<? super JsonTokenEvent> downstream = new SerializedSubscriber<>(s);
-    JsonParser upstream = new JsonParser(lenient);
+    JsonParser upstream = new JsonParser(lenient, captureMatchers, projectionMatchers, projection, selectionMatchers);
     downstream.add(upstream);
     downstream.setProducer(new ParserProducer(upstream, downstream));
     return upstream;
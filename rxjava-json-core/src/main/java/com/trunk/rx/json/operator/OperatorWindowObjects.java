@@ -0,0 +1,304 @@
+package com.trunk.rx.json.operator;
+
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonDocumentEnd;
+import rx.Observable;
+import rx.Producer;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.internal.operators.BackpressureUtils;
+import rx.observables.GroupedObservable;
+import rx.observers.SerializedSubscriber;
+import rx.subscriptions.Subscriptions;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A streaming alternative to {@link OperatorCollectObjects}. Rather than buffering every token of a matched
+ * object, each matched object is emitted as a {@link GroupedObservable} keyed by the matched path, which emits the
+ * tokens of the object as they are parsed.
+ * <p>
+ * Tokens are only pulled from upstream when the current window has outstanding demand, so a matched object of any
+ * size is processed in constant memory. Windows are emitted one at a time and a new window is only emitted once the
+ * previous one has completed, so each window must be subscribed to (or unsubscribed from) for the stream to make
+ * progress. Tokens belonging to an unsubscribed window are skipped.
+ */
+public class OperatorWindowObjects implements Observable.Operator<GroupedObservable<JsonPath, JsonTokenEvent>, JsonPathEvent> {
+
+  @Override
+  public Subscriber<? super JsonPathEvent> call(Subscriber<? super GroupedObservable<JsonPath, JsonTokenEvent>> s) {
+    Subscriber<? super GroupedObservable<JsonPath, JsonTokenEvent>> downstream = new SerializedSubscriber<>(s);
+    PathEventSubscriber upstream = new PathEventSubscriber();
+    WindowProducer producer = new WindowProducer(upstream, downstream);
+    // windows may outlive the outer subscription, so upstream is only released once the open window is done
+    downstream.add(Subscriptions.create(producer::cancel));
+    downstream.setProducer(producer);
+    return upstream;
+  }
+
+  private class PathEventSubscriber extends Subscriber<JsonPathEvent> {
+    AtomicBoolean completed = new AtomicBoolean(false);
+    AtomicBoolean started = new AtomicBoolean(false);
+    AtomicBoolean requested = new AtomicBoolean(false);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Queue<JsonPathEvent> buffer = new ConcurrentLinkedDeque<>();
+    Action0 reenterProducer = () -> {};
+
+    PathEventSubscriber() {
+      request(0);
+    }
+
+    @Override
+    public void setProducer(Producer p) {
+      super.setProducer(p);
+      started.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onCompleted() {
+      completed.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onError(Throwable e) {
+      error.set(e);
+      completed.set(true);
+      reenterProducer.call();
+    }
+
+    @Override
+    public void onNext(JsonPathEvent s) {
+      buffer.add(s);
+      requested.set(false);
+      started.set(true);
+      reenterProducer.call();
+    }
+
+    void reenterProducer(Action0 f) {
+      reenterProducer = f;
+    }
+
+    void requestMore() {
+      // only ever have a single token outstanding
+      if (requested.compareAndSet(false, true)) {
+        request(1);
+      }
+    }
+
+    boolean completed() {
+      return completed.get();
+    }
+
+    boolean started() {
+      return started.get();
+    }
+  }
+
+  private class WindowProducer implements Producer {
+    private final PathEventSubscriber upstream;
+    private final Subscriber<? super GroupedObservable<JsonPath, JsonTokenEvent>> downstream;
+
+    AtomicLong currentRequest = new AtomicLong(0);
+    AtomicInteger wip = new AtomicInteger(0);
+    volatile boolean cancelled = false;
+    boolean terminated = false;
+
+    Window currentWindow = null;
+    JsonTokenEvent currentToken = null;
+
+    WindowProducer(PathEventSubscriber upstream, Subscriber<? super GroupedObservable<JsonPath, JsonTokenEvent>> downstream) {
+      this.upstream = upstream;
+      this.downstream = downstream;
+      upstream.reenterProducer(this::drain);
+    }
+
+    @Override
+    public void request(long n) {
+      if (n < 0) {
+        throw new IllegalArgumentException();
+      }
+      if (n > 0) {
+        BackpressureUtils.getAndAddRequest(currentRequest, n);
+      }
+      drain();
+    }
+
+    void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      // loop so that reentrant calls are processed in sequence
+      for (;;) {
+        for (;;) {
+          if (terminated) {
+            return;
+          }
+          if (cancelled && (currentWindow == null || currentWindow.cancelled)) {
+            terminated = true;
+            upstream.unsubscribe();
+            return;
+          }
+          if (!upstream.started()) {
+            break;
+          }
+
+          JsonPathEvent pathEvent = upstream.buffer.peek();
+          if (pathEvent == null) {
+            if (upstream.completed()) {
+              complete();
+              return;
+            }
+            if (wantsMore()) {
+              upstream.requestMore();
+              if (!upstream.buffer.isEmpty() || upstream.completed()) {
+                continue;
+              }
+            }
+            break;
+          }
+
+          if (pathEvent.getTokenEvent() == currentToken) {
+            // a nested match of a token that has already been windowed
+            upstream.buffer.poll();
+          } else if (isDocumentEnd(pathEvent)) {
+            upstream.buffer.poll();
+            closeWindow(null);
+          } else if (currentWindow == null) {
+            if (cancelled || currentRequest.get() == 0) {
+              break;
+            }
+            currentWindow = new Window(pathEvent.getMatchedPathFragment());
+            BackpressureUtils.produced(currentRequest, 1);
+            downstream.onNext(GroupedObservable.create(currentWindow.key, currentWindow));
+          } else if (!pathEvent.getMatchedPathFragment().equals(currentWindow.key)) {
+            closeWindow(null);
+          } else if (currentWindow.cancelled) {
+            // skip the remainder of an abandoned object
+            upstream.buffer.poll();
+            currentToken = pathEvent.getTokenEvent();
+          } else if (currentWindow.child != null && currentWindow.requested.get() > 0) {
+            upstream.buffer.poll();
+            currentToken = pathEvent.getTokenEvent();
+            currentWindow.child.onNext(pathEvent.getTokenEvent());
+            BackpressureUtils.produced(currentWindow.requested, 1);
+          } else {
+            break;
+          }
+        }
+        missed = wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private boolean wantsMore() {
+      if (currentWindow == null) {
+        return !cancelled && currentRequest.get() > 0;
+      }
+      return currentWindow.cancelled || (currentWindow.child != null && currentWindow.requested.get() > 0);
+    }
+
+    private void closeWindow(Throwable t) {
+      if (currentWindow != null) {
+        currentWindow.done(t);
+        currentWindow = null;
+      }
+    }
+
+    private boolean isDocumentEnd(JsonPathEvent pathEvent) {
+      return pathEvent.getTokenEvent().getToken() == JsonDocumentEnd.instance();
+    }
+
+    private void complete() {
+      terminated = true;
+      Throwable t = upstream.error.get();
+      closeWindow(t);
+      if (!cancelled) {
+        if (t != null) {
+          downstream.onError(t);
+        } else {
+          downstream.onCompleted();
+        }
+      }
+      downstream.unsubscribe();
+      upstream.unsubscribe();
+    }
+
+    private class Window implements Observable.OnSubscribe<JsonTokenEvent> {
+      final JsonPath key;
+      final AtomicLong requested = new AtomicLong(0);
+      final AtomicBoolean subscribed = new AtomicBoolean(false);
+      final AtomicBoolean terminalDelivered = new AtomicBoolean(false);
+      volatile Subscriber<? super JsonTokenEvent> child = null;
+      volatile boolean cancelled = false;
+      volatile boolean done = false;
+      volatile Throwable error = null;
+
+      Window(JsonPath key) {
+        this.key = key;
+      }
+
+      @Override
+      public void call(Subscriber<? super JsonTokenEvent> s) {
+        if (!subscribed.compareAndSet(false, true)) {
+          s.onError(new IllegalStateException("Only one subscriber is allowed per object window"));
+          return;
+        }
+        s.add(Subscriptions.create(() -> {
+          cancelled = true;
+          drain();
+        }));
+        s.setProducer(n -> {
+          if (n < 0) {
+            throw new IllegalArgumentException();
+          }
+          if (n > 0) {
+            BackpressureUtils.getAndAddRequest(requested, n);
+          }
+          drain();
+        });
+        child = s;
+        if (done) {
+          terminate();
+        } else {
+          drain();
+        }
+      }
+
+      void done(Throwable t) {
+        error = t;
+        done = true;
+        if (child != null) {
+          terminate();
+        }
+      }
+
+      private void terminate() {
+        if (!terminalDelivered.compareAndSet(false, true)) {
+          return;
+        }
+        if (error != null) {
+          child.onError(error);
+        } else {
+          child.onCompleted();
+        }
+      }
+    }
+  }
+}
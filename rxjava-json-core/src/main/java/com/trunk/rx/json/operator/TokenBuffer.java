@@ -0,0 +1,101 @@
+package com.trunk.rx.json.operator;
+
+import com.trunk.rx.json.JsonTokenEvent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An append-only buffer of tokens, held in chunks that are never copied or reallocated once full. A range of the tokens
+ * already appended is an immutable list sharing the chunks, which stays valid, and safe to read from any thread, while
+ * later tokens are appended.
+ */
+final class TokenBuffer {
+
+  private static final int FIRST_CHUNK_SIZE = 16;
+  private static final int MAXIMUM_CHUNK_SIZE = 1024;
+
+  private JsonTokenEvent[][] chunks = new JsonTokenEvent[4][];
+  // the index of the first token of each chunk
+  private int[] chunkStarts = new int[4];
+  private int chunkCount = 0;
+  private int size = 0;
+
+  int size() {
+    return size;
+  }
+
+  void add(JsonTokenEvent tokenEvent) {
+    if (chunkCount == 0 || size - chunkStarts[chunkCount - 1] == chunks[chunkCount - 1].length) {
+      addChunk();
+    }
+    chunks[chunkCount - 1][size - chunkStarts[chunkCount - 1]] = tokenEvent;
+    ++size;
+  }
+
+  /**
+   * @return the tokens from start, inclusive, to end, exclusive, which must already have been appended
+   */
+  List<JsonTokenEvent> range(int start, int end) {
+    if (start < 0 || end > size || start > end) {
+      throw new IndexOutOfBoundsException("Range " + start + " to " + end + " of " + size + " tokens");
+    }
+    int first = chunkOf(start);
+    int last = end == start ? first : chunkOf(end - 1);
+    return new Range(
+      Arrays.copyOfRange(chunks, first, last + 1),
+      Arrays.copyOfRange(chunkStarts, first, last + 1),
+      start,
+      end - start
+    );
+  }
+
+  private void addChunk() {
+    if (chunkCount == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunkCount * 2);
+      chunkStarts = Arrays.copyOf(chunkStarts, chunkCount * 2);
+    }
+    int chunkSize = chunkCount == 0 ? FIRST_CHUNK_SIZE : Math.min(chunks[chunkCount - 1].length * 2, MAXIMUM_CHUNK_SIZE);
+    chunks[chunkCount] = new JsonTokenEvent[chunkSize];
+    chunkStarts[chunkCount] = size;
+    ++chunkCount;
+  }
+
+  private int chunkOf(int index) {
+    int chunk = Arrays.binarySearch(chunkStarts, 0, chunkCount, index);
+    return chunk >= 0 ? chunk : -chunk - 2;
+  }
+
+  private static final class Range extends AbstractList<JsonTokenEvent> implements RandomAccess {
+    // the tokens of the range are written before it is created and never after, and are published by the final fields
+    private final JsonTokenEvent[][] chunks;
+    private final int[] chunkStarts;
+    private final int start;
+    private final int size;
+
+    Range(JsonTokenEvent[][] chunks, int[] chunkStarts, int start, int size) {
+      this.chunks = chunks;
+      this.chunkStarts = chunkStarts;
+      this.start = start;
+      this.size = size;
+    }
+
+    @Override
+    public JsonTokenEvent get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " of " + size + " tokens");
+      }
+      int i = start + index;
+      int chunk = chunks.length == 1 ? 0 : Arrays.binarySearch(chunkStarts, i);
+      chunk = chunk >= 0 ? chunk : -chunk - 2;
+      return chunks[chunk][i - chunkStarts[chunk]];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
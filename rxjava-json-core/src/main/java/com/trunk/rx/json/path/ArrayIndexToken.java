@@ -15,13 +15,28 @@ public class ArrayIndexToken extends ArrayToken {
     this.index = index;
   }
 
+  public int getIndex() {
+    return index;
+  }
+
   public JsonPath increment() {
     return of(index + 1);
   }
 
   @Override
   boolean doesMatch(JsonPath pathToTest) {
-    return false;
+    // a negative index may be any element until the array ends
+    return index < 0 && pathToTest instanceof ArrayIndexToken;
+  }
+
+  @Override
+  public boolean isWildcard() {
+    return isTail();
+  }
+
+  @Override
+  public boolean isTail() {
+    return index < 0;
   }
 
   @Override
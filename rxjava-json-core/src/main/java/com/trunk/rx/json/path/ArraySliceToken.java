@@ -19,21 +19,51 @@ public class ArraySliceToken extends ArrayToken {
 
   private ArraySliceToken(long start, long end, JsonPath nextPathToken) {
     super(nextPathToken);
-    if (start >= end) {
+    if ((start < 0) == (end < 0) && start >= end) {
       throw new MalformedPathException("Start must be before end");
     }
     this.start = start;
     this.end = end;
   }
 
+  /**
+   * @return the first position of the slice, counted from the end of the array when negative
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * @return the position after the slice, counted from the end of the array when negative, or {@link Long#MAX_VALUE}
+   * if the slice runs to the end of the array
+   */
+  public long getEnd() {
+    return end;
+  }
+
   @Override
   boolean doesMatch(JsonPath pathToTest) {
+    if (isTail()) {
+      // whether an element is in the slice depends on the length of the array, so any element may be
+      return pathToTest instanceof ArrayIndexToken;
+    }
     return
       pathToTest instanceof ArrayIndexToken &&
       ((ArrayIndexToken) pathToTest).index >= start &&
       ((ArrayIndexToken) pathToTest).index < end;
   }
 
+  @Override
+  public boolean isWildcard() {
+    // until the array ends, a negative position may be any element
+    return isTail();
+  }
+
+  @Override
+  public boolean isTail() {
+    return start < 0 || end < 0;
+  }
+
   @Override
   String arrayValue() {
     return (start != 0 ? start : "") + ":" + (end != Long.MAX_VALUE ? end : "");
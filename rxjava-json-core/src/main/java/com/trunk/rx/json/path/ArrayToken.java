@@ -35,6 +35,11 @@ public abstract class ArrayToken extends JsonPath {
       .flatMap(p -> matchNextFragment(p, matchedFragments));
   }
 
+  @Override
+  final boolean matchesFragment(JsonPath fragment) {
+    return tokenEquals(fragment) || doesMatch(fragment);
+  }
+
   @Override
   public boolean isWildcard() {
     return false;
@@ -0,0 +1,246 @@
+package com.trunk.rx.json.path;
+
+import com.trunk.rx.json.token.JsonToken;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A filter expression, <code>[?(@.field op value)]</code>, on a scalar child field of an object or array element.
+ * <p>
+ * When matching a path a filter behaves as a wildcard. Whether an element passes the filter depends on the value of
+ * its field, which is only known once that field has been parsed, so the filter itself is evaluated while streaming
+ * by {@link com.trunk.rx.json.transformer.TransformerJsonPath}. An element without the field never passes.
+ */
+public class FilterToken extends JsonPath {
+
+  public enum Operator {
+    EXISTS(""),
+    EQ("=="),
+    NE("!="),
+    LT("<"),
+    GT(">"),
+    IN("in");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+      this.symbol = symbol;
+    }
+
+    public String symbol() {
+      return symbol;
+    }
+  }
+
+  private final String field;
+  private final Operator operator;
+  private final List<Literal> values;
+
+  static FilterToken of(String field, Operator operator, List<Literal> values) {
+    return new FilterToken(field, operator, values, null);
+  }
+
+  private FilterToken(String field, Operator operator, List<Literal> values, JsonPath nextPathToken) {
+    super(nextPathToken);
+    this.field = field;
+    this.operator = operator;
+    this.values = values;
+  }
+
+  /**
+   * @return the name of the child field the filter is evaluated on
+   */
+  public String getField() {
+    return field;
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  /**
+   * @param value the first token of the field's value
+   * @return true if an element whose field has the given value passes the filter
+   */
+  public boolean test(JsonToken value) {
+    switch (operator) {
+      case EXISTS:
+        return true;
+      case EQ:
+        return values.get(0).isEqual(value);
+      case NE:
+        return !values.get(0).isEqual(value);
+      case LT: {
+        // the literal is on the right of the expression
+        int c = values.get(0).compareTo(value);
+        return c != Literal.INCOMPARABLE && c > 0;
+      }
+      case GT: {
+        int c = values.get(0).compareTo(value);
+        return c != Literal.INCOMPARABLE && c < 0;
+      }
+      case IN:
+        for (Literal literal : values) {
+          if (literal.isEqual(value)) {
+            return true;
+          }
+        }
+        return false;
+      default:
+        throw new IllegalStateException("Unknown operator " + operator);
+    }
+  }
+
+  @Override
+  public boolean isWildcard() {
+    return true;
+  }
+
+  @Override
+  int tokenHash() {
+    return Objects.hash(field, operator, values);
+  }
+
+  @Override
+  Optional<List<JsonPath>> doMatch(Optional<JsonPath> pathToTest, List<JsonPath> matchedFragments) {
+    return pathToTest
+      .filter(this::matchesFragment)
+      .flatMap(p -> matchNextFragment(p, matchedFragments));
+  }
+
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return fragment instanceof ArrayIndexToken || fragment instanceof ObjectToken;
+  }
+
+  @Override
+  String fragment() {
+    String expression = ObjectToken.of(field).accessorType() == AccessorType.OBJECT ?
+      "@." + field :
+      "@['" + field.replace("'", "\\'") + "']";
+    if (operator == Operator.EXISTS) {
+      return "[?(" + expression + ")]";
+    }
+    String value = operator == Operator.IN ?
+      values.stream().map(Literal::toString).collect(Collectors.joining(",", "[", "]")) :
+      values.get(0).toString();
+    return "[?(" + expression + " " + operator.symbol() + " " + value + ")]";
+  }
+
+  @Override
+  JsonPath cloneWith(JsonPath nextPathToken) {
+    return new FilterToken(field, operator, values, nextPathToken);
+  }
+
+  @Override
+  AccessorType accessorType() {
+    return AccessorType.ARRAY;
+  }
+
+  @Override
+  public boolean tokenEquals(JsonPath jsonPath) {
+    if (!(jsonPath instanceof FilterToken)) {
+      return false;
+    }
+    FilterToken that = (FilterToken) jsonPath;
+    return field.equals(that.field) && operator == that.operator && values.equals(that.values);
+  }
+
+  /**
+   * A string, number, boolean or null literal in a filter expression.
+   */
+  static final class Literal {
+
+    static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+    private enum Type {
+      STRING, NUMBER, BOOLEAN, NULL
+    }
+
+    private final Type type;
+    private final String text;
+    private final BigDecimal number;
+
+    static Literal string(String text) {
+      return new Literal(Type.STRING, text, null);
+    }
+
+    static Literal number(String text) {
+      return new Literal(Type.NUMBER, text, new BigDecimal(text));
+    }
+
+    static Literal bool(boolean value) {
+      return new Literal(Type.BOOLEAN, Boolean.toString(value), null);
+    }
+
+    static Literal nullValue() {
+      return new Literal(Type.NULL, "null", null);
+    }
+
+    private Literal(Type type, String text, BigDecimal number) {
+      this.type = type;
+      this.text = text;
+      this.number = number;
+    }
+
+    boolean isEqual(JsonToken value) {
+      switch (type) {
+        case STRING:
+          return value.isString() && text.equals(value.value());
+        case NUMBER:
+          return compareTo(value) == 0;
+        case BOOLEAN:
+          return value.isBoolean() && text.equals(value.value());
+        case NULL:
+          return value.isNull();
+        default:
+          return false;
+      }
+    }
+
+    /**
+     * @return the sign of comparing this literal to the value, or {@link #INCOMPARABLE} if the value is not a string
+     * or number of the same type
+     */
+    int compareTo(JsonToken value) {
+      if (type == Type.STRING) {
+        return value.isString() ? Integer.signum(text.compareTo(value.value())) : INCOMPARABLE;
+      }
+      if (type != Type.NUMBER || !value.isNumber()) {
+        return INCOMPARABLE;
+      }
+      try {
+        return number.compareTo(new BigDecimal(value.value()));
+      } catch (NumberFormatException e) {
+        // lenient numbers, such as NaN, are not comparable
+        return INCOMPARABLE;
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Literal literal = (Literal) o;
+      return type == literal.type && Objects.equals(text, literal.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, text);
+    }
+
+    @Override
+    public String toString() {
+      return type == Type.STRING ? "'" + text.replace("\\", "\\\\").replace("'", "\\'") + "'" : text;
+    }
+  }
+}
@@ -16,6 +16,8 @@ public abstract class JsonPath implements Cloneable {
 
   private Integer length;
   private String string;
+  // compiled on first use, empty if the path does not fit in an automaton
+  private Optional<PathAutomaton> automaton;
 
   public static JsonPath from(List<JsonPath> pathTokens) {
     if (pathTokens.isEmpty()) {
@@ -39,7 +41,15 @@ public abstract class JsonPath implements Cloneable {
     return root;
   }
 
+  /**
+   * @return the parsed path, shared with other parses of an equal path through the
+   * {@link JsonPathCache#defaultCache() default cache}
+   */
   public static JsonPath parse(String path) {
+    return JsonPathCache.defaultCache().parse(path);
+  }
+
+  static JsonPath parseUncached(String path) {
     return from(parser.parse(path));
   }
 
@@ -48,10 +58,23 @@ public abstract class JsonPath implements Cloneable {
   }
 
   public Observable<JsonPath> match(JsonPath pathToTest) {
-    return doMatch(Optional.of(pathToTest), Collections.emptyList())
+    return matchedFragment(pathToTest)
       .map(Observable::just)
-      .orElse(Observable.empty())
-      .map(JsonPath::from);
+      .orElse(Observable.empty());
+  }
+
+  /**
+   * @return the fragment of the given path matched by this path, if any
+   */
+  public Optional<JsonPath> matchedFragment(JsonPath pathToTest) {
+    return doMatch(Optional.of(pathToTest), Collections.emptyList()).map(JsonPath::from);
+  }
+
+  /**
+   * @return true if the given path is matched, equivalent to {@link #match(JsonPath)} being non-empty
+   */
+  public boolean matches(JsonPath pathToTest) {
+    return doMatch(Optional.of(pathToTest), Collections.emptyList()).isPresent();
   }
 
   @Override
@@ -77,11 +100,40 @@ public abstract class JsonPath implements Cloneable {
     return tokenHash() + 37 * nextPathToken.hashCode();
   }
 
+  /**
+   * @return true if the path has a filter expression, which depends on the values of matched elements
+   */
+  public boolean hasFilter() {
+    return this instanceof FilterToken || nextPathToken.map(JsonPath::hasFilter).orElse(false);
+  }
+
+  /**
+   * @return true if the path has a negative array position, which depends on the length of matched arrays
+   */
+  public boolean hasTail() {
+    return isTail() || nextPathToken.map(JsonPath::hasTail).orElse(false);
+  }
+
+  /**
+   * @return true if this token, ignoring the rest of the path, selects array elements relative to the end of the array
+   */
+  public boolean isTail() {
+    return false;
+  }
+
   public int length() {
     // memoise length
     return length != null ? length : (length = 1 + nextPathToken.map(JsonPath::length).orElse(0));
   }
 
+  /**
+   * @return the automaton for the path from this token, or null if it has too many steps
+   */
+  PathAutomaton automaton() {
+    // memoise automaton
+    return (automaton != null ? automaton : (automaton = PathAutomaton.compile(this))).orElse(null);
+  }
+
   public abstract boolean isWildcard();
 
   public abstract boolean tokenEquals(JsonPath jsonPath);
@@ -90,6 +142,11 @@ public abstract class JsonPath implements Cloneable {
 
   abstract Optional<List<JsonPath>> doMatch(Optional<JsonPath> pathToTest, List<JsonPath> matchedFragments);
 
+  /**
+   * @return true if this token, ignoring the rest of the path, matches the single fragment of a token path
+   */
+  abstract boolean matchesFragment(JsonPath fragment);
+
   abstract String fragment();
 
   abstract JsonPath cloneWith(JsonPath nextPathToken);
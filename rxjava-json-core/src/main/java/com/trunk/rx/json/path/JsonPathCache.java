@@ -0,0 +1,191 @@
+package com.trunk.rx.json.path;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of parsed JsonPaths, keyed by the path as a String and evicting the least recently used path once
+ * full.
+ * <p>
+ * Paths are hash-consed, so equal paths parsed from different Strings, such as <code>$.a</code> and
+ * <code>$['a']</code>, are the same instance. A JsonPath compiles its automaton on first use and keeps it, so the
+ * matchers of every parse of a cached path share one compiled automaton, and comparing two cached paths for equality
+ * is an identity check.
+ * <p>
+ * A cache is safe to share between threads. A path found in the cache is returned without locking, only adding a
+ * path, and so evicting one, is done under a lock.
+ */
+public final class JsonPathCache {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  private static final class Holder {
+    private static final JsonPathCache INSTANCE = new JsonPathCache(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  private final int maximumSize;
+  private final Map<String, Entry> paths = new ConcurrentHashMap<>();
+  // the canonical instance of each path that is still referenced, guarded by this
+  private final Map<JsonPath, WeakReference<JsonPath>> canonical = new WeakHashMap<>();
+  // orders the uses of the cached paths
+  private final AtomicLong clock = new AtomicLong();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * @return the cache used by {@link JsonPath#parse(String)}
+   */
+  public static JsonPathCache defaultCache() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * @param maximumSize the number of path Strings to keep
+   */
+  public static JsonPathCache of(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    return new JsonPathCache(maximumSize);
+  }
+
+  private JsonPathCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * @return the parsed path, from the cache if the same String has been parsed recently
+   * @throws com.trunk.rx.json.exception.MalformedPathException if the path is malformed, which is not cached
+   */
+  public JsonPath parse(String path) {
+    Entry cached = paths.get(path);
+    if (cached != null) {
+      hitCount.increment();
+      cached.lastUsed = clock.incrementAndGet();
+      return cached.path;
+    }
+    missCount.increment();
+    // parse outside the lock, a concurrent parse of the same path is resolved by interning
+    JsonPath parsed = JsonPath.parseUncached(path);
+    synchronized (this) {
+      JsonPath interned = doIntern(parsed);
+      if (paths.put(path, new Entry(interned, clock.incrementAndGet())) == null && paths.size() > maximumSize) {
+        evictLeastRecentlyUsed();
+      }
+      return interned;
+    }
+  }
+
+  /**
+   * @return the canonical instance of the given path, which is the given path unless an equal path is already known
+   * to the cache
+   */
+  public synchronized JsonPath intern(JsonPath path) {
+    return doIntern(path);
+  }
+
+  public Stats stats() {
+    return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), paths.size());
+  }
+
+  /**
+   * Remove all paths from the cache, keeping its statistics.
+   */
+  public synchronized void clear() {
+    paths.clear();
+    canonical.clear();
+  }
+
+  private JsonPath doIntern(JsonPath path) {
+    WeakReference<JsonPath> reference = canonical.get(path);
+    JsonPath existing = reference == null ? null : reference.get();
+    if (existing != null) {
+      return existing;
+    }
+    canonical.put(path, new WeakReference<>(path));
+    return path;
+  }
+
+  // only called under the lock, so the cache is never more than one over its size
+  private void evictLeastRecentlyUsed() {
+    Map.Entry<String, Entry> eldest = null;
+    for (Map.Entry<String, Entry> entry : paths.entrySet()) {
+      if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed) {
+        eldest = entry;
+      }
+    }
+    if (eldest != null && paths.remove(eldest.getKey(), eldest.getValue())) {
+      evictionCount.increment();
+    }
+  }
+
+  private static final class Entry {
+    private final JsonPath path;
+    private volatile long lastUsed;
+
+    private Entry(JsonPath path, long lastUsed) {
+      this.path = path;
+      this.lastUsed = lastUsed;
+    }
+  }
+
+  /**
+   * A snapshot of the statistics of a cache.
+   */
+  public static final class Stats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    private Stats(long hitCount, long missCount, long evictionCount, int size) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+      this.size = size;
+    }
+
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    public long getMissCount() {
+      return missCount;
+    }
+
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /**
+     * @return the number of path Strings in the cache
+     */
+    public int getSize() {
+      return size;
+    }
+
+    /**
+     * @return the ratio of parses served from the cache, or 1 if nothing has been parsed
+     */
+    public double hitRate() {
+      long requestCount = hitCount + missCount;
+      return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+      return "JsonPathCache.Stats{" +
+        "hitCount=" + hitCount +
+        ", missCount=" + missCount +
+        ", evictionCount=" + evictionCount +
+        ", size=" + size +
+        '}';
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.trunk.rx.json.path;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Matches the paths of a stream of tokens against a JsonPath.
+ * <p>
+ * Consecutive token paths from a parser share all but their last few fragments, so the matcher keeps the automaton
+ * states reached at each depth of the previous path and only steps the fragments below the shared prefix. A
+ * recursive descent is carried down as state rather than re-matched from every level, so the work per token does not
+ * grow with the depth of the document.
+ * <p>
+ * A matcher holds state between calls and must not be shared between streams or threads.
+ */
+public final class JsonPathMatcher {
+
+  private final JsonPath path;
+  private final PathAutomaton automaton;
+
+  // the fragments of the previous path and the states reached after each of them
+  private JsonPath[] fragments = new JsonPath[16];
+  private long[] states = new long[17];
+  private int depth = 0;
+
+  // the last matched fragment, reused while the matched prefix is unchanged
+  private JsonPath matched = null;
+  private int matchedLength = -1;
+
+  public static JsonPathMatcher of(JsonPath path) {
+    return new JsonPathMatcher(path);
+  }
+
+  private JsonPathMatcher(JsonPath path) {
+    this.path = path;
+    this.automaton = path.automaton();
+  }
+
+  public JsonPath getPath() {
+    return path;
+  }
+
+  /**
+   * @return the fragment of the given path matched by this matcher's path, if any. Equivalent to
+   * {@link JsonPath#matchedFragment(JsonPath)}.
+   */
+  public Optional<JsonPath> matchedFragment(JsonPath pathToTest) {
+    if (automaton == null) {
+      return path.matchedFragment(pathToTest);
+    }
+    step(pathToTest);
+    int length = matchLength();
+    if (length < 0) {
+      return Optional.empty();
+    }
+    if (length != matchedLength) {
+      matched = length == pathToTest.length() ? pathToTest : JsonPath.from(Arrays.asList(fragments).subList(0, length));
+      matchedLength = length;
+    }
+    return Optional.of(matched);
+  }
+
+  public boolean matches(JsonPath pathToTest) {
+    if (automaton == null) {
+      return path.matches(pathToTest);
+    }
+    step(pathToTest);
+    return matchLength() >= 0;
+  }
+
+  /**
+   * Step the automaton over the fragments of the path that differ from the previous path.
+   */
+  private void step(JsonPath pathToTest) {
+    states[0] = automaton.start();
+    boolean shared = true;
+    int d = 0;
+    Optional<JsonPath> p = Optional.of(pathToTest);
+    while (p.isPresent()) {
+      JsonPath fragment = p.get();
+      if (!shared || d >= depth || !fragments[d].tokenEquals(fragment)) {
+        shared = false;
+        if (d < matchedLength) {
+          // the last matched fragment is no longer a prefix of the path
+          matchedLength = -1;
+        }
+        if (d == fragments.length) {
+          fragments = Arrays.copyOf(fragments, d * 2);
+          states = Arrays.copyOf(states, d * 2 + 1);
+        }
+        fragments[d] = fragment;
+        states[d + 1] = automaton.next(states[d], fragment);
+      }
+      ++d;
+      if (states[d] == 0 || automaton.accepts(states[d])) {
+        // nothing deeper can change the result
+        break;
+      }
+      p = fragment.nextPathToken;
+    }
+    depth = d;
+  }
+
+  private int matchLength() {
+    // stepping stops at the first accepting state
+    return automaton.accepts(states[depth]) ? depth : -1;
+  }
+}
@@ -30,6 +30,19 @@ public class JsonPathParser {
       readNextToken(path, tokens);
     }
 
+    if (tokens.stream().filter(t -> t instanceof FilterToken || t.isTail()).count() > 1) {
+      throw new MalformedPathException("Only one filter expression or negative position is supported per path");
+    }
+
+    // an element matched after a recursive descent may contain others that are matched, which a filter cannot decide
+    boolean recursive = false;
+    for (JsonPath token : tokens) {
+      recursive |= token instanceof RecursiveToken;
+      if (recursive && token instanceof FilterToken) {
+        throw new MalformedPathException("Filter expressions are not supported after a recursive descent ('..')");
+      }
+    }
+
     return tokens;
   }
 
@@ -55,11 +68,203 @@ public class JsonPathParser {
       }
     } else if (path.currentCharIs('"') || path.currentCharIs('\'')) {
       readStringName(path, tokens);
-    } else if (isNumber(path.currentChar()) || path.currentCharIs(':')) {
+    } else if (isNumber(path.currentChar()) || path.currentCharIs('-') || path.currentCharIs(':')) {
       readArray(path, tokens);
+    } else if (path.currentCharIs('?')) {
+      readFilter(path, tokens);
+    } else if (Character.isLetter(path.currentChar())) {
+      readNamePattern(path, tokens);
+    } else {
+      illegalCharacter(path, "[0-9]", "-", "'", "\"", ":", "?", "prefix", "suffix", "match");
+    }
+  }
+
+  private void readNamePattern(CharacterIndex path, List<JsonPath> tokens) {
+    int start = path.position();
+    while (path.inBounds() && Character.isLetter(path.currentChar())) {
+      path.incrementPosition(1);
+    }
+    String function = path.subSequence(start, path.position()).toString();
+    NamePattern.Kind kind = null;
+    for (NamePattern.Kind k : NamePattern.Kind.values()) {
+      if (k.function().equals(function)) {
+        kind = k;
+      }
+    }
+    if (kind == null) {
+      throw new MalformedPathException("Unknown name pattern '" + function + "' at position " + start);
+    }
+    readFilterChar(path, '(');
+    readWhitespace(path);
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    }
+    if (!path.currentCharIs('\'') && !path.currentCharIs('"')) {
+      illegalCharacter(path, "'", "\"");
+    }
+    char quoteChar = path.currentChar();
+    CharSequence text = readQuotedText(path);
+    readFilterChar(path, ')');
+    readFilterChar(path, ']');
+    switch (kind) {
+      case PREFIX:
+        tokens.add(NamePatternToken.of(NamePattern.prefix(unescape(text))));
+        break;
+      case SUFFIX:
+        tokens.add(NamePatternToken.of(NamePattern.suffix(unescape(text))));
+        break;
+      default:
+        // a regular expression keeps its escapes other than for the quote
+        tokens.add(NamePatternToken.of(NamePattern.match(text.toString().replace("\\" + quoteChar, Character.toString(quoteChar)))));
+    }
+  }
+
+  private void readFilter(CharacterIndex path, List<JsonPath> tokens) {
+    path.incrementPosition(1);
+    readFilterChar(path, '(');
+    readFilterChar(path, '@');
+    String field = readFilterField(path);
+
+    readWhitespace(path);
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    }
+    FilterToken.Operator operator;
+    List<FilterToken.Literal> values = new ArrayList<>();
+    if (path.currentCharIs(')')) {
+      operator = FilterToken.Operator.EXISTS;
     } else {
-      illegalCharacter(path, "[0-9]", "'", "\"", ":");
+      operator = readFilterOperator(path);
+      readWhitespace(path);
+      if (operator == FilterToken.Operator.IN) {
+        readFilterChar(path, '[');
+        values.add(readFilterLiteral(path));
+        readWhitespace(path);
+        while (path.inBounds() && path.currentCharIs(',')) {
+          path.incrementPosition(1);
+          values.add(readFilterLiteral(path));
+          readWhitespace(path);
+        }
+        readFilterChar(path, ']');
+      } else {
+        values.add(readFilterLiteral(path));
+      }
     }
+    readFilterChar(path, ')');
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    } else if (!path.currentCharIs(']')) {
+      illegalCharacter(path, "]");
+    }
+    path.incrementPosition(1);
+    tokens.add(FilterToken.of(field, operator, values));
+  }
+
+  private String readFilterField(CharacterIndex path) {
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    }
+    String field;
+    if (path.currentCharIs('.') && path.hasMoreCharacters() && isNameStart(path.charAt(path.position() + 1))) {
+      path.incrementPosition(1);
+      int start = path.position();
+      while (path.inBounds() && isName(path.currentChar())) {
+        path.incrementPosition(1);
+      }
+      field = path.subSequence(start, path.position()).toString();
+    } else if (path.currentCharIs('[') && path.hasMoreCharacters() && (path.nextCharIs('\'') || path.nextCharIs('"'))) {
+      path.incrementPosition(1);
+      List<JsonPath> name = new ArrayList<>();
+      readStringName(path, name);
+      field = ((ObjectToken) name.get(0)).getName();
+    } else {
+      illegalCharacter(path, ".", "[");
+      return null;
+    }
+    if (path.inBounds() && (path.currentCharIs('.') || path.currentCharIs('['))) {
+      throw new MalformedPathException("Filter expressions only support child fields at position " + path.position());
+    }
+    return field;
+  }
+
+  private FilterToken.Operator readFilterOperator(CharacterIndex path) {
+    for (FilterToken.Operator operator : FilterToken.Operator.values()) {
+      String symbol = operator.symbol();
+      if (
+        !symbol.isEmpty() &&
+          path.inBounds(path.position() + symbol.length() - 1) &&
+          path.subSequence(path.position(), path.position() + symbol.length()).toString().equals(symbol)
+        ) {
+        path.incrementPosition(symbol.length());
+        return operator;
+      }
+    }
+    illegalCharacter(path, ")", "==", "!=", "<", ">", "in");
+    return null;
+  }
+
+  private FilterToken.Literal readFilterLiteral(CharacterIndex path) {
+    readWhitespace(path);
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    }
+    if (path.currentCharIs('\'') || path.currentCharIs('"')) {
+      return FilterToken.Literal.string(unescape(readQuotedText(path)));
+    }
+    for (String keyword : Arrays.asList("true", "false", "null")) {
+      if (
+        path.inBounds(path.position() + keyword.length() - 1) &&
+          path.subSequence(path.position(), path.position() + keyword.length()).toString().equals(keyword)
+        ) {
+        path.incrementPosition(keyword.length());
+        return keyword.equals("null") ? FilterToken.Literal.nullValue() : FilterToken.Literal.bool(keyword.equals("true"));
+      }
+    }
+    int start = path.position();
+    while (path.inBounds() && isFilterNumber(path.currentChar())) {
+      path.incrementPosition(1);
+    }
+    if (start == path.position()) {
+      illegalCharacter(path, "'", "\"", "[0-9]", "-", "true", "false", "null");
+    }
+    String number = path.subSequence(start, path.position()).toString();
+    try {
+      return FilterToken.Literal.number(number);
+    } catch (NumberFormatException e) {
+      throw new MalformedPathException("Illegal number '" + number + "' at position " + start, e);
+    }
+  }
+
+  /**
+   * @return the still escaped text between the quote at the current position and its closing quote
+   */
+  private CharSequence readQuotedText(CharacterIndex path) {
+    char quoteChar = path.currentChar();
+    path.incrementPosition(1);
+    int start = path.position();
+    while (path.inBounds() && !path.currentCharIs(quoteChar)) {
+      path.incrementPosition(path.currentCharIs('\\') ? 2 : 1);
+    }
+    if (!path.inBounds()) {
+      throw new MalformedPathException("Unclosed string expression at position " + path.position());
+    }
+    CharSequence text = path.subSequence(start, path.position());
+    path.incrementPosition(1);
+    return text;
+  }
+
+  private void readFilterChar(CharacterIndex path, char c) {
+    readWhitespace(path);
+    if (!path.inBounds()) {
+      unexpectedEndOfPath(path);
+    } else if (!path.currentCharIs(c)) {
+      illegalCharacter(path, Character.toString(c));
+    }
+    path.incrementPosition(1);
+  }
+
+  private boolean isFilterNumber(char c) {
+    return isNumber(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
   }
 
   private void readArray(CharacterIndex path, List<JsonPath> tokens) {
@@ -70,7 +275,7 @@ public class JsonPathParser {
 
     while (path.inBounds()) {
       if (path.currentCharIs(']') || path.currentCharIs(',')) {
-        integerElements.add(asInteger(currentNumber));
+        integerElements.add(asInteger(path, currentNumber));
         currentNumber = "";
         if (
           (integerElements.size() == 1 && integerElements.get(0) == null) ||
@@ -79,30 +284,39 @@ public class JsonPathParser {
         ){
           throw new MalformedPathException("Illegal array accessor at position " + path.position());
         }
+        if (integerElements.size() == 3 && integerElements.stream().anyMatch(i -> i != null && i < 0)) {
+          throw new MalformedPathException("Negative positions are not supported with a step at position " + path.position());
+        }
         arrayElements.add(ArrayToken.of(integerElements));
         integerElements.clear();
         if (path.currentCharIs(']')) {
+          if (arrayElements.size() > 1 && arrayElements.stream().anyMatch(JsonPath::isTail)) {
+            throw new MalformedPathException("Negative positions are not supported in a union at position " + path.position());
+          }
           tokens.add(ArrayUnionToken.using(arrayElements));
           path.incrementPosition(1);
           return;
         }
         path.incrementPosition(1);
       } else if (path.currentCharIs(':')) {
-        integerElements.add(asInteger(currentNumber));
+        integerElements.add(asInteger(path, currentNumber));
         currentNumber = "";
         path.incrementPosition(1);
-      } else if (isNumber(path.currentChar())) {
+      } else if (isNumber(path.currentChar()) || (path.currentCharIs('-') && currentNumber.isEmpty())) {
         currentNumber = currentNumber + path.currentChar();
         path.incrementPosition(1);
       } else {
-        illegalCharacter(path, "[0-9]", ":", ",", "]");
+        illegalCharacter(path, "[0-9]", "-", ":", ",", "]");
       }
     }
 
     throw new MalformedPathException("Unclosed array expression at position " + path.position());
   }
 
-  private Integer asInteger(String s) {
+  private Integer asInteger(CharacterIndex path, String s) {
+    if (s.equals("-")) {
+      throw new MalformedPathException("Expected a position after - at position " + path.position());
+    }
     return s.isEmpty() ? null : Integer.parseInt(s);
   }
 
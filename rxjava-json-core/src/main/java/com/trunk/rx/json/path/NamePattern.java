@@ -0,0 +1,572 @@
+package com.trunk.rx.json.path;
+
+import com.trunk.rx.json.exception.MalformedPathException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A pattern over object member names: a prefix, a suffix or a regular expression that must match the whole name.
+ * <p>
+ * Patterns are compiled to a deterministic automaton, so a name is matched in a single pass over its characters
+ * without backtracking. Only a safe subset of regular expressions is supported: literals, <code>.</code>, which matches
+ * any character, character classes such as <code>[a-z]</code> or <code>[^.]</code>, <code>\d</code>, <code>\w</code>
+ * and <code>\s</code>, groups, alternation and the <code>*</code>, <code>+</code> and <code>?</code> quantifiers.
+ */
+public final class NamePattern {
+
+  static final int MAX_STATES = 1024;
+
+  public enum Kind {
+    PREFIX("prefix"),
+    SUFFIX("suffix"),
+    MATCH("match");
+
+    private final String function;
+
+    Kind(String function) {
+      this.function = function;
+    }
+
+    public String function() {
+      return function;
+    }
+  }
+
+  private static final char[] ANY = {Character.MIN_VALUE, Character.MAX_VALUE};
+  private static final char[] DIGIT = {'0', '9'};
+  private static final char[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+  private static final char[] SPACE = {'\t', '\n', '\f', '\r', ' ', ' '};
+
+  private final Kind kind;
+  private final String source;
+
+  // the first character of each class of characters the automaton does not distinguish between
+  private final char[] classes;
+  // the next state for each state and class, or -1 if no name can match
+  private final int[] transitions;
+  private final boolean[] accepting;
+
+  public static NamePattern prefix(String prefix) {
+    return new NamePattern(Kind.PREFIX, prefix, new Concat(literal(prefix), new Repeat(new Chars(ANY), 0)));
+  }
+
+  public static NamePattern suffix(String suffix) {
+    return new NamePattern(Kind.SUFFIX, suffix, new Concat(new Repeat(new Chars(ANY), 0), literal(suffix)));
+  }
+
+  /**
+   * @param regex a regular expression in the supported subset, which must match the whole name
+   */
+  public static NamePattern match(String regex) {
+    return new NamePattern(Kind.MATCH, regex, new RegexParser(regex).parse());
+  }
+
+  private NamePattern(Kind kind, String source, Node node) {
+    this.kind = kind;
+    this.source = source;
+
+    Nfa nfa = new Nfa();
+    int[] fragment = node.build(nfa);
+    this.classes = nfa.classes();
+
+    List<BitSet> states = new ArrayList<>();
+    Map<BitSet, Integer> ids = new HashMap<>();
+    List<int[]> rows = new ArrayList<>();
+    BitSet start = nfa.closure(single(fragment[0]));
+    states.add(start);
+    ids.put(start, 0);
+    for (int i = 0; i < states.size(); ++i) {
+      int[] row = new int[classes.length];
+      for (int c = 0; c < classes.length; ++c) {
+        BitSet next = nfa.closure(nfa.step(states.get(i), classes[c]));
+        if (next.isEmpty()) {
+          row[c] = -1;
+          continue;
+        }
+        Integer id = ids.get(next);
+        if (id == null) {
+          if (states.size() == MAX_STATES) {
+            throw new MalformedPathException("Name pattern '" + source + "' is too complex");
+          }
+          id = states.size();
+          states.add(next);
+          ids.put(next, id);
+        }
+        row[c] = id;
+      }
+      rows.add(row);
+    }
+
+    this.transitions = new int[rows.size() * classes.length];
+    this.accepting = new boolean[rows.size()];
+    for (int i = 0; i < rows.size(); ++i) {
+      System.arraycopy(rows.get(i), 0, transitions, i * classes.length, classes.length);
+      accepting[i] = states.get(i).get(fragment[1]);
+    }
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the prefix, suffix or regular expression of the pattern
+   */
+  public String getSource() {
+    return source;
+  }
+
+  public boolean matches(CharSequence name) {
+    int state = 0;
+    for (int i = 0; i < name.length() && state >= 0; ++i) {
+      state = next(state, name.charAt(i));
+    }
+    return state >= 0 && accepting[state];
+  }
+
+  public boolean matches(char[] chars, int offset, int length) {
+    int state = 0;
+    for (int i = offset; i < offset + length && state >= 0; ++i) {
+      state = next(state, chars[i]);
+    }
+    return state >= 0 && accepting[state];
+  }
+
+  private int next(int state, char c) {
+    int found = Arrays.binarySearch(classes, c);
+    return transitions[state * classes.length + (found >= 0 ? found : -found - 2)];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    NamePattern that = (NamePattern) o;
+    return kind == that.kind && source.equals(that.source);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kind, source);
+  }
+
+  @Override
+  public String toString() {
+    // a regular expression keeps its own escapes
+    String escaped = kind == Kind.MATCH ? source : source.replace("\\", "\\\\");
+    return kind.function() + "('" + escaped.replace("'", "\\'") + "')";
+  }
+
+  private static BitSet single(int state) {
+    BitSet set = new BitSet();
+    set.set(state);
+    return set;
+  }
+
+  private static Node literal(String s) {
+    Node node = new Concat(null, null);
+    for (int i = 0; i < s.length(); ++i) {
+      node = new Concat(node, new Chars(new char[] {s.charAt(i), s.charAt(i)}));
+    }
+    return node;
+  }
+
+  /**
+   * A non-deterministic automaton where each state has epsilon transitions and at most one transition on a set of
+   * character ranges.
+   */
+  private static final class Nfa {
+    private final List<char[]> ranges = new ArrayList<>();
+    private final List<Integer> targets = new ArrayList<>();
+    private final List<List<Integer>> epsilons = new ArrayList<>();
+
+    int state() {
+      ranges.add(null);
+      targets.add(-1);
+      epsilons.add(new ArrayList<>(2));
+      return ranges.size() - 1;
+    }
+
+    void epsilon(int from, int to) {
+      epsilons.get(from).add(to);
+    }
+
+    void transition(int from, char[] on, int to) {
+      ranges.set(from, on);
+      targets.set(from, to);
+    }
+
+    BitSet closure(BitSet states) {
+      BitSet closure = (BitSet) states.clone();
+      int[] stack = new int[ranges.size()];
+      int size = 0;
+      for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+        stack[size++] = s;
+      }
+      while (size > 0) {
+        for (int next : epsilons.get(stack[--size])) {
+          if (!closure.get(next)) {
+            closure.set(next);
+            stack[size++] = next;
+          }
+        }
+      }
+      return closure;
+    }
+
+    BitSet step(BitSet states, char c) {
+      BitSet next = new BitSet();
+      for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+        char[] on = ranges.get(s);
+        if (on != null && contains(on, c)) {
+          next.set(targets.get(s));
+        }
+      }
+      return next;
+    }
+
+    /**
+     * @return the sorted first characters of the classes of characters that no transition distinguishes between
+     */
+    char[] classes() {
+      List<Integer> bounds = new ArrayList<>();
+      bounds.add((int) Character.MIN_VALUE);
+      for (char[] on : ranges) {
+        if (on != null) {
+          for (int i = 0; i < on.length; i += 2) {
+            bounds.add((int) on[i]);
+            bounds.add(on[i + 1] + 1);
+          }
+        }
+      }
+      int[] sorted = bounds.stream()
+        .mapToInt(Integer::intValue)
+        .filter(b -> b <= Character.MAX_VALUE)
+        .distinct()
+        .sorted()
+        .toArray();
+      char[] classes = new char[sorted.length];
+      for (int i = 0; i < sorted.length; ++i) {
+        classes[i] = (char) sorted[i];
+      }
+      return classes;
+    }
+
+    private static boolean contains(char[] on, char c) {
+      for (int i = 0; i < on.length; i += 2) {
+        if (c >= on[i] && c <= on[i + 1]) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private interface Node {
+    /**
+     * @return the start and accepting states of this node in the automaton
+     */
+    int[] build(Nfa nfa);
+  }
+
+  private static final class Chars implements Node {
+    private final char[] ranges;
+
+    Chars(char[] ranges) {
+      this.ranges = ranges;
+    }
+
+    @Override
+    public int[] build(Nfa nfa) {
+      int start = nfa.state();
+      int end = nfa.state();
+      nfa.transition(start, ranges, end);
+      return new int[] {start, end};
+    }
+  }
+
+  private static final class Concat implements Node {
+    private final Node first;
+    private final Node second;
+
+    // either node may be null to match the empty name
+    Concat(Node first, Node second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public int[] build(Nfa nfa) {
+      if (first == null && second == null) {
+        int state = nfa.state();
+        return new int[] {state, state};
+      }
+      if (first == null || second == null) {
+        return (first == null ? second : first).build(nfa);
+      }
+      int[] a = first.build(nfa);
+      int[] b = second.build(nfa);
+      nfa.epsilon(a[1], b[0]);
+      return new int[] {a[0], b[1]};
+    }
+  }
+
+  private static final class Alternation implements Node {
+    private final Node first;
+    private final Node second;
+
+    Alternation(Node first, Node second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public int[] build(Nfa nfa) {
+      int start = nfa.state();
+      int end = nfa.state();
+      for (Node node : Arrays.asList(first, second)) {
+        int[] f = node.build(nfa);
+        nfa.epsilon(start, f[0]);
+        nfa.epsilon(f[1], end);
+      }
+      return new int[] {start, end};
+    }
+  }
+
+  private static final class Repeat implements Node {
+    private final Node node;
+    // 0 for *, 1 for + and -1 for ?
+    private final int min;
+
+    Repeat(Node node, int min) {
+      this.node = node;
+      this.min = min;
+    }
+
+    @Override
+    public int[] build(Nfa nfa) {
+      int start = nfa.state();
+      int end = nfa.state();
+      int[] f = node.build(nfa);
+      nfa.epsilon(start, f[0]);
+      nfa.epsilon(f[1], end);
+      if (min <= 0) {
+        nfa.epsilon(start, end);
+      }
+      if (min >= 0) {
+        nfa.epsilon(f[1], f[0]);
+      }
+      return new int[] {start, end};
+    }
+  }
+
+  /**
+   * Parses the supported subset of regular expressions.
+   */
+  private static final class RegexParser {
+    private final String regex;
+    private int position = 0;
+
+    RegexParser(String regex) {
+      this.regex = regex;
+    }
+
+    Node parse() {
+      Node node = alternation();
+      if (position < regex.length()) {
+        throw error("Unexpected '" + regex.charAt(position) + "'");
+      }
+      return node;
+    }
+
+    private Node alternation() {
+      Node node = concatenation();
+      while (position < regex.length() && regex.charAt(position) == '|') {
+        ++position;
+        node = new Alternation(node, concatenation());
+      }
+      return node;
+    }
+
+    private Node concatenation() {
+      Node node = new Concat(null, null);
+      while (position < regex.length() && regex.charAt(position) != '|' && regex.charAt(position) != ')') {
+        node = new Concat(node, repetition());
+      }
+      return node;
+    }
+
+    private Node repetition() {
+      Node node = atom();
+      while (position < regex.length()) {
+        char c = regex.charAt(position);
+        if (c == '*') {
+          node = new Repeat(node, 0);
+        } else if (c == '+') {
+          node = new Repeat(node, 1);
+        } else if (c == '?') {
+          node = new Repeat(node, -1);
+        } else {
+          break;
+        }
+        ++position;
+      }
+      return node;
+    }
+
+    private Node atom() {
+      char c = regex.charAt(position++);
+      switch (c) {
+        case '(': {
+          Node node = alternation();
+          if (position >= regex.length() || regex.charAt(position) != ')') {
+            throw error("Unclosed group");
+          }
+          ++position;
+          return node;
+        }
+        case '[':
+          return new Chars(characterClass());
+        case '.':
+          return new Chars(ANY);
+        case '\\':
+          return new Chars(escape());
+        case '*':
+        case '+':
+        case '?':
+          throw error("Nothing to repeat before '" + c + "'");
+        case '{':
+        case '}':
+        case '^':
+        case '$':
+        case ']':
+          throw error("Unsupported '" + c + "', escape it to match it literally");
+        default:
+          return new Chars(new char[] {c, c});
+      }
+    }
+
+    private char[] characterClass() {
+      boolean negated = position < regex.length() && regex.charAt(position) == '^';
+      if (negated) {
+        ++position;
+      }
+      List<char[]> ranges = new ArrayList<>();
+      boolean first = true;
+      while (position < regex.length() && (first || regex.charAt(position) != ']')) {
+        first = false;
+        char[] from = classChar();
+        if (
+          from.length == 2 && from[0] == from[1] &&
+          position + 1 < regex.length() && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']'
+        ) {
+          ++position;
+          char[] to = classChar();
+          if (to.length != 2 || to[0] != to[1] || to[0] < from[0]) {
+            throw error("Illegal character range");
+          }
+          ranges.add(new char[] {from[0], to[0]});
+        } else {
+          ranges.add(from);
+        }
+      }
+      if (position >= regex.length()) {
+        throw error("Unclosed character class");
+      }
+      ++position;
+      char[] merged = merge(ranges);
+      return negated ? complement(merged) : merged;
+    }
+
+    private char[] classChar() {
+      char c = regex.charAt(position++);
+      return c == '\\' ? escape() : new char[] {c, c};
+    }
+
+    private char[] escape() {
+      if (position >= regex.length()) {
+        throw error("Unfinished escape");
+      }
+      char c = regex.charAt(position++);
+      switch (c) {
+        case 'd':
+          return DIGIT;
+        case 'D':
+          return complement(DIGIT);
+        case 'w':
+          return WORD;
+        case 'W':
+          return complement(WORD);
+        case 's':
+          return SPACE;
+        case 'S':
+          return complement(SPACE);
+        case 't':
+          return new char[] {'\t', '\t'};
+        case 'n':
+          return new char[] {'\n', '\n'};
+        case 'r':
+          return new char[] {'\r', '\r'};
+        default:
+          if (Character.isLetterOrDigit(c)) {
+            throw error("Unsupported escape '\\" + c + "'");
+          }
+          return new char[] {c, c};
+      }
+    }
+
+    private MalformedPathException error(String message) {
+      return new MalformedPathException(message + " at position " + position + " of name pattern '" + regex + "'");
+    }
+
+    private static char[] merge(List<char[]> sets) {
+      List<int[]> ranges = new ArrayList<>();
+      for (char[] set : sets) {
+        for (int i = 0; i < set.length; i += 2) {
+          ranges.add(new int[] {set[i], set[i + 1]});
+        }
+      }
+      ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+      List<int[]> merged = new ArrayList<>();
+      for (int[] range : ranges) {
+        int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+        if (last != null && range[0] <= last[1] + 1) {
+          last[1] = Math.max(last[1], range[1]);
+        } else {
+          merged.add(range);
+        }
+      }
+      char[] result = new char[merged.size() * 2];
+      for (int i = 0; i < merged.size(); ++i) {
+        result[2 * i] = (char) merged.get(i)[0];
+        result[2 * i + 1] = (char) merged.get(i)[1];
+      }
+      return result;
+    }
+
+    private static char[] complement(char[] ranges) {
+      StringBuilder result = new StringBuilder();
+      int next = Character.MIN_VALUE;
+      for (int i = 0; i < ranges.length; i += 2) {
+        if (ranges[i] > next) {
+          result.append((char) next).append((char) (ranges[i] - 1));
+        }
+        next = ranges[i + 1] + 1;
+      }
+      if (next <= Character.MAX_VALUE) {
+        result.append((char) next).append(Character.MAX_VALUE);
+      }
+      return result.toString().toCharArray();
+    }
+  }
+}
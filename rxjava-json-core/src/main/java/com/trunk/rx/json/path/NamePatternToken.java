@@ -0,0 +1,68 @@
+package com.trunk.rx.json.path;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Matches the members of an object whose names match a {@link NamePattern}, for example
+ * <code>$.tenants[prefix('eu-')]</code> or <code>$.metrics[match('cpu\..*')]</code>.
+ */
+public class NamePatternToken extends JsonPath {
+
+  private final NamePattern pattern;
+
+  public static NamePatternToken of(NamePattern pattern) {
+    return new NamePatternToken(pattern, null);
+  }
+
+  private NamePatternToken(NamePattern pattern, JsonPath nextPathToken) {
+    super(nextPathToken);
+    this.pattern = pattern;
+  }
+
+  public NamePattern getPattern() {
+    return pattern;
+  }
+
+  @Override
+  public boolean isWildcard() {
+    return true;
+  }
+
+  @Override
+  int tokenHash() {
+    return pattern.hashCode();
+  }
+
+  @Override
+  Optional<List<JsonPath>> doMatch(Optional<JsonPath> pathToTest, List<JsonPath> matchedFragments) {
+    return pathToTest
+      .filter(this::matchesFragment)
+      .flatMap(p -> matchNextFragment(p, matchedFragments));
+  }
+
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return fragment instanceof ObjectToken && pattern.matches(((ObjectToken) fragment).getName());
+  }
+
+  @Override
+  String fragment() {
+    return "[" + pattern + "]";
+  }
+
+  @Override
+  JsonPath cloneWith(JsonPath nextPathToken) {
+    return new NamePatternToken(pattern, nextPathToken);
+  }
+
+  @Override
+  AccessorType accessorType() {
+    return AccessorType.ARRAY;
+  }
+
+  @Override
+  public boolean tokenEquals(JsonPath jsonPath) {
+    return jsonPath instanceof NamePatternToken && pattern.equals(((NamePatternToken) jsonPath).pattern);
+  }
+}
@@ -0,0 +1,135 @@
+package com.trunk.rx.json.path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides which members of an object can be matched by any of a set of paths from the characters of the member's
+ * name, so that a parser can skip the other members without creating a String for their names.
+ * <p>
+ * Selection is only worthwhile for paths with name patterns, where many names of an object are expected not to
+ * match, so {@link #of(Collection)} is empty otherwise.
+ */
+public final class NameSelector {
+
+  private final List<PathAutomaton> automata;
+
+  /**
+   * @return a selector for the paths, or empty if none of them has a name pattern or any of them has a filter
+   * expression, whose fields must always be parsed
+   */
+  public static Optional<NameSelector> of(Collection<JsonPath> paths) {
+    if (paths.stream().noneMatch(NameSelector::hasNamePattern) || paths.stream().anyMatch(JsonPath::hasFilter)) {
+      return Optional.empty();
+    }
+    List<PathAutomaton> automata = new ArrayList<>(paths.size());
+    for (JsonPath path : paths) {
+      PathAutomaton automaton = path.automaton();
+      if (automaton == null) {
+        return Optional.empty();
+      }
+      automata.add(automaton);
+    }
+    return Optional.of(new NameSelector(automata));
+  }
+
+  private NameSelector(List<PathAutomaton> automata) {
+    this.automata = automata;
+  }
+
+  /**
+   * @return the names that may be matched in the object at the given path, or empty if any member may be matched
+   */
+  public Optional<Names> in(JsonPath objectPath) {
+    List<String> names = new ArrayList<>(1);
+    List<NamePattern> patterns = new ArrayList<>(1);
+    for (PathAutomaton automaton : automata) {
+      long states = automaton.start();
+      Optional<JsonPath> p = Optional.of(objectPath);
+      while (p.isPresent() && states != 0) {
+        if (automaton.accepts(states)) {
+          // the object is within a match
+          return Optional.empty();
+        }
+        states = automaton.next(states, p.get());
+        p = p.get().nextPathToken;
+      }
+      if (automaton.accepts(states)) {
+        return Optional.empty();
+      }
+      while (states != 0) {
+        int state = Long.numberOfTrailingZeros(states);
+        states &= states - 1;
+        JsonPath step = automaton.step(state);
+        if (automaton.loops(state)) {
+          // a recursive descent may match below any member
+          return Optional.empty();
+        } else if (step instanceof ObjectToken) {
+          names.add(((ObjectToken) step).getName());
+        } else if (step instanceof NamePatternToken) {
+          patterns.add(((NamePatternToken) step).getPattern());
+        } else if (!(step instanceof ArrayToken)) {
+          // a wildcard matches any member
+          return Optional.empty();
+        }
+      }
+    }
+    return Optional.of(new Names(names, patterns));
+  }
+
+  private static boolean hasNamePattern(JsonPath path) {
+    Optional<JsonPath> p = Optional.of(path);
+    while (p.isPresent()) {
+      if (p.get() instanceof NamePatternToken) {
+        return true;
+      }
+      p = p.get().nextPathToken;
+    }
+    return false;
+  }
+
+  /**
+   * The names of the members of an object that may be matched.
+   */
+  public static final class Names {
+    private final List<String> names;
+    private final List<NamePattern> patterns;
+
+    private Names(List<String> names, List<NamePattern> patterns) {
+      this.names = names;
+      this.patterns = patterns;
+    }
+
+    public boolean selects(char[] chars, int offset, int length) {
+      for (String name : names) {
+        if (equals(name, chars, offset, length)) {
+          return true;
+        }
+      }
+      for (NamePattern pattern : patterns) {
+        if (pattern.matches(chars, offset, length)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public boolean selects(String name) {
+      return names.contains(name) || patterns.stream().anyMatch(p -> p.matches(name));
+    }
+
+    private static boolean equals(String name, char[] chars, int offset, int length) {
+      if (name.length() != length) {
+        return false;
+      }
+      for (int i = 0; i < length; ++i) {
+        if (name.charAt(i) != chars[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -37,6 +37,11 @@ public class NoopToken extends JsonPath {
     return Optional.empty();
   }
 
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return false;
+  }
+
   @Override
   String fragment() {
     return "<NOOP>";
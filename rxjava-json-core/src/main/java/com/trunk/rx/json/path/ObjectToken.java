@@ -22,6 +22,10 @@ public class ObjectToken extends JsonPath {
     accessorType = validName.matcher(name).matches() ? AccessorType.OBJECT : AccessorType.ARRAY;
   }
 
+  public String getName() {
+    return name;
+  }
+
   @Override
   public boolean isWildcard() {
     return false;
@@ -39,6 +43,11 @@ public class ObjectToken extends JsonPath {
       .flatMap(p -> matchNextFragment(p, matchedFragments));
   }
 
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return tokenEquals(fragment);
+  }
+
   @Override
   String fragment() {
     return accessorType == AccessorType.OBJECT ? "." + name : "[" + escape(name) + "]";
@@ -0,0 +1,104 @@
+package com.trunk.rx.json.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A JsonPath compiled to a non-deterministic automaton over path fragments. Each step of the path is a state and a
+ * recursive descent is a state that also loops on any fragment, so the set of states reached by a path fits in a
+ * single bit mask and a path is matched in one pass without backtracking.
+ */
+final class PathAutomaton {
+
+  static final int MAX_STEPS = Long.SIZE - 1;
+
+  private final JsonPath[] steps;
+  // bit i is set when state i is preceded by a recursive descent
+  private final long loops;
+  private final long accept;
+
+  /**
+   * @return the automaton for the path, or empty if it has more steps than fit in a mask
+   */
+  static Optional<PathAutomaton> compile(JsonPath path) {
+    List<JsonPath> steps = new ArrayList<>();
+    long loops = 0;
+    Optional<JsonPath> p = Optional.of(path);
+    while (p.isPresent()) {
+      JsonPath step = p.get();
+      if (step instanceof RecursiveToken) {
+        loops |= 1L << Math.min(steps.size(), MAX_STEPS);
+      } else {
+        steps.add(step);
+      }
+      if (steps.size() > MAX_STEPS) {
+        return Optional.empty();
+      }
+      p = step.nextPathToken;
+    }
+    return Optional.of(new PathAutomaton(steps.toArray(new JsonPath[steps.size()]), loops));
+  }
+
+  private PathAutomaton(JsonPath[] steps, long loops) {
+    this.steps = steps;
+    // nothing is consumed after the last state is reached
+    this.accept = 1L << steps.length;
+    this.loops = loops & ~accept;
+  }
+
+  long start() {
+    return 1L;
+  }
+
+  long next(long states, JsonPath fragment) {
+    long next = 0;
+    long remaining = states & ~accept;
+    while (remaining != 0) {
+      int state = Long.numberOfTrailingZeros(remaining);
+      remaining &= remaining - 1;
+      if (loops(state)) {
+        next |= 1L << state;
+      }
+      if (steps[state].matchesFragment(fragment)) {
+        next |= 1L << (state + 1);
+      }
+    }
+    return next;
+  }
+
+  /**
+   * @return the step of the path that the given state, other than the accepting state, consumes a fragment for
+   */
+  JsonPath step(int state) {
+    return steps[state];
+  }
+
+  /**
+   * @return true if the given state is preceded by a recursive descent, so it also consumes any fragment
+   */
+  boolean loops(int state) {
+    return (loops & (1L << state)) != 0;
+  }
+
+  boolean accepts(long states) {
+    return (states & accept) != 0;
+  }
+
+  /**
+   * @return the number of fragments in the shortest prefix of the path that is accepted, or -1 if there is none
+   */
+  int shortestMatch(Optional<JsonPath> path) {
+    long states = start();
+    int length = 0;
+    while (!accepts(states)) {
+      if (states == 0 || !path.isPresent()) {
+        return -1;
+      }
+      states = next(states, path.get());
+      ++length;
+      path = path.get().nextPathToken;
+    }
+    return length;
+  }
+}
@@ -1,5 +1,6 @@
 package com.trunk.rx.json.path;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,6 +39,22 @@ public class RecursiveToken extends JsonPath {
       return Optional.of(matchedFragments);
     }
 
+    PathAutomaton automaton = automaton();
+    if (automaton != null) {
+      // a single pass for the remainder of the path, rather than re-matching it from every level
+      int length = automaton.shortestMatch(pathToTest);
+      if (length < 0) {
+        return Optional.empty();
+      }
+      List<JsonPath> newMatchedFragments = new ArrayList<>(matchedFragments);
+      Optional<JsonPath> tempPath = pathToTest;
+      for (int i = 0; i < length; ++i) {
+        newMatchedFragments.add(tempPath.get());
+        tempPath = tempPath.get().nextPathToken;
+      }
+      return Optional.of(newMatchedFragments);
+    }
+
     Optional<JsonPath> tempPath = pathToTest;
     // start with skipping 0 elements
     while (tempPath.isPresent()) {
@@ -53,6 +70,11 @@ public class RecursiveToken extends JsonPath {
     return Optional.empty();
   }
 
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return true;
+  }
+
   @Override
   public String fragment() {
     return nextPathToken
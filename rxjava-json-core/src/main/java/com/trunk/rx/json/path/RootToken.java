@@ -37,6 +37,11 @@ public class RootToken extends JsonPath {
       .flatMap(p -> matchNextFragment(p, matchedFragments));
   }
 
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return tokenEquals(fragment);
+  }
+
   @Override
   String fragment() {
     return "$";
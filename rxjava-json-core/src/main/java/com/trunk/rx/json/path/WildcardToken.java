@@ -38,6 +38,11 @@ public class WildcardToken extends JsonPath {
       .flatMap(p -> matchNextFragment(p, matchedFragments)); // skip this fragment
   }
 
+  @Override
+  boolean matchesFragment(JsonPath fragment) {
+    return true;
+  }
+
   @Override
   public String fragment() {
     return fragment;
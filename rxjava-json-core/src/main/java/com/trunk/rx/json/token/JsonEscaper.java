@@ -0,0 +1,113 @@
+package com.trunk.rx.json.token;
+
+import java.io.IOException;
+
+/**
+ * Escapes text for a JSON string in a single pass. Quotes, backslashes and all control characters are escaped, as are
+ * U+2028 and U+2029, which are valid in JSON but end a line in JavaScript. Runs of characters that need no escaping
+ * are copied in bulk, and text that needs none is returned as it is.
+ */
+public final class JsonEscaper {
+
+  private static final String[] ASCII_REPLACEMENTS = new String[128];
+
+  static {
+    for (int c = 0; c < 0x20; ++c) {
+      ASCII_REPLACEMENTS[c] = String.format("\\u%04x", c);
+    }
+    ASCII_REPLACEMENTS['"'] = "\\\"";
+    ASCII_REPLACEMENTS['\\'] = "\\\\";
+    ASCII_REPLACEMENTS['\b'] = "\\b";
+    ASCII_REPLACEMENTS['\f'] = "\\f";
+    ASCII_REPLACEMENTS['\n'] = "\\n";
+    ASCII_REPLACEMENTS['\r'] = "\\r";
+    ASCII_REPLACEMENTS['\t'] = "\\t";
+  }
+
+  /**
+   * @return the escaped value, which is the value itself if nothing needs escaping
+   */
+  public static String escape(String value) {
+    int i = firstEscape(value);
+    if (i == value.length()) {
+      return value;
+    }
+    StringBuilder builder = new StringBuilder(value.length() + 16);
+    builder.append(value, 0, i);
+    appendFrom(value, i, builder);
+    return builder.toString();
+  }
+
+  /**
+   * Append the escaped value.
+   */
+  public static void appendTo(String value, StringBuilder builder) {
+    int i = firstEscape(value);
+    if (i == value.length()) {
+      builder.append(value);
+      return;
+    }
+    builder.append(value, 0, i);
+    appendFrom(value, i, builder);
+  }
+
+  /**
+   * Append the escaped value, such as to a Writer.
+   */
+  public static void appendTo(String value, Appendable appendable) throws IOException {
+    int start = 0;
+    for (int i = 0; i < value.length(); ++i) {
+      String replacement = replacement(value.charAt(i));
+      if (replacement != null) {
+        appendable.append(value, start, i).append(replacement);
+        start = i + 1;
+      }
+    }
+    appendable.append(value, start, value.length());
+  }
+
+  /**
+   * @return true if the value would be changed by escaping
+   */
+  public static boolean needsEscaping(String value) {
+    return firstEscape(value) != value.length();
+  }
+
+  private static void appendFrom(String value, int from, StringBuilder builder) {
+    int start = from;
+    for (int i = from; i < value.length(); ++i) {
+      String replacement = replacement(value.charAt(i));
+      if (replacement != null) {
+        builder.append(value, start, i).append(replacement);
+        start = i + 1;
+      }
+    }
+    builder.append(value, start, value.length());
+  }
+
+  private static int firstEscape(String value) {
+    for (int i = 0; i < value.length(); ++i) {
+      if (replacement(value.charAt(i)) != null) {
+        return i;
+      }
+    }
+    return value.length();
+  }
+
+  private static String replacement(char c) {
+    if (c < 128) {
+      return ASCII_REPLACEMENTS[c];
+    }
+    if (c == '\u2028') {
+      return "\\u2028";
+    }
+    if (c == '\u2029') {
+      return "\\u2029";
+    }
+    return null;
+  }
+
+  private JsonEscaper() {
+    // do nothing
+  }
+}
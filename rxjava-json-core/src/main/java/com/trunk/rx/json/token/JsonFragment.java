@@ -0,0 +1,78 @@
+package com.trunk.rx.json.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A raw fragment of JSON rendered ahead of time, held encoded as UTF-8 so writers of bytes can copy it as it is. Like
+ * a {@link JsonRaw}, it is emitted as is. A fragment is immutable, so may be shared between threads.
+ */
+public class JsonFragment extends BaseToken {
+
+  private final byte[] utf8;
+  // decoded when first needed, if the fragment was created from bytes
+  private volatile String value;
+
+  public static JsonFragment of(String json) {
+    return new JsonFragment(json, json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param utf8 JSON encoded as UTF-8, which is copied
+   */
+  public static JsonFragment ofUtf8(byte[] utf8) {
+    return new JsonFragment(null, utf8.clone());
+  }
+
+  private JsonFragment(String value, byte[] utf8) {
+    this.value = value;
+    this.utf8 = utf8;
+  }
+
+  @Override
+  public String value() {
+    String result = value;
+    if (result == null) {
+      result = new String(utf8, StandardCharsets.UTF_8);
+      value = result;
+    }
+    return result;
+  }
+
+  /**
+   * @return a read only buffer of the fragment encoded as UTF-8
+   */
+  public ByteBuffer utf8() {
+    return ByteBuffer.wrap(utf8).asReadOnlyBuffer();
+  }
+
+  /**
+   * @return the number of bytes of the fragment encoded as UTF-8
+   */
+  public int utf8Length() {
+    return utf8.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    JsonFragment that = (JsonFragment) o;
+    return Arrays.equals(utf8, that.utf8);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(utf8);
+  }
+
+  @Override
+  public String toString() {
+    return "JsonFragment{value='" + value() + "'}";
+  }
+}
@@ -23,6 +23,22 @@ public class JsonNumber extends BaseToken {
     return value;
   }
 
+  /**
+   * @return the value as a primitive double, such as for aggregating numbers without boxing them
+   * @throws NumberFormatException if the value is not a number, which is only possible for lenient tokens
+   */
+  public double doubleValue() {
+    return Double.parseDouble(value);
+  }
+
+  /**
+   * @return the value as a primitive long
+   * @throws NumberFormatException if the value is not an integer that fits in a long
+   */
+  public long longValue() {
+    return Long.parseLong(value);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,88 @@
+package com.trunk.rx.json.token;
+
+/**
+ * The kinds of token produced by the parser, used where tokens are stored in compact form rather than as
+ * {@link JsonToken} instances.
+ */
+public enum JsonTokenType {
+  OBJECT_START,
+  OBJECT_END,
+  ARRAY_START,
+  ARRAY_END,
+  NAME,
+  STRING,
+  NUMBER,
+  BOOLEAN,
+  NULL,
+  RAW;
+
+  private static final JsonTokenType[] VALUES = values();
+
+  public static JsonTokenType of(JsonToken token) {
+    if (token.isObjectStart()) {
+      return OBJECT_START;
+    } else if (token.isObjectEnd()) {
+      return OBJECT_END;
+    } else if (token.isArrayStart()) {
+      return ARRAY_START;
+    } else if (token.isArrayEnd()) {
+      return ARRAY_END;
+    } else if (token.isName()) {
+      return NAME;
+    } else if (token.isString()) {
+      return STRING;
+    } else if (token.isNumber()) {
+      return NUMBER;
+    } else if (token.isBoolean()) {
+      return BOOLEAN;
+    } else if (token.isNull()) {
+      return NULL;
+    } else if (token instanceof JsonRaw || token instanceof JsonFragment) {
+      return RAW;
+    }
+    throw new IllegalArgumentException("Unsupported token " + token);
+  }
+
+  public static JsonTokenType fromOrdinal(int ordinal) {
+    return VALUES[ordinal];
+  }
+
+  /**
+   * @return true if tokens of this type carry text other than their fixed punctuation
+   */
+  public boolean hasText() {
+    return this == NAME || this == STRING || this == NUMBER || this == BOOLEAN || this == RAW;
+  }
+
+  /**
+   * Recreate a token of this type.
+   *
+   * @param text the token text, ignored for types without text
+   * @return the token
+   */
+  public JsonToken toToken(String text) {
+    switch (this) {
+      case OBJECT_START:
+        return JsonObject.start();
+      case OBJECT_END:
+        return JsonObject.end();
+      case ARRAY_START:
+        return JsonArray.start();
+      case ARRAY_END:
+        return JsonArray.end();
+      case NAME:
+        return JsonName.of(text);
+      case STRING:
+        return JsonString.of(text);
+      case NUMBER:
+        return JsonNumber.of(text);
+      case BOOLEAN:
+        return JsonBoolean.of(Boolean.parseBoolean(text));
+      case NULL:
+        return JsonNull.instance();
+      case RAW:
+        return JsonRaw.of(text);
+    }
+    throw new IllegalStateException("Unknown token type " + this);
+  }
+}
@@ -0,0 +1,51 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.path.JsonPath;
+
+/**
+ * An element matched by a path whose selection is only decided after the element has started, by a filter expression
+ * or by the elements that follow it in its array.
+ */
+final class Candidate {
+  private static final int UNDECIDED = 0;
+  private static final int ACCEPTED = 1;
+  private static final int REJECTED = 2;
+
+  private final JsonPath path;
+  private final boolean bounded;
+  private int state = UNDECIDED;
+
+  /**
+   * @param path    the path of the element
+   * @param bounded whether the number of undecided candidates is bounded by the path itself, rather than by the
+   *                filter buffer size
+   */
+  Candidate(JsonPath path, boolean bounded) {
+    this.path = path;
+    this.bounded = bounded;
+  }
+
+  JsonPath getPath() {
+    return path;
+  }
+
+  boolean isBounded() {
+    return bounded;
+  }
+
+  boolean isDecided() {
+    return state != UNDECIDED;
+  }
+
+  boolean isAccepted() {
+    return state == ACCEPTED;
+  }
+
+  boolean isRejected() {
+    return state == REJECTED;
+  }
+
+  void decide(boolean accepted) {
+    state = accepted ? ACCEPTED : REJECTED;
+  }
+}
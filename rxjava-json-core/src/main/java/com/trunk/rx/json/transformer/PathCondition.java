@@ -0,0 +1,33 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.JsonPath;
+
+import java.util.Optional;
+
+/**
+ * Decides, while streaming, which of the elements matched by a path are selected when that depends on tokens after
+ * the start of each element.
+ */
+interface PathCondition {
+
+  /**
+   * @return the condition of the path's filter expression or negative position, or empty if it has neither
+   */
+  static Optional<PathCondition> of(JsonPath path) {
+    Optional<PathCondition> filter = PathFilter.of(path).map(f -> f);
+    return filter.isPresent() ? filter : PathTail.of(path).map(t -> t);
+  }
+
+  void onToken(JsonTokenEvent tokenEvent);
+
+  /**
+   * @return the candidate containing the last token, or null if it was not within a candidate
+   */
+  Candidate current();
+
+  /**
+   * Reject any undecided candidates, such as when the stream ends.
+   */
+  void reject();
+}
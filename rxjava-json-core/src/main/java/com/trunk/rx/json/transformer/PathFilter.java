@@ -0,0 +1,115 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.FilterToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathMatcher;
+import com.trunk.rx.json.path.ObjectToken;
+import com.trunk.rx.json.token.JsonToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Evaluates the filter expression of a JsonPath against a stream of tokens. Each element matched by the path up to
+ * and including the filter is a candidate, which is decided as soon as the filtered field is parsed, or rejected when
+ * the element ends without it.
+ */
+class PathFilter implements PathCondition {
+
+  private final JsonPath path;
+  private final FilterToken filter;
+  private final JsonPathMatcher candidates;
+  private final int candidateLength;
+
+  private Candidate current = null;
+
+  /**
+   * @return a filter for the path, or empty if the path has no filter expression
+   */
+  static Optional<PathFilter> of(JsonPath path) {
+    List<JsonPath> tokens = new ArrayList<>();
+    Optional<JsonPath> p = Optional.of(path);
+    while (p.isPresent()) {
+      tokens.add(p.get());
+      if (p.get() instanceof FilterToken) {
+        return Optional.of(new PathFilter(path, (FilterToken) p.get(), JsonPath.from(tokens)));
+      }
+      p = p.get().getNextPathToken();
+    }
+    return Optional.empty();
+  }
+
+  private PathFilter(JsonPath path, FilterToken filter, JsonPath candidatePath) {
+    this.path = path;
+    this.filter = filter;
+    this.candidates = JsonPathMatcher.of(candidatePath);
+    this.candidateLength = candidatePath.length();
+  }
+
+  @Override
+  public Candidate current() {
+    return current;
+  }
+
+  @Override
+  public void onToken(JsonTokenEvent tokenEvent) {
+    JsonToken token = tokenEvent.getToken();
+    if (token.isDocumentEnd()) {
+      reject();
+      return;
+    }
+    JsonPath tokenPath = tokenEvent.getJsonPath();
+    Optional<JsonPath> candidate = candidates.matchedFragment(tokenPath);
+    if (current != null && (!candidate.isPresent() || !candidate.get().equals(current.getPath()))) {
+      reject();
+    }
+    if (!candidate.isPresent()) {
+      return;
+    }
+    if (current == null) {
+      current = new Candidate(candidate.get(), false);
+    }
+    if (current.isDecided()) {
+      return;
+    }
+
+    int length = tokenPath.length();
+    if (length == candidateLength) {
+      if (!token.isObjectStart() && !token.isArrayStart() && !token.isName()) {
+        // the candidate is a scalar or has ended without the field
+        current.decide(false);
+      }
+    } else if (length == candidateLength + 1 && isValue(token) && isField(tokenPath)) {
+      current.decide(filter.test(token));
+    }
+  }
+
+  @Override
+  public void reject() {
+    if (current != null) {
+      if (!current.isDecided()) {
+        current.decide(false);
+      }
+      current = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  private boolean isValue(JsonToken token) {
+    return !token.isName() && !token.isObjectEnd() && !token.isArrayEnd();
+  }
+
+  private boolean isField(JsonPath tokenPath) {
+    JsonPath last = tokenPath;
+    while (last.getNextPathToken().isPresent()) {
+      last = last.getNextPathToken().get();
+    }
+    return last instanceof ObjectToken && ((ObjectToken) last).getName().equals(filter.getField());
+  }
+}
@@ -0,0 +1,170 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.ArrayIndexToken;
+import com.trunk.rx.json.path.ArraySliceToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathMatcher;
+import com.trunk.rx.json.token.JsonToken;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Selects the elements at a negative position of a JsonPath, counted from the end of their array, from a stream of
+ * tokens. Each element of an array matched by the path up to and including that position is a candidate.
+ * <p>
+ * An array's length is only known once it ends, so only a window of the most recent undecided candidates is kept: a
+ * candidate is rejected as soon as too many elements follow it to be within <code>[-n:]</code>, accepted as soon as
+ * enough elements follow it to be within <code>[:-n]</code>, and otherwise decided when the array ends. The window
+ * holds at most <code>n</code> elements, however long the array.
+ */
+class PathTail implements PathCondition {
+
+  private final JsonPath path;
+  private final JsonPathMatcher candidates;
+  // as for ArraySliceToken, negative positions count from the end of the array
+  private final long start;
+  private final long end;
+
+  // the undecided elements of the current array, oldest first
+  private final ArrayDeque<Element> window = new ArrayDeque<>();
+  private JsonPath array = null;
+  private Element latest = null;
+  private Candidate current = null;
+
+  /**
+   * @return a tail for the path, or empty if the path has no negative position
+   */
+  static Optional<PathTail> of(JsonPath path) {
+    List<JsonPath> tokens = new ArrayList<>();
+    Optional<JsonPath> p = Optional.of(path);
+    while (p.isPresent()) {
+      tokens.add(p.get());
+      if (p.get().isTail()) {
+        return Optional.of(new PathTail(path, p.get(), JsonPath.from(tokens)));
+      }
+      p = p.get().getNextPathToken();
+    }
+    return Optional.empty();
+  }
+
+  private PathTail(JsonPath path, JsonPath tail, JsonPath candidatePath) {
+    this.path = path;
+    this.candidates = JsonPathMatcher.of(candidatePath);
+    if (tail instanceof ArrayIndexToken) {
+      int index = ((ArrayIndexToken) tail).getIndex();
+      this.start = index;
+      this.end = index == -1 ? Long.MAX_VALUE : index + 1;
+    } else {
+      this.start = ((ArraySliceToken) tail).getStart();
+      this.end = ((ArraySliceToken) tail).getEnd();
+    }
+  }
+
+  @Override
+  public Candidate current() {
+    return current;
+  }
+
+  @Override
+  public void onToken(JsonTokenEvent tokenEvent) {
+    JsonToken token = tokenEvent.getToken();
+    if (token.isDocumentEnd()) {
+      reject();
+      return;
+    }
+    JsonPath tokenPath = tokenEvent.getJsonPath();
+    if (array != null && token.isArrayEnd() && tokenPath.equals(array)) {
+      close();
+      return;
+    }
+    Optional<JsonPath> candidate = candidates.matchedFragment(tokenPath);
+    if (!candidate.isPresent()) {
+      current = null;
+      return;
+    }
+    if (latest == null || !candidate.get().equals(latest.candidate.getPath())) {
+      startElement(candidate.get());
+    }
+    current = latest.candidate;
+  }
+
+  @Override
+  public void reject() {
+    for (Element element : window) {
+      element.candidate.decide(false);
+    }
+    window.clear();
+    array = null;
+    latest = null;
+    current = null;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  private void startElement(JsonPath elementPath) {
+    List<JsonPath> fragments = new ArrayList<>();
+    Optional<JsonPath> p = Optional.of(elementPath);
+    while (p.get().getNextPathToken().isPresent()) {
+      fragments.add(p.get());
+      p = p.get().getNextPathToken();
+    }
+    int index = ((ArrayIndexToken) p.get()).getIndex();
+    if (index == 0 || array == null) {
+      // elements are parsed in order, so the first element starts a new array
+      close();
+      array = JsonPath.from(fragments);
+    }
+
+    // earlier elements may be decided by the number of elements that follow them
+    while (!window.isEmpty()) {
+      Element oldest = window.peek();
+      long following = index - oldest.index;
+      if (start < 0 && following >= -start) {
+        oldest.candidate.decide(false);
+      } else if (start >= 0 && end < 0 && following >= -end) {
+        oldest.candidate.decide(true);
+      } else {
+        break;
+      }
+      window.poll();
+    }
+
+    latest = new Element(index, new Candidate(elementPath, true));
+    if ((start >= 0 && index < start) || (end >= 0 && index >= end)) {
+      latest.candidate.decide(false);
+    } else {
+      window.add(latest);
+    }
+  }
+
+  private void close() {
+    if (latest != null) {
+      int length = latest.index + 1;
+      for (Element element : window) {
+        long following = length - 1 - element.index;
+        element.candidate.decide((start >= 0 || following < -start) && (end >= 0 || following >= -end));
+      }
+    }
+    window.clear();
+    array = null;
+    latest = null;
+    current = null;
+  }
+
+  private static final class Element {
+    final int index;
+    final Candidate candidate;
+
+    Element(int index, Candidate candidate) {
+      this.index = index;
+      this.candidate = candidate;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.aggregate.Aggregator;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.functions.Func0;
+
+/**
+ * Aggregates the scalar values matched by the paths of a TransformerRxJson, emitting the aggregate once the stream
+ * has been parsed and, optionally, a snapshot after every given number of values.
+ */
+public class TransformerAggregate<T> implements Observable.Transformer<String, T> {
+  private final TransformerRxJson transformerRxJson;
+  private final Func0<? extends Aggregator<T>> aggregatorFactory;
+  private final long snapshotInterval;
+
+  /**
+   * @param aggregatorFactory creates the aggregator for each subscription
+   * @param snapshotInterval  the number of values between snapshots, or 0 to only emit the final aggregate
+   */
+  public TransformerAggregate(TransformerRxJson transformerRxJson, Func0<? extends Aggregator<T>> aggregatorFactory, long snapshotInterval) {
+    if (snapshotInterval < 0) {
+      throw new IllegalArgumentException("Snapshot interval must not be negative");
+    }
+    this.transformerRxJson = transformerRxJson;
+    this.aggregatorFactory = aggregatorFactory;
+    this.snapshotInterval = snapshotInterval;
+  }
+
+  @Override
+  public Observable<T> call(Observable<String> upstream) {
+    return Observable.defer(() -> {
+      Aggregator<T> aggregator = aggregatorFactory.call();
+      long[] count = {0};
+      return upstream.compose(transformerRxJson)
+        .filter(this::isMatchedValue)
+        .concatMap(pathEvent -> {
+          aggregator.add(pathEvent.getTokenEvent().getToken());
+          return snapshotInterval > 0 && ++count[0] % snapshotInterval == 0 ?
+            Observable.just(aggregator.result()) :
+            Observable.<T>empty();
+        })
+        .concatWith(Observable.defer(() -> Observable.just(aggregator.result())));
+    });
+  }
+
+  private boolean isMatchedValue(JsonPathEvent pathEvent) {
+    JsonToken token = pathEvent.getTokenEvent().getToken();
+    // only a scalar value that is itself matched, not the values within a matched object or array
+    return (token.isString() || token.isNumber() || token.isBoolean() || token.isNull()) &&
+      pathEvent.getMatchedPathFragment().length() == pathEvent.getTokenEvent().getJsonPath().length();
+  }
+}
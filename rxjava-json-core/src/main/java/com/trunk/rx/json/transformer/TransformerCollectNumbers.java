@@ -0,0 +1,129 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonNumberChunk;
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.function.IntFunction;
+
+/**
+ * Collects the elements of matched numeric arrays into primitive buffers, emitted in chunks of a fixed size as the
+ * array is parsed, so very long arrays are never held in memory and no object is created per element downstream.
+ * Matched values that are not arrays are ignored.
+ */
+public class TransformerCollectNumbers<B extends Buffer> implements Observable.Transformer<String, JsonNumberChunk<B>> {
+  private final TransformerRxJson transformerRxJson;
+  private final int chunkSize;
+  private final IntFunction<B> allocator;
+  private final Put<B> put;
+
+  /**
+   * @param direct whether to allocate the buffers outside of the heap
+   * @return a transformer collecting numbers into DoubleBuffers, where null elements are NaN
+   */
+  public static TransformerCollectNumbers<DoubleBuffer> doubles(TransformerRxJson transformerRxJson, int chunkSize, boolean direct) {
+    return new TransformerCollectNumbers<>(
+      transformerRxJson,
+      chunkSize,
+      direct ? size -> direct(size, Double.BYTES).asDoubleBuffer() : DoubleBuffer::allocate,
+      (buffer, token) -> buffer.put(token.isNull() ? Double.NaN : ((JsonNumber) token).doubleValue())
+    );
+  }
+
+  /**
+   * @param direct whether to allocate the buffers outside of the heap
+   * @return a transformer collecting integers into LongBuffers, where any other element fails the stream
+   */
+  public static TransformerCollectNumbers<LongBuffer> longs(TransformerRxJson transformerRxJson, int chunkSize, boolean direct) {
+    return new TransformerCollectNumbers<>(
+      transformerRxJson,
+      chunkSize,
+      direct ? size -> direct(size, Long.BYTES).asLongBuffer() : LongBuffer::allocate,
+      (buffer, token) -> buffer.put(((JsonNumber) token).longValue())
+    );
+  }
+
+  private TransformerCollectNumbers(TransformerRxJson transformerRxJson, int chunkSize, IntFunction<B> allocator, Put<B> put) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.transformerRxJson = transformerRxJson;
+    this.chunkSize = chunkSize;
+    this.allocator = allocator;
+    this.put = put;
+  }
+
+  @Override
+  public Observable<JsonNumberChunk<B>> call(Observable<String> upstream) {
+    return Observable.defer(() -> {
+      // the array being collected, per subscription
+      Chunker chunker = new Chunker();
+      return upstream.compose(transformerRxJson)
+        .concatMap(chunker::onPathEvent);
+    });
+  }
+
+  private static ByteBuffer direct(int size, int bytes) {
+    return ByteBuffer.allocateDirect(size * bytes).order(ByteOrder.nativeOrder());
+  }
+
+  private interface Put<B> {
+    void put(B buffer, JsonToken token);
+  }
+
+  private class Chunker {
+    private JsonPath array = null;
+    private long offset = 0;
+    private B buffer = null;
+
+    Observable<JsonNumberChunk<B>> onPathEvent(JsonPathEvent pathEvent) {
+      JsonToken token = pathEvent.getTokenEvent().getToken();
+      JsonPath matchedPath = pathEvent.getMatchedPathFragment();
+      int depth = pathEvent.getTokenEvent().getJsonPath().length() - matchedPath.length();
+      if (depth == 0) {
+        if (token.isArrayStart()) {
+          array = matchedPath;
+          offset = 0;
+          buffer = allocator.apply(chunkSize);
+        } else if (token.isArrayEnd() && array != null) {
+          JsonNumberChunk<B> chunk = chunk(true);
+          array = null;
+          buffer = null;
+          return Observable.just(chunk);
+        }
+        return Observable.empty();
+      }
+      if (depth != 1 || array == null) {
+        return Observable.empty();
+      }
+      if (!token.isNumber() && !token.isNull()) {
+        return Observable.error(new IllegalStateException("Expected a number at " + pathEvent.getTokenEvent().getJsonPath() + " but found " + token));
+      }
+      try {
+        put.put(buffer, token);
+      } catch (RuntimeException e) {
+        return Observable.error(new IllegalStateException("Cannot collect " + token + " at " + pathEvent.getTokenEvent().getJsonPath(), e));
+      }
+      if (buffer.hasRemaining()) {
+        return Observable.empty();
+      }
+      JsonNumberChunk<B> chunk = chunk(false);
+      offset += chunkSize;
+      buffer = allocator.apply(chunkSize);
+      return Observable.just(chunk);
+    }
+
+    private JsonNumberChunk<B> chunk(boolean last) {
+      buffer.flip();
+      return new JsonNumberChunk<>(array, offset, buffer, last);
+    }
+  }
+}
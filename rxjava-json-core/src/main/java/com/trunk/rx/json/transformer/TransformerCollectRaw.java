@@ -0,0 +1,24 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonRawEvent;
+import com.trunk.rx.json.token.JsonRaw;
+import rx.Observable;
+
+public class TransformerCollectRaw implements Observable.Transformer<String, JsonRawEvent> {
+  private final TransformerRxJson transformerRxJson;
+
+  /**
+   * @param transformerRxJson a TransformerRxJson whose parser captures the matched paths
+   */
+  public TransformerCollectRaw(TransformerRxJson transformerRxJson) {
+    this.transformerRxJson = transformerRxJson;
+  }
+
+  @Override
+  public Observable<JsonRawEvent> call(Observable<String> upstream) {
+    return upstream.compose(transformerRxJson)
+      // names of matched object members are still emitted as tokens
+      .filter(pathEvent -> pathEvent.getTokenEvent().getToken() instanceof JsonRaw)
+      .map(pathEvent -> new JsonRawEvent(pathEvent.getMatchedPathFragment(), pathEvent.getTokenEvent().getToken().value()));
+  }
+}
@@ -0,0 +1,19 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonTokenTape;
+import com.trunk.rx.json.operator.OperatorCollectTapes;
+import rx.Observable;
+
+public class TransformerCollectTapes implements Observable.Transformer<String, JsonTokenTape> {
+  private final TransformerRxJson transformerRxJson;
+
+  public TransformerCollectTapes(TransformerRxJson transformerRxJson) {
+    this.transformerRxJson = transformerRxJson;
+  }
+
+  @Override
+  public Observable<JsonTokenTape> call(Observable<String> upstream) {
+    return upstream.compose(transformerRxJson)
+      .lift(new OperatorCollectTapes());
+  }
+}
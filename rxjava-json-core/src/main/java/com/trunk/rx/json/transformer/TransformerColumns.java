@@ -0,0 +1,117 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.column.ColumnBatch;
+import com.trunk.rx.json.column.ColumnSpec;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+
+import java.util.Optional;
+
+/**
+ * Extracts the fields of a ColumnSpec from each matched object into the typed columns of a ColumnBatch, straight from
+ * the tokens, emitting a batch once it holds the given number of rows and the last batch when the stream ends.
+ * Matched values that are not objects are ignored.
+ */
+public class TransformerColumns implements Observable.Transformer<String, ColumnBatch> {
+  private final TransformerRxJson transformerRxJson;
+  private final ColumnSpec spec;
+  private final int batchSize;
+
+  public TransformerColumns(TransformerRxJson transformerRxJson, ColumnSpec spec, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (spec.size() == 0) {
+      throw new IllegalArgumentException("Column spec must have a column");
+    }
+    this.transformerRxJson = transformerRxJson;
+    this.spec = spec;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public Observable<ColumnBatch> call(Observable<String> upstream) {
+    return Observable.defer(() -> {
+      // the batch being filled, per subscription
+      Batcher batcher = new Batcher();
+      return upstream.compose(transformerRxJson)
+        .concatMap(batcher::onPathEvent)
+        .concatWith(Observable.defer(batcher::last));
+    });
+  }
+
+  private class Batcher {
+    private ColumnBatch.Builder builder = ColumnBatch.builder(spec, batchSize);
+    private boolean inRow = false;
+
+    Observable<ColumnBatch> onPathEvent(JsonPathEvent pathEvent) {
+      JsonToken token = pathEvent.getTokenEvent().getToken();
+      JsonPath tokenPath = pathEvent.getTokenEvent().getJsonPath();
+      int rowLength = pathEvent.getMatchedPathFragment().length();
+      if (tokenPath.length() == rowLength) {
+        if (token.isObjectStart()) {
+          inRow = true;
+        } else if (token.isObjectEnd() && inRow) {
+          inRow = false;
+          builder.endRow();
+          if (builder.isFull()) {
+            ColumnBatch batch = builder.build();
+            builder = ColumnBatch.builder(spec, batchSize);
+            return Observable.just(batch);
+          }
+        }
+        return Observable.empty();
+      }
+      if (!inRow) {
+        return Observable.empty();
+      }
+      int column = column(tokenPath, rowLength);
+      if (column < 0 || token.isArrayEnd() || token.isObjectEnd()) {
+        return Observable.empty();
+      }
+      if (token.isArrayStart() || token.isObjectStart()) {
+        return Observable.error(new IllegalStateException("Column '" + spec.getName(column) + "' at " + tokenPath + " is not a scalar value"));
+      }
+      try {
+        builder.set(column, token);
+      } catch (IllegalArgumentException e) {
+        return Observable.error(new IllegalStateException("Cannot extract " + token + " at " + tokenPath, e));
+      }
+      return Observable.empty();
+    }
+
+    Observable<ColumnBatch> last() {
+      return builder.getRowCount() == 0 ? Observable.empty() : Observable.just(builder.build());
+    }
+
+    /**
+     * @return the column whose field is at the token path relative to the row, or -1 if there is none
+     */
+    private int column(JsonPath tokenPath, int rowLength) {
+      int fieldLength = tokenPath.length() - rowLength;
+      Optional<JsonPath> field = Optional.of(tokenPath);
+      for (int j = 0; j < rowLength; ++j) {
+        field = field.flatMap(JsonPath::getNextPathToken);
+      }
+      for (int i = 0; i < spec.size(); ++i) {
+        // the column's path starts with a root token standing for the row
+        JsonPath columnPath = spec.getPath(i);
+        if (columnPath.length() - 1 != fieldLength) {
+          continue;
+        }
+        Optional<JsonPath> t = field;
+        Optional<JsonPath> c = columnPath.getNextPathToken();
+        while (c.isPresent() && t.isPresent() && c.get().tokenEquals(t.get())) {
+          c = c.get().getNextPathToken();
+          t = t.get().getNextPathToken();
+        }
+        if (!c.isPresent()) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.JsonDigest;
+import rx.Observable;
+import rx.subjects.AsyncSubject;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Passes chunks of UTF-8 JSON through unchanged, digesting them as they stream, so the digest of a response, such as
+ * its ETag, is available once it has been sent, for example as an HTTP trailer, without holding the whole response.
+ * <p>
+ * A transformer digests a single stream of chunks. The digest is emitted by {@link #getDigest()} before the chunks
+ * complete. If they are unsubscribed from before they complete the digest is a CancellationException instead.
+ */
+public class TransformerDigestBytes implements Observable.Transformer<JsonBytes, JsonBytes> {
+
+  private final String algorithm;
+  private final AtomicBoolean subscribed = new AtomicBoolean(false);
+  private final AsyncSubject<JsonDigest> digest = AsyncSubject.create();
+
+  /**
+   * @param algorithm the name of a MessageDigest algorithm, such as SHA-256
+   * @throws IllegalArgumentException if the algorithm is not available
+   */
+  public static TransformerDigestBytes of(String algorithm) {
+    return new TransformerDigestBytes(requireAlgorithm(algorithm));
+  }
+
+  private TransformerDigestBytes(String algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  /**
+   * @return an Observable of the digest of the chunks, emitted once they complete, or their error, or a
+   * CancellationException if they are unsubscribed from before they complete
+   */
+  public Observable<JsonDigest> getDigest() {
+    return digest.asObservable();
+  }
+
+  @Override
+  public Observable<JsonBytes> call(Observable<JsonBytes> upstream) {
+    return Observable.defer(() -> {
+      if (!subscribed.compareAndSet(false, true)) {
+        return Observable.error(new IllegalStateException("A digest can only be of a single stream of chunks"));
+      }
+      Digester digester = new Digester(algorithm);
+      AtomicBoolean terminated = new AtomicBoolean(false);
+      return upstream
+        // before the chunk is written and released
+        .doOnNext(digester::update)
+        .doOnCompleted(() -> {
+          terminated.set(true);
+          digest.onNext(digester.digest());
+          digest.onCompleted();
+        })
+        .doOnError(e -> {
+          terminated.set(true);
+          digest.onError(e);
+        })
+        .doOnUnsubscribe(() -> {
+          if (terminated.compareAndSet(false, true)) {
+            digest.onError(new CancellationException("The chunks were unsubscribed from before they completed"));
+          }
+        });
+    });
+  }
+
+  static String requireAlgorithm(String algorithm) {
+    newMessageDigest(algorithm);
+    return algorithm;
+  }
+
+  private static MessageDigest newMessageDigest(String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException("Unknown digest algorithm " + algorithm, e);
+    }
+  }
+
+  /**
+   * A running digest of chunks, which reads a chunk without changing its position.
+   */
+  static final class Digester {
+    private final String algorithm;
+    private final MessageDigest digest;
+    private long byteCount = 0;
+
+    Digester(String algorithm) {
+      this.algorithm = algorithm;
+      this.digest = newMessageDigest(algorithm);
+    }
+
+    void update(JsonBytes chunk) {
+      ByteBuffer buffer = chunk.getBuffer().duplicate();
+      byteCount += buffer.remaining();
+      digest.update(buffer);
+    }
+
+    JsonDigest digest() {
+      return new JsonDigest(algorithm, digest.digest(), byteCount);
+    }
+  }
+}
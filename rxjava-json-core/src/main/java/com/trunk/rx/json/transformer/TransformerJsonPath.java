@@ -3,22 +3,29 @@ package com.trunk.rx.json.transformer;
 import com.trunk.rx.json.JsonPathEvent;
 import com.trunk.rx.json.JsonTokenEvent;
 import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.JsonPathMatcher;
 import com.trunk.rx.json.path.NoopToken;
 import com.trunk.rx.json.token.JsonDocumentEnd;
 import rx.Observable;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class TransformerJsonPath implements Observable.Transformer<JsonTokenEvent, JsonPathEvent> {
 
+  public static final int DEFAULT_FILTER_BUFFER_SIZE = 1024;
+
   private final Collection<JsonPath> matchers;
   private final boolean lenient;
+  private final boolean nested;
+  private final int filterBufferSize;
 
   public static TransformerJsonPath from(String... paths) {
     return from(Arrays.stream(paths).map(s -> JsonPath.parse(s)).collect(Collectors.toList()));
@@ -36,25 +43,43 @@ public class TransformerJsonPath implements Observable.Transformer<JsonTokenEven
   }
 
   public TransformerJsonPath(Collection<JsonPath> matchers, boolean lenient) {
+    this(matchers, lenient, false);
+  }
+
+  public TransformerJsonPath(Collection<JsonPath> matchers, boolean lenient, boolean nested) {
+    this(matchers, lenient, nested, DEFAULT_FILTER_BUFFER_SIZE);
+  }
+
+  public TransformerJsonPath(Collection<JsonPath> matchers, boolean lenient, boolean nested, int filterBufferSize) {
+    if (filterBufferSize < 1) {
+      throw new IllegalArgumentException("Filter buffer size must be positive");
+    }
     this.lenient = lenient;
     this.matchers =  matchers;
+    this.nested = nested;
+    this.filterBufferSize = filterBufferSize;
   }
 
 
   @Override
   public Observable<JsonPathEvent> call(Observable<JsonTokenEvent> upstream) {
-    ConcurrentHashMap<JsonPath, Integer> visitedMatchers = new ConcurrentHashMap<>();
-    ConcurrentHashMap<JsonPath, Integer> completedMatchers = new ConcurrentHashMap<>();
-    matchers.forEach(jsonPath -> {
-      visitedMatchers.put(jsonPath, 0);
-      completedMatchers.put(jsonPath, 0);
-    });
+    // matchers carry state from token to token, so each subscription has its own
+    List<JsonPathMatcher> pathMatchers = matchers.stream().map(JsonPathMatcher::of).collect(Collectors.toList());
+    MatcherState state = new MatcherState(pathMatchers);
+
+    if (matchers.stream().anyMatch(p -> p.hasFilter() || p.hasTail())) {
+      DeferredMatches deferredMatches = new DeferredMatches(pathMatchers, state);
+      return upstream
+        .takeUntil(ignore -> !lenient && state.isComplete())
+        .concatMap(jsonTokenEvent -> Observable.from(deferredMatches.onToken(jsonTokenEvent)))
+        .concatWith(Observable.defer(() -> Observable.from(deferredMatches.flush())));
+    }
 
     return upstream
-      .takeUntil(ignore -> !lenient && allMatchersComplete(visitedMatchers, completedMatchers))
+      .takeUntil(ignore -> !lenient && state.isComplete())
       .concatMap( // order is important
         jsonTokenEvent ->
-          matches(jsonTokenEvent, visitedMatchers, completedMatchers)
+          matches(jsonTokenEvent, pathMatchers, state)
             .concatWith(
               jsonTokenEvent.getToken() == JsonDocumentEnd.instance() ?
                 Observable.just(new JsonPathEvent(NoopToken.instance(), jsonTokenEvent)) :
@@ -63,45 +88,98 @@ public class TransformerJsonPath implements Observable.Transformer<JsonTokenEven
       );
   }
 
+  public Collection<JsonPath> getMatchers() {
+    return matchers;
+  }
+
+  /**
+   * @return true if any of the paths has a filter expression
+   */
+  public boolean hasFilters() {
+    return matchers.stream().anyMatch(JsonPath::hasFilter);
+  }
+
   public TransformerJsonPath strict() {
-    return new TransformerJsonPath(matchers, false);
+    return new TransformerJsonPath(matchers, false, nested, filterBufferSize);
   }
 
-  private boolean allMatchersComplete(Map<JsonPath, Integer> visitedMatchers, Map<JsonPath, Integer> completedMatchers) {
-    for (Entry<JsonPath, Integer> p : visitedMatchers.entrySet()) {
-      if (p.getValue() == 0 || completedMatchers.get(p.getKey()) == 0) {
-        return false;
+  public TransformerJsonPath lenient() {
+    return new TransformerJsonPath(matchers, true, nested, filterBufferSize);
+  }
+
+  /**
+   * By default a token is only emitted for the shortest path it matches. In nested mode a token is emitted once for
+   * every distinct path it matches, shortest first, so objects nested within other matched objects can be extracted
+   * in the same pass.
+   *
+   * @return a new TransformerJsonPath that emits all matches of each token
+   */
+  public TransformerJsonPath nested() {
+    return new TransformerJsonPath(matchers, lenient, true, filterBufferSize);
+  }
+
+  /**
+   * Tokens matched by a path with a filter expression are held until the filter is decided by the element's field.
+   * This sets how many tokens may be held before the stream fails, by default {@link #DEFAULT_FILTER_BUFFER_SIZE}.
+   * Elements held for a negative array position are bounded by the position instead.
+   *
+   * @return a new TransformerJsonPath that holds at most the given number of undecided tokens
+   */
+  public TransformerJsonPath filterBufferSize(int filterBufferSize) {
+    return new TransformerJsonPath(matchers, lenient, nested, filterBufferSize);
+  }
+
+  private Observable<JsonPathEvent> matches(JsonTokenEvent jsonTokenEvent, List<JsonPathMatcher> pathMatchers, MatcherState state) {
+    // matched imperatively, as this runs for every token and every matcher
+    List<JsonPath> matchedPaths = null;
+    JsonPath shortestMatchedPath = NoopToken.instance();
+    for (int i = 0; i < pathMatchers.size(); ++i) {
+      Optional<JsonPath> matched = pathMatchers.get(i).matchedFragment(jsonTokenEvent.getJsonPath());
+      if (!matched.isPresent()) {
+        continue;
+      }
+      // mark visited matches (ie gave any result)
+      if (!lenient) {
+        state.visit(i);
+      }
+      if (nested) {
+        matchedPaths = matchedPaths == null ? new ArrayList<>(1) : matchedPaths;
+        matchedPaths.add(matched.get());
+      } else if (matched.get().length() < shortestMatchedPath.length()) {
+        shortestMatchedPath = matched.get();
       }
     }
-    return true;
+    if (shortestMatchedPath == NoopToken.instance() && matchedPaths == null) {
+      markCompletedMatchers(jsonTokenEvent, state);
+    }
+    if (nested && matchedPaths != null) {
+      matchedPaths.sort((a, b) -> Integer.compare(a.length(), b.length()));
+      return Observable.from(distinct(matchedPaths))
+        .map(matchedPath -> new JsonPathEvent(matchedPath, jsonTokenEvent));
+    }
+    // a token without a match still waits for demand, so the next token is only parsed once it is requested
+    return Observable.just(shortestMatchedPath)
+      .filter(t -> t != NoopToken.instance())
+      .map(t -> new JsonPathEvent(t, jsonTokenEvent));
   }
 
-  public TransformerJsonPath lenient() {
-    return new TransformerJsonPath(matchers, true);
+
+  private void markCompletedMatchers(JsonTokenEvent jsonTokenEvent, MatcherState state) {
+    // if we got no result, any visited matchers are complete
+    if (!lenient) {
+      state.completeVisited(jsonTokenEvent.getJsonPath());
+    }
   }
 
-  private Observable<JsonPathEvent> matches(JsonTokenEvent jsonTokenEvent, Map<JsonPath, Integer> visitedMatchers, Map<JsonPath, Integer> completedMatchers) {
-    return Observable.from(matchers)
-      .flatMap(matcher -> matcher.match(jsonTokenEvent.getJsonPath()).map(matched -> new MatchWrapper(matcher, matched)))
-      .doOnNext(wrapper -> {
-        // mark visited matches (ie gave any result)
-        if (!lenient) {
-          visitedMatchers.put(wrapper.matcher, 1);
-        }
-      })
-      .map(wrapper -> wrapper.matched)
-      .reduce(NoopToken.instance(), (matchedPath, acc) -> matchedPath.length() < acc.length() ? matchedPath : acc)
-      .doOnNext(t -> {
-        // if we got no result, any visited matchers are complete
-        if (!lenient && t == NoopToken.instance()) {
-          visitedMatchers.entrySet().stream()
-            .filter(p -> p.getValue() == 1)
-            .filter(p -> !matchesNonWildcardRoot(p.getKey(), jsonTokenEvent.getJsonPath()))
-            .forEach(p -> completedMatchers.put(p.getKey(), 1));
-        }
-      })
-      .filter(t -> t != NoopToken.instance())
-      .map(shortestMatchedPath -> new JsonPathEvent(shortestMatchedPath, jsonTokenEvent));
+  private List<JsonPath> distinct(List<JsonPath> sortedPaths) {
+    // matched paths are prefixes of the token's path, so paths of the same length are equal
+    List<JsonPath> result = new ArrayList<>(sortedPaths.size());
+    for (JsonPath path : sortedPaths) {
+      if (result.isEmpty() || result.get(result.size() - 1).length() != path.length()) {
+        result.add(path);
+      }
+    }
+    return result;
   }
 
   private boolean matchesNonWildcardRoot(JsonPath matcherPath, JsonPath tokenPath) {
@@ -122,13 +200,192 @@ public class TransformerJsonPath implements Observable.Transformer<JsonTokenEven
       (!m.isPresent() && !t.isPresent());
   }
 
-  private class MatchWrapper {
-    final JsonPath matcher;
-    final JsonPath matched;
+  /**
+   * Matches tokens for paths with filter expressions or negative array positions. A token matched within an element
+   * that is undecided is held, along with every later token to keep them in order, until the element is decided.
+   * Tokens within a rejected element are not held, though they are still parsed and matched, and the held tokens of an
+   * element are dropped as soon as it is rejected.
+   */
+  private class DeferredMatches {
+    private final List<JsonPathMatcher> pathMatchers;
+    private final PathCondition[] conditions;
+    private final MatcherState state;
+    private final ArrayDeque<PendingMatches> pending = new ArrayDeque<>();
+
+    DeferredMatches(List<JsonPathMatcher> pathMatchers, MatcherState state) {
+      this.pathMatchers = pathMatchers;
+      this.conditions = pathMatchers.stream()
+        .map(m -> PathCondition.of(m.getPath()).orElse(null))
+        .toArray(PathCondition[]::new);
+      this.state = state;
+    }
+
+    List<JsonPathEvent> onToken(JsonTokenEvent jsonTokenEvent) {
+      for (PathCondition condition : conditions) {
+        if (condition != null) {
+          condition.onToken(jsonTokenEvent);
+        }
+      }
+
+      PendingMatches matches = null;
+      boolean matched = false;
+      for (int i = 0; i < conditions.length; ++i) {
+        JsonPathMatcher matcher = pathMatchers.get(i);
+        Optional<JsonPath> matchedPath = matcher.matchedFragment(jsonTokenEvent.getJsonPath());
+        if (!matchedPath.isPresent()) {
+          continue;
+        }
+        matched = true;
+        if (!lenient) {
+          state.visit(i);
+        }
+        Candidate candidate = conditions[i] == null ? null : conditions[i].current();
+        if (candidate != null && candidate.isRejected()) {
+          continue;
+        }
+        if (matches == null) {
+          matches = new PendingMatches(jsonTokenEvent);
+        }
+        matches.add(matchedPath.get(), candidate);
+      }
+      if (!matched) {
+        markCompletedMatchers(jsonTokenEvent, state);
+      }
+      if (matches != null) {
+        pending.add(matches);
+      }
+
+      List<JsonPathEvent> result = drain();
+      if (jsonTokenEvent.getToken() == JsonDocumentEnd.instance()) {
+        result = result.isEmpty() ? new ArrayList<>(1) : result;
+        result.add(new JsonPathEvent(NoopToken.instance(), jsonTokenEvent));
+      } else if (pending.size() > filterBufferSize && !pending.peek().isBounded()) {
+        throw new IllegalStateException(
+          "More than " + filterBufferSize + " tokens were matched before the filter was decided at " + jsonTokenEvent.getJsonPath()
+        );
+      }
+      return result;
+    }
+
+    /**
+     * @return the remaining matches once the stream has ended, rejecting any undecided elements
+     */
+    List<JsonPathEvent> flush() {
+      for (PathCondition condition : conditions) {
+        if (condition != null) {
+          condition.reject();
+        }
+      }
+      return drain();
+    }
+
+    private List<JsonPathEvent> drain() {
+      List<JsonPathEvent> result = Collections.emptyList();
+      while (!pending.isEmpty() && pending.peek().isDecided()) {
+        PendingMatches matches = pending.poll();
+        for (JsonPath matchedPath : matches.accepted()) {
+          if (result.isEmpty()) {
+            result = new ArrayList<>();
+          }
+          result.add(new JsonPathEvent(matchedPath, matches.tokenEvent));
+        }
+      }
+      return result;
+    }
+  }
+
+  private class PendingMatches {
+    final JsonTokenEvent tokenEvent;
+    final List<JsonPath> matchedPaths = new ArrayList<>(1);
+    final List<Candidate> candidates = new ArrayList<>(1);
+
+    PendingMatches(JsonTokenEvent tokenEvent) {
+      this.tokenEvent = tokenEvent;
+    }
+
+    void add(JsonPath matchedPath, Candidate candidate) {
+      matchedPaths.add(matchedPath);
+      candidates.add(candidate);
+    }
+
+    boolean isDecided() {
+      for (Candidate candidate : candidates) {
+        if (candidate != null && !candidate.isDecided()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return true if every undecided candidate is held in a window bounded by its path
+     */
+    boolean isBounded() {
+      for (Candidate candidate : candidates) {
+        if (candidate != null && !candidate.isDecided() && !candidate.isBounded()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return the matched paths to emit, as for paths without filters or negative positions
+     */
+    List<JsonPath> accepted() {
+      List<JsonPath> accepted = new ArrayList<>(matchedPaths.size());
+      for (int i = 0; i < matchedPaths.size(); ++i) {
+        if (candidates.get(i) == null || candidates.get(i).isAccepted()) {
+          accepted.add(matchedPaths.get(i));
+        }
+      }
+      accepted.sort((a, b) -> Integer.compare(a.length(), b.length()));
+      if (nested) {
+        return distinct(accepted);
+      }
+      return accepted.isEmpty() ? accepted : accepted.subList(0, 1);
+    }
+  }
+
+  /**
+   * Tracks, for a single subscription in strict mode, which matchers have matched a token and which have since
+   * completed, by the matcher's position. The stream completes once every matcher has completed, which is counted as
+   * matchers complete rather than checked by visiting every matcher on each token.
+   */
+  private class MatcherState {
+    private final JsonPath[] paths;
+    // matchers that have matched a token but not yet completed
+    private final BitSet open;
+    private final BitSet completed;
+    private int completedCount = 0;
+
+    MatcherState(List<JsonPathMatcher> pathMatchers) {
+      this.paths = pathMatchers.stream().map(JsonPathMatcher::getPath).toArray(JsonPath[]::new);
+      this.open = new BitSet(paths.length);
+      this.completed = new BitSet(paths.length);
+    }
+
+    void visit(int matcher) {
+      if (!completed.get(matcher)) {
+        open.set(matcher);
+      }
+    }
+
+    /**
+     * Complete the visited matchers that can no longer match a token after the given token path.
+     */
+    void completeVisited(JsonPath tokenPath) {
+      for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1)) {
+        if (!matchesNonWildcardRoot(paths[i], tokenPath)) {
+          open.clear(i);
+          completed.set(i);
+          ++completedCount;
+        }
+      }
+    }
 
-    private MatchWrapper(JsonPath matcher, JsonPath matched) {
-      this.matcher = matcher;
-      this.matched = matched;
+    boolean isComplete() {
+      return completedCount == paths.length;
     }
   }
 }
@@ -0,0 +1,521 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.element.JsonElement;
+import com.trunk.rx.json.token.JsonEscaper;
+import com.trunk.rx.json.token.JsonFragment;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Func0;
+import rx.internal.operators.BackpressureUtils;
+import rx.subscriptions.Subscriptions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts JsonTokens to JSON like {@link TransformerJsonTokenToString}, but coalesces the JSON into chunks of about a
+ * target size rather than emitting a String per token. A chunk is emitted once it is full, when the tokens end, and,
+ * if a maximum latency is given, when its first token has waited that long, so slow sources still stream promptly.
+ * <p>
+ * Requests are counted in chunks. Tokens are requested from upstream in batches, only while chunks are requested.
+ * <p>
+ * If the upstream is a JsonElement whose tokens are known, it is not subscribed to. Its tokens are written as chunks
+ * are requested, by walking them synchronously.
+ */
+public class TransformerJsonTokenToChunks<T> implements Observable.Transformer<JsonToken, T> {
+
+  static final int TOKEN_BATCH_SIZE = 128;
+
+  private final Func0<? extends ChunkWriter<T>> writerFactory;
+  private final long maxLatency;
+  private final TimeUnit unit;
+  private final Scheduler scheduler;
+
+  /**
+   * @param chunkSize  the target number of characters of a chunk
+   * @param maxLatency the longest a token waits before its chunk is emitted, or 0 to wait until the chunk is full
+   * @param scheduler  the scheduler of the latency timer
+   * @return a transformer emitting chunks of JSON as Strings
+   */
+  public static TransformerJsonTokenToChunks<String> strings(int chunkSize, long maxLatency, TimeUnit unit, Scheduler scheduler) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    return new TransformerJsonTokenToChunks<>(() -> new StringWriter(chunkSize), maxLatency, unit, scheduler);
+  }
+
+  /**
+   * @param pool       the pool of the buffers, whose size is the size of a chunk
+   * @param maxLatency the longest a token waits before its chunk is emitted, or 0 to wait until the chunk is full
+   * @param scheduler  the scheduler of the latency timer
+   * @return a transformer emitting chunks of JSON encoded as UTF-8 into buffers from the pool
+   */
+  public static TransformerJsonTokenToChunks<JsonBytes> bytes(ByteBufferPool pool, long maxLatency, TimeUnit unit, Scheduler scheduler) {
+    return new TransformerJsonTokenToChunks<>(() -> new ByteWriter(pool), maxLatency, unit, scheduler);
+  }
+
+  private TransformerJsonTokenToChunks(Func0<? extends ChunkWriter<T>> writerFactory, long maxLatency, TimeUnit unit, Scheduler scheduler) {
+    if (maxLatency < 0) {
+      throw new IllegalArgumentException("Maximum latency must not be negative");
+    }
+    this.writerFactory = writerFactory;
+    this.maxLatency = maxLatency;
+    this.unit = unit;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public Observable<T> call(Observable<JsonToken> upstream) {
+    Optional<List<JsonToken>> knownTokens = knownTokens(upstream);
+    if (knownTokens.isPresent()) {
+      return Observable.using(() -> chunks(knownTokens.get()), chunks -> Observable.from(chunks), Chunks::close);
+    }
+    return upstream.lift(child -> {
+      Coalescer coalescer = new Coalescer(child, writerFactory.call());
+      child.add(coalescer);
+      child.add(Subscriptions.create(coalescer::discard));
+      child.setProducer(coalescer::requestChunks);
+      return coalescer;
+    });
+  }
+
+  /**
+   * @return the tokens of the upstream if it is an element whose tokens are known
+   */
+  static Optional<List<JsonToken>> knownTokens(Observable<JsonToken> upstream) {
+    return upstream instanceof JsonElement ? ((JsonElement) upstream).getKnownTokens() : Optional.empty();
+  }
+
+  /**
+   * @return the chunks of the tokens, written as they are iterated, which must be closed
+   */
+  Chunks chunks(List<JsonToken> tokens) {
+    return new Chunks(tokens.iterator(), writerFactory.call());
+  }
+
+  /**
+   * Writes tokens into chunks. A writer is used by one subscription, holding its lock.
+   */
+  interface ChunkWriter<T> {
+    /**
+     * Write a token, adding any chunks that are full to the queue.
+     */
+    void write(JsonToken token, Queue<T> chunks);
+
+    /**
+     * Add the partly written chunk to the queue, if there is one.
+     */
+    void flush(Queue<T> chunks);
+
+    boolean isEmpty();
+
+    /**
+     * Release a chunk that will not be emitted.
+     */
+    void discard(T chunk);
+
+    /**
+     * Release the partly written chunk.
+     */
+    void close();
+  }
+
+  private static final class StringWriter implements ChunkWriter<String> {
+    private final int chunkSize;
+    private final StringBuilder buffer;
+
+    StringWriter(int chunkSize) {
+      this.chunkSize = chunkSize;
+      this.buffer = new StringBuilder(chunkSize + chunkSize / 4);
+    }
+
+    @Override
+    public void write(JsonToken token, Queue<String> chunks) {
+      TransformerJsonTokenToString.appendTo(buffer, token);
+      if (buffer.length() >= chunkSize) {
+        flush(chunks);
+      }
+    }
+
+    @Override
+    public void flush(Queue<String> chunks) {
+      if (buffer.length() > 0) {
+        chunks.add(buffer.toString());
+        // reuse the buffer's storage for the next chunk
+        buffer.setLength(0);
+      }
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return buffer.length() == 0;
+    }
+
+    @Override
+    public void discard(String chunk) {
+      // do nothing
+    }
+
+    @Override
+    public void close() {
+      // do nothing
+    }
+  }
+
+  private static final class ByteWriter implements ChunkWriter<JsonBytes> {
+    // the most bytes of a character in UTF-8
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private final ByteBufferPool pool;
+    private ByteBuffer buffer = null;
+
+    ByteWriter(ByteBufferPool pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public void write(JsonToken token, Queue<JsonBytes> chunks) {
+      if (token instanceof JsonFragment) {
+        copy(((JsonFragment) token).utf8(), chunks);
+        return;
+      }
+      String text = token.isString() || token.isName() ? JsonEscaper.escape(token.value()) : token.value();
+      int length = text.length();
+      int i = 0;
+      while (i < length) {
+        if (buffer == null) {
+          buffer = pool.acquire();
+        }
+        // ASCII is a byte per character
+        int asciiLimit = Math.min(length, i + buffer.remaining());
+        while (i < asciiLimit) {
+          char c = text.charAt(i);
+          if (c >= 0x80) {
+            break;
+          }
+          buffer.put((byte) c);
+          ++i;
+        }
+        if (i == length) {
+          break;
+        }
+        if (buffer.remaining() < MAX_CHAR_BYTES) {
+          flush(chunks);
+          continue;
+        }
+        i = encode(text, i);
+      }
+      if (buffer != null && !buffer.hasRemaining()) {
+        flush(chunks);
+      }
+    }
+
+    @Override
+    public void flush(Queue<JsonBytes> chunks) {
+      if (buffer != null && buffer.position() > 0) {
+        buffer.flip();
+        chunks.add(new JsonBytes(buffer, pool));
+        buffer = null;
+      }
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return buffer == null || buffer.position() == 0;
+    }
+
+    @Override
+    public void discard(JsonBytes chunk) {
+      chunk.release();
+    }
+
+    @Override
+    public void close() {
+      if (buffer != null) {
+        pool.release(buffer);
+        buffer = null;
+      }
+    }
+
+    /**
+     * Copy bytes that are already encoded, splitting them between chunks only between characters.
+     */
+    private void copy(ByteBuffer bytes, Queue<JsonBytes> chunks) {
+      while (bytes.hasRemaining()) {
+        if (buffer == null) {
+          buffer = pool.acquire();
+        }
+        int length = Math.min(bytes.remaining(), buffer.remaining());
+        if (length < bytes.remaining()) {
+          // back off to the start of a character, which is not a continuation byte
+          while (length > 0 && (bytes.get(bytes.position() + length) & 0xc0) == 0x80) {
+            --length;
+          }
+        }
+        ByteBuffer run = bytes.duplicate();
+        run.limit(run.position() + length);
+        buffer.put(run);
+        bytes.position(bytes.position() + length);
+        if (!buffer.hasRemaining() || bytes.hasRemaining()) {
+          flush(chunks);
+        }
+      }
+    }
+
+    /**
+     * @return the index after the encoded character
+     */
+    private int encode(String text, int i) {
+      char c = text.charAt(i);
+      if (c < 0x800) {
+        buffer.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+      } else if (!Character.isSurrogate(c)) {
+        buffer.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+        buffer.put((byte) (0xf0 | codePoint >> 18))
+          .put((byte) (0x80 | codePoint >> 12 & 0x3f))
+          .put((byte) (0x80 | codePoint >> 6 & 0x3f))
+          .put((byte) (0x80 | codePoint & 0x3f));
+        return i + 2;
+      } else {
+        // an unpaired surrogate is not a character, so is replaced as by String.getBytes
+        buffer.put((byte) '?');
+      }
+      return i + 1;
+    }
+  }
+
+  /**
+   * The chunks of known tokens, iterated once. Closing releases any chunks not yet iterated.
+   */
+  final class Chunks implements Iterable<T>, Iterator<T> {
+    private final Iterator<JsonToken> tokens;
+    private final ChunkWriter<T> writer;
+    private final Queue<T> chunks = new ArrayDeque<>();
+    private boolean closed = false;
+
+    private Chunks(Iterator<JsonToken> tokens, ChunkWriter<T> writer) {
+      this.tokens = tokens;
+      this.writer = writer;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return this;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+      while (chunks.isEmpty() && !closed && tokens.hasNext()) {
+        writer.write(tokens.next(), chunks);
+        if (!tokens.hasNext()) {
+          writer.flush(chunks);
+        }
+      }
+      return !chunks.isEmpty();
+    }
+
+    @Override
+    public synchronized T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return chunks.poll();
+    }
+
+    synchronized void close() {
+      if (!closed) {
+        closed = true;
+        for (T chunk : chunks) {
+          writer.discard(chunk);
+        }
+        chunks.clear();
+        writer.close();
+      }
+    }
+  }
+
+  private class Coalescer extends Subscriber<JsonToken> {
+    private final Subscriber<? super T> child;
+    private final ChunkWriter<T> writer;
+    private final Scheduler.Worker worker;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // guarded by this, as the timer may flush from another thread
+    private final Queue<T> chunks = new ArrayDeque<>();
+    private long outstanding = 0;
+    private Subscription timer = null;
+    private boolean done = false;
+    private boolean discarded = false;
+    private Throwable error = null;
+
+    Coalescer(Subscriber<? super T> child, ChunkWriter<T> writer) {
+      this.child = child;
+      this.writer = writer;
+      this.worker = maxLatency > 0 ? scheduler.createWorker() : null;
+      if (worker != null) {
+        child.add(worker);
+      }
+    }
+
+    @Override
+    public void onStart() {
+      request(0);
+    }
+
+    @Override
+    public void onNext(JsonToken token) {
+      synchronized (this) {
+        if (discarded) {
+          return;
+        }
+        --outstanding;
+        int full = chunks.size();
+        writer.write(token, chunks);
+        if (chunks.size() != full) {
+          // the rest of the token starts a new chunk
+          cancelTimer();
+        }
+        if (timer == null && worker != null && !writer.isEmpty()) {
+          timer = worker.schedule(this::onTimer, maxLatency, unit);
+        }
+      }
+      drain();
+    }
+
+    @Override
+    public void onCompleted() {
+      synchronized (this) {
+        flush();
+        done = true;
+      }
+      drain();
+    }
+
+    @Override
+    public void onError(Throwable e) {
+      synchronized (this) {
+        flush();
+        error = e;
+        done = true;
+      }
+      drain();
+    }
+
+    void requestChunks(long n) {
+      if (n < 0) {
+        throw new IllegalArgumentException("n >= 0 required but it was " + n);
+      }
+      if (n > 0) {
+        BackpressureUtils.getAndAddRequest(requested, n);
+        drain();
+      }
+    }
+
+    synchronized void discard() {
+      if (!discarded) {
+        discarded = true;
+        cancelTimer();
+        for (T chunk : chunks) {
+          writer.discard(chunk);
+        }
+        chunks.clear();
+        writer.close();
+      }
+    }
+
+    private void onTimer() {
+      synchronized (this) {
+        timer = null;
+        flush();
+      }
+      drain();
+    }
+
+    // must hold the lock
+    private void flush() {
+      cancelTimer();
+      if (!discarded) {
+        writer.flush(chunks);
+      }
+    }
+
+    // must hold the lock
+    private void cancelTimer() {
+      if (timer != null) {
+        timer.unsubscribe();
+        timer = null;
+      }
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      for (;;) {
+        long r = requested.get();
+        long e = 0;
+        while (e != r) {
+          if (child.isUnsubscribed()) {
+            return;
+          }
+          T chunk;
+          synchronized (this) {
+            chunk = chunks.poll();
+          }
+          if (chunk == null) {
+            break;
+          }
+          child.onNext(chunk);
+          ++e;
+        }
+        if (e != 0) {
+          r = BackpressureUtils.produced(requested, e);
+        }
+        boolean finished;
+        long toRequest = 0;
+        synchronized (this) {
+          finished = done && chunks.isEmpty();
+          if (!done && r > 0 && chunks.isEmpty() && outstanding == 0) {
+            // the requested chunks need more tokens
+            outstanding = TOKEN_BATCH_SIZE;
+            toRequest = TOKEN_BATCH_SIZE;
+          }
+        }
+        if (finished) {
+          if (!child.isUnsubscribed()) {
+            if (error != null) {
+              child.onError(error);
+            } else {
+              child.onCompleted();
+            }
+          }
+          return;
+        }
+        if (toRequest > 0) {
+          request(toRequest);
+        }
+        missed = wip.addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+  }
+}
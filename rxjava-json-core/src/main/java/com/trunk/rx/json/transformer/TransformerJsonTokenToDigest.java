@@ -0,0 +1,75 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.JsonDigest;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Digests the JSON of JsonTokens encoded as UTF-8, emitting only the digest, such as to validate an ETag without
+ * writing the response. The JSON is encoded a chunk at a time into buffers from a pool, each released once digested,
+ * so it is never held whole.
+ * <p>
+ * If the upstream is a JsonElement whose tokens are known, it is not subscribed to. Its tokens are digested
+ * synchronously, on the subscribing thread.
+ */
+public class TransformerJsonTokenToDigest implements Observable.Transformer<JsonToken, JsonDigest> {
+
+  private final String algorithm;
+  private final TransformerJsonTokenToChunks<JsonBytes> chunker;
+
+  /**
+   * @param algorithm the name of a MessageDigest algorithm, such as SHA-256
+   * @param pool      the pool of the buffers the JSON is encoded into
+   * @throws IllegalArgumentException if the algorithm is not available
+   */
+  public static TransformerJsonTokenToDigest of(String algorithm, ByteBufferPool pool) {
+    return new TransformerJsonTokenToDigest(
+      TransformerDigestBytes.requireAlgorithm(algorithm),
+      TransformerJsonTokenToChunks.bytes(pool, 0, TimeUnit.MILLISECONDS, Schedulers.immediate())
+    );
+  }
+
+  private TransformerJsonTokenToDigest(String algorithm, TransformerJsonTokenToChunks<JsonBytes> chunker) {
+    this.algorithm = algorithm;
+    this.chunker = chunker;
+  }
+
+  @Override
+  public Observable<JsonDigest> call(Observable<JsonToken> upstream) {
+    Optional<List<JsonToken>> knownTokens = TransformerJsonTokenToChunks.knownTokens(upstream);
+    if (knownTokens.isPresent()) {
+      return Observable.fromCallable(() -> digest(knownTokens.get()));
+    }
+    return upstream.compose(chunker)
+      .collect(() -> new TransformerDigestBytes.Digester(algorithm), TransformerJsonTokenToDigest::update)
+      .map(TransformerDigestBytes.Digester::digest);
+  }
+
+  private JsonDigest digest(List<JsonToken> tokens) {
+    TransformerDigestBytes.Digester digester = new TransformerDigestBytes.Digester(algorithm);
+    TransformerJsonTokenToChunks<JsonBytes>.Chunks chunks = chunker.chunks(tokens);
+    try {
+      while (chunks.hasNext()) {
+        update(digester, chunks.next());
+      }
+    } finally {
+      chunks.close();
+    }
+    return digester.digest();
+  }
+
+  private static void update(TransformerDigestBytes.Digester digester, JsonBytes chunk) {
+    try {
+      digester.update(chunk);
+    } finally {
+      chunk.release();
+    }
+  }
+}
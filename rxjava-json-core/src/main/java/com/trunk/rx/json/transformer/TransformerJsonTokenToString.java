@@ -1,5 +1,6 @@
 package com.trunk.rx.json.transformer;
 
+import com.trunk.rx.json.token.JsonEscaper;
 import com.trunk.rx.json.token.JsonToken;
 import rx.Observable;
 
@@ -17,20 +18,20 @@ public class TransformerJsonTokenToString implements Observable.Transformer<Json
   public Observable<String> call(Observable<JsonToken> jsonTokenObservable) {
     return jsonTokenObservable.map(token -> {
       if (token.isString() || token.isName()) {
-        return escape(token.value());
+        return JsonEscaper.escape(token.value());
       }
       return token.value();
     });
   }
 
-  private String escape(String value) {
-    return value
-      .replace("\\", "\\\\")
-      .replace("\"", "\\\"")
-      .replace("\b", "\\b")
-      .replace("\f", "\\f")
-      .replace("\n", "\\n")
-      .replace("\r", "\\r")
-      .replace("\t", "\\t");
+  /**
+   * Append the JSON of a token, escaping the text of strings and names.
+   */
+  public static void appendTo(StringBuilder builder, JsonToken token) {
+    if (token.isString() || token.isName()) {
+      JsonEscaper.appendTo(token.value(), builder);
+    } else {
+      builder.append(token.value());
+    }
   }
 }
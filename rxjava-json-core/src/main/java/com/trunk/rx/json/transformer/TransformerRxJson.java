@@ -1,11 +1,29 @@
 package com.trunk.rx.json.transformer;
 
 import com.trunk.rx.character.CharacterObservable;
+import com.trunk.rx.json.JsonNumberChunk;
 import com.trunk.rx.json.JsonObjectEvent;
 import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.JsonRawEvent;
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.JsonTokenTape;
+import com.trunk.rx.json.aggregate.Aggregator;
+import com.trunk.rx.json.column.ColumnBatch;
+import com.trunk.rx.json.column.ColumnSpec;
 import com.trunk.rx.json.operator.OperatorJsonToken;
+import com.trunk.rx.json.path.FilterToken;
 import com.trunk.rx.json.path.JsonPath;
 import rx.Observable;
+import rx.functions.Func0;
+import rx.observables.GroupedObservable;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * A JSON token parser that will emit tokens for the given <a href="http://goessner.net/articles/JsonPath/">JSON paths</a>,
@@ -15,7 +33,8 @@ import rx.Observable;
  * The basic mode of operation is to emit a stream of token/path/matched path triples that can be assembled into objects,
  * where the path is the path to the token and the matched path is on of the paths given during creation.
  * {@link #collectObjects()} can be used to aggregate these triples by matched path so they can be further parsed into
- * Java objects.
+ * Java objects. {@link #windowObjects()} does the same without buffering, emitting each matched object as an
+ * Observable of its tokens, and {@link #collectRaw()} emits the source text of each matched object.
  */
 public class TransformerRxJson implements Observable.Transformer<String, JsonPathEvent> {
   private final OperatorJsonToken operatorJsonToken;
@@ -30,7 +49,8 @@ public class TransformerRxJson implements Observable.Transformer<String, JsonPat
   }
 
   public TransformerRxJson(OperatorJsonToken operatorJsonToken, TransformerJsonPath transformerJsonPath) {
-    this.operatorJsonToken = operatorJsonToken;
+    // members that no path can match are dropped by the transformer, so the parser need not create them
+    this.operatorJsonToken = operatorJsonToken.select(transformerJsonPath.getMatchers());
     this.transformerJsonPath = transformerJsonPath;
   }
 
@@ -53,6 +73,57 @@ public class TransformerRxJson implements Observable.Transformer<String, JsonPat
     return new TransformerRxJson(operatorJsonToken.strict(), transformerJsonPath.strict());
   }
 
+  /**
+   * By default each token belongs to a single matched object, the one matched by the shortest path. This option also
+   * matches objects nested within other matched objects, so that, for example, <code>$.orders[*]</code> and
+   * <code>$.orders[*].lines[*]</code> can both be collected by {@link #collectObjects()} in a single pass. Other
+   * modes only see the outermost matched object.
+   *
+   * @return a new TransformerRxJson that will match nested objects
+   */
+  public TransformerRxJson nested() {
+    return new TransformerRxJson(operatorJsonToken, transformerJsonPath.nested());
+  }
+
+  /**
+   * Paths may filter elements by the value of one of their fields, such as <code>$.orders[?(@.status == 'open')]</code>.
+   * Matched tokens are held until the field has been parsed, up to the given number of tokens, after which the stream
+   * fails.
+   *
+   * @return a new TransformerRxJson that holds at most the given number of tokens while a filter is undecided
+   */
+  public TransformerRxJson filterBufferSize(int filterBufferSize) {
+    return new TransformerRxJson(operatorJsonToken, transformerJsonPath.filterBufferSize(filterBufferSize));
+  }
+
+  /**
+   * Only emit the named members of matched objects, for example the <code>id</code> and <code>price</code> of each of
+   * <code>$.items[*]</code>. Other members are skipped by the parser without creating tokens, so objects assembled
+   * downstream only hold the projected members. Fields tested by a filter expression are always kept.
+   * <p>
+   * Paths cannot select several members by name, and a path per member, such as <code>$.items[*].id</code>, matches
+   * each member as an object of its own. A projection keeps each matched object whole, holding only the named members.
+   *
+   * @param names the names of the members to keep
+   * @return a new TransformerRxJson that projects matched objects
+   */
+  public TransformerRxJson project(String... names) {
+    Set<String> projection = new HashSet<>(Arrays.asList(names));
+    for (JsonPath matcher : transformerJsonPath.getMatchers()) {
+      Optional<JsonPath> p = Optional.of(matcher);
+      while (p.isPresent()) {
+        if (p.get() instanceof FilterToken) {
+          projection.add(((FilterToken) p.get()).getField());
+        }
+        p = p.get().getNextPathToken();
+      }
+    }
+    return new TransformerRxJson(
+      operatorJsonToken.project(transformerJsonPath.getMatchers(), Collections.unmodifiableSet(projection)),
+      transformerJsonPath
+    );
+  }
+
   /**
    * @return a new Transformer that will parse JSON and emit tokens aggregated by JsonPath
    */
@@ -60,6 +131,117 @@ public class TransformerRxJson implements Observable.Transformer<String, JsonPat
     return new TransformerCollectObjects(this);
   }
 
+  /**
+   * A compact alternative to {@link #collectObjects()}. Each matched object is collected into a JsonTokenTape, which
+   * stores token types, text and paths in flat arrays rather than as an event per token.
+   *
+   * @return a new Transformer that will parse JSON and emit a JsonTokenTape per matched object
+   */
+  public Observable.Transformer<String, JsonTokenTape> collectTapes() {
+    return new TransformerCollectTapes(this);
+  }
+
+  /**
+   * An alternative to {@link #collectObjects()} for forwarding matched objects as JSON. The source text of each matched
+   * object is captured by the parser as it is read, without creating tokens for the contents of the object.
+   *
+   * Filter expressions are not supported, as the fields they test are not parsed into tokens.
+   *
+   * @return a new Transformer that will parse JSON and emit the source text of each matched object
+   */
+  public Observable.Transformer<String, JsonRawEvent> collectRaw() {
+    if (transformerJsonPath.hasFilters()) {
+      throw new IllegalArgumentException("Filter expressions are not supported when collecting raw JSON");
+    }
+    return new TransformerCollectRaw(
+      new TransformerRxJson(operatorJsonToken.capture(transformerJsonPath.getMatchers()), transformerJsonPath)
+    );
+  }
+
+  /**
+   * A streaming alternative to {@link #collectObjects()} for very large matched objects. Each matched object is
+   * emitted as a GroupedObservable keyed by the matched path that streams the object's tokens as they are parsed,
+   * with backpressure, so the object is never held in memory.
+   *
+   * @return a new Transformer that will parse JSON and emit an Observable of tokens per matched object
+   */
+  public Observable.Transformer<String, GroupedObservable<JsonPath, JsonTokenEvent>> windowObjects() {
+    return new TransformerWindowObjects(this);
+  }
+
+  /**
+   * An alternative to {@link #collectObjects()} for very long numeric arrays, such as time series. The elements of
+   * each matched array are collected into DoubleBuffers of the given size, each emitted once full and the last when
+   * the array ends, so no object is created per element downstream. Null elements are NaN.
+   *
+   * @return a new Transformer that will parse JSON and emit chunks of the elements of each matched array
+   */
+  public Observable.Transformer<String, JsonNumberChunk<DoubleBuffer>> collectDoubles(int chunkSize) {
+    return collectDoubles(chunkSize, false);
+  }
+
+  /**
+   * As {@link #collectDoubles(int)}, optionally allocating the buffers outside of the heap.
+   */
+  public Observable.Transformer<String, JsonNumberChunk<DoubleBuffer>> collectDoubles(int chunkSize, boolean direct) {
+    return TransformerCollectNumbers.doubles(this, chunkSize, direct);
+  }
+
+  /**
+   * As {@link #collectDoubles(int)} for arrays of integers, collected into LongBuffers. Any other element fails the
+   * stream.
+   */
+  public Observable.Transformer<String, JsonNumberChunk<LongBuffer>> collectLongs(int chunkSize) {
+    return collectLongs(chunkSize, false);
+  }
+
+  /**
+   * As {@link #collectLongs(int)}, optionally allocating the buffers outside of the heap.
+   */
+  public Observable.Transformer<String, JsonNumberChunk<LongBuffer>> collectLongs(int chunkSize, boolean direct) {
+    return TransformerCollectNumbers.longs(this, chunkSize, direct);
+  }
+
+  /**
+   * An alternative to {@link #collectObjects()} for analytics. The fields of the spec are extracted from each matched
+   * object straight from the tokens into typed columns, such as a long[] of ids and a dictionary of names, and emitted
+   * as batches of the given number of rows. Only the members holding the fields are parsed into tokens.
+   *
+   * @return a new Transformer that will parse JSON and emit batches of the columns of matched objects
+   * @throws IllegalArgumentException if the spec has no columns or the batch size is not positive
+   */
+  public Observable.Transformer<String, ColumnBatch> columns(ColumnSpec spec, int batchSize) {
+    String[] members = new String[spec.size()];
+    for (int i = 0; i < spec.size(); ++i) {
+      members[i] = spec.getMember(i);
+    }
+    return new TransformerColumns(project(members), spec, batchSize);
+  }
+
+  /**
+   * Aggregate the scalar values matched by the paths, such as the sum of <code>$.orders[*].total</code>, holding only
+   * the aggregate rather than the values. Values within matched objects or arrays are not aggregated.
+   *
+   * @param aggregatorFactory creates the aggregator for each subscription, eg <code>Aggregators::sum</code>
+   * @return a new Transformer that will parse JSON and emit the aggregate once the JSON has been parsed
+   * @see com.trunk.rx.json.aggregate.Aggregators
+   */
+  public <T> Observable.Transformer<String, T> aggregate(Func0<? extends Aggregator<T>> aggregatorFactory) {
+    return new TransformerAggregate<>(this, aggregatorFactory, 0);
+  }
+
+  /**
+   * As {@link #aggregate(Func0)}, also emitting a snapshot of the aggregate after every given number of values.
+   *
+   * @return a new Transformer that will parse JSON and emit snapshots of the aggregate followed by the final aggregate
+   */
+  public <T> Observable.Transformer<String, T> aggregate(Func0<? extends Aggregator<T>> aggregatorFactory, long snapshotInterval) {
+    if (snapshotInterval <= 0) {
+      throw new IllegalArgumentException("Snapshot interval must be positive");
+    }
+    return new TransformerAggregate<>(this, aggregatorFactory, snapshotInterval);
+  }
+
   @Override
   public Observable<JsonPathEvent> call(Observable<String> upstream) {
     return upstream.lift(CharacterObservable.toCharacter())
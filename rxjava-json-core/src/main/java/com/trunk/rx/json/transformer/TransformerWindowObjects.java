@@ -0,0 +1,21 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.operator.OperatorWindowObjects;
+import com.trunk.rx.json.path.JsonPath;
+import rx.Observable;
+import rx.observables.GroupedObservable;
+
+public class TransformerWindowObjects implements Observable.Transformer<String, GroupedObservable<JsonPath, JsonTokenEvent>> {
+  private final TransformerRxJson transformerRxJson;
+
+  public TransformerWindowObjects(TransformerRxJson transformerRxJson) {
+    this.transformerRxJson = transformerRxJson;
+  }
+
+  @Override
+  public Observable<GroupedObservable<JsonPath, JsonTokenEvent>> call(Observable<String> upstream) {
+    return upstream.compose(transformerRxJson)
+      .lift(new OperatorWindowObjects());
+  }
+}
@@ -0,0 +1,143 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.token.JsonToken;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes JsonTokens as JSON to an OutputStream, Writer or WritableByteChannel, emitting the number of bytes, or
+ * characters for a Writer, written once the tokens end and the destination has been flushed.
+ * <p>
+ * The JSON is coalesced into chunks, as by {@link TransformerJsonTokenToChunks}, and a chunk is only requested once
+ * the previous chunk has been written, so a slow destination slows the source rather than JSON being buffered. Writes
+ * block the thread emitting the tokens. Chunks are released once written, or if writing fails.
+ * <p>
+ * If the upstream is a JsonElement whose tokens are known, it is not subscribed to. Its tokens are written
+ * synchronously, on the subscribing thread, a chunk at a time.
+ */
+public class TransformerWriteJson<T> implements Observable.Transformer<JsonToken, Long> {
+
+  public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+  private final TransformerJsonTokenToChunks<T> chunker;
+  private final Write<T> write;
+  private final Flush flush;
+
+  /**
+   * @return a transformer writing UTF-8 to the stream, through buffers from the pool
+   */
+  public static TransformerWriteJson<JsonBytes> outputStream(OutputStream out, ByteBufferPool pool) {
+    return new TransformerWriteJson<>(
+      TransformerJsonTokenToChunks.bytes(pool, 0, TimeUnit.MILLISECONDS, Schedulers.immediate()),
+      chunk -> {
+        try {
+          ByteBuffer buffer = chunk.getBuffer();
+          int length = buffer.remaining();
+          if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+          } else {
+            out.write(chunk.toByteArray());
+          }
+          return length;
+        } finally {
+          chunk.release();
+        }
+      },
+      out::flush
+    );
+  }
+
+  /**
+   * @return a transformer writing characters to the writer, in Strings of about the given number of characters
+   */
+  public static TransformerWriteJson<String> writer(Writer writer, int chunkSize) {
+    return new TransformerWriteJson<>(
+      TransformerJsonTokenToChunks.strings(chunkSize, 0, TimeUnit.MILLISECONDS, Schedulers.immediate()),
+      chunk -> {
+        writer.write(chunk);
+        return chunk.length();
+      },
+      writer::flush
+    );
+  }
+
+  /**
+   * @param channel a channel in blocking mode
+   * @return a transformer writing UTF-8 to the channel, through buffers from the pool
+   */
+  public static TransformerWriteJson<JsonBytes> channel(WritableByteChannel channel, ByteBufferPool pool) {
+    return new TransformerWriteJson<>(
+      TransformerJsonTokenToChunks.bytes(pool, 0, TimeUnit.MILLISECONDS, Schedulers.immediate()),
+      chunk -> {
+        try {
+          ByteBuffer buffer = chunk.getBuffer();
+          int length = buffer.remaining();
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+          return length;
+        } finally {
+          chunk.release();
+        }
+      },
+      () -> {
+        // a channel has nothing to flush
+      }
+    );
+  }
+
+  private TransformerWriteJson(TransformerJsonTokenToChunks<T> chunker, Write<T> write, Flush flush) {
+    this.chunker = chunker;
+    this.write = write;
+    this.flush = flush;
+  }
+
+  @Override
+  public Observable<Long> call(Observable<JsonToken> upstream) {
+    Optional<List<JsonToken>> knownTokens = TransformerJsonTokenToChunks.knownTokens(upstream);
+    if (knownTokens.isPresent()) {
+      return Observable.fromCallable(() -> write(knownTokens.get()));
+    }
+    return upstream.compose(chunker)
+      // one chunk at a time, so the next is only requested once the previous has been written
+      .flatMap(chunk -> Observable.fromCallable(() -> (long) write.write(chunk)), 1)
+      .reduce(0L, (total, written) -> total + written)
+      .flatMap(total -> Observable.fromCallable(() -> {
+        flush.flush();
+        return total;
+      }));
+  }
+
+  private long write(List<JsonToken> tokens) throws IOException {
+    long total = 0;
+    TransformerJsonTokenToChunks<T>.Chunks chunks = chunker.chunks(tokens);
+    try {
+      while (chunks.hasNext()) {
+        total += write.write(chunks.next());
+      }
+    } finally {
+      chunks.close();
+    }
+    flush.flush();
+    return total;
+  }
+
+  private interface Write<T> {
+    int write(T chunk) throws IOException;
+  }
+
+  private interface Flush {
+    void flush() throws IOException;
+  }
+}
@@ -0,0 +1,135 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.element.JsonElement;
+import com.trunk.rx.json.element.JsonValueBuilder;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.trunk.rx.json.Assert.assertEqualsString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JsonCacheTest {
+
+  private static final JsonValueBuilder VALUES = RxJson.valueBuilder();
+
+  @Test
+  public void shouldServeHitsWithoutCreatingElement() throws Exception {
+    JsonCache cache = JsonCache.of(1024);
+    AtomicInteger created = new AtomicInteger();
+    JsonElement element = cache.get("order/1", "v1", () -> {
+      created.incrementAndGet();
+      return RxJson.newObject().add("name", VALUES.create("caf\u00e9"));
+    });
+
+    assertEqualsString(element, "{\"name\":\"caf\u00e9\"}");
+    assertEqualsString(element, "{\"name\":\"caf\u00e9\"}");
+    assertEqualsString(cache.get("order/1", "v1", Observable.error(new AssertionError())), "{\"name\":\"caf\u00e9\"}");
+
+    assertEquals(created.get(), 1);
+    assertEquals(cache.getMissCount(), 1);
+    assertEquals(cache.getHitCount(), 2);
+    assertEquals(cache.getByteCount(), 16);
+    assertEquals(cache.getHitByteCount(), 32);
+  }
+
+  @Test
+  public void shouldRenderNewVersion() throws Exception {
+    JsonCache cache = JsonCache.of(1024);
+    assertEqualsString(cache.get("a", 1, VALUES.create(1)), "1");
+    assertEqualsString(cache.get("a", 2, VALUES.create(22)), "22");
+    assertEqualsString(cache.get("a", 2, VALUES.create(333)), "22");
+
+    assertEquals(cache.getSize(), 1);
+    assertEquals(cache.getByteCount(), 2);
+    assertEquals(cache.getMissCount(), 2);
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() throws Exception {
+    JsonCache cache = JsonCache.of(6);
+    assertEqualsString(cache.get("a", 1, VALUES.create(111)), "111");
+    assertEqualsString(cache.get("b", 1, VALUES.create(222)), "222");
+    assertEqualsString(cache.get("a", 1, VALUES.create(0)), "111");
+    assertEqualsString(cache.get("c", 1, VALUES.create(333)), "333");
+
+    assertEquals(cache.getEvictionCount(), 1);
+    assertEquals(cache.getByteCount(), 6);
+    assertEqualsString(cache.get("a", 1, VALUES.create(0)), "111");
+    assertEqualsString(cache.get("b", 1, VALUES.create(0)), "0");
+  }
+
+  @Test
+  public void shouldExpireAfterTimeToLive() throws Exception {
+    TestScheduler scheduler = new TestScheduler();
+    JsonCache cache = JsonCache.of(1024, 1, TimeUnit.MINUTES, scheduler);
+    assertEqualsString(cache.get("a", 1, VALUES.create(1)), "1");
+
+    scheduler.advanceTimeBy(59, TimeUnit.SECONDS);
+    assertEqualsString(cache.get("a", 1, VALUES.create(2)), "1");
+
+    scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+    assertEqualsString(cache.get("a", 1, VALUES.create(2)), "2");
+  }
+
+  @Test
+  public void shouldShareConcurrentMisses() throws Exception {
+    JsonCache cache = JsonCache.of(1024);
+    PublishSubject<JsonToken> tokens = PublishSubject.create();
+    AtomicInteger subscribed = new AtomicInteger();
+    Observable<JsonToken> element = tokens.doOnSubscribe(subscribed::incrementAndGet);
+    TestSubscriber<String> first = new TestSubscriber<>();
+    TestSubscriber<String> second = new TestSubscriber<>();
+
+    cache.get("a", 1, element).compose(RxJson.toJson()).subscribe(first);
+    cache.get("a", 1, element).compose(RxJson.toJson()).subscribe(second);
+    VALUES.create(true).subscribe(tokens);
+
+    assertEquals(subscribed.get(), 1);
+    first.assertValue("true");
+    second.assertValue("true");
+    assertEquals(cache.getMissCount(), 2);
+    assertEquals(cache.getSize(), 1);
+  }
+
+  @Test
+  public void shouldNotShareAbandonedRendering() throws Exception {
+    JsonCache cache = JsonCache.of(1024);
+    PublishSubject<JsonToken> tokens = PublishSubject.create();
+    TestSubscriber<JsonToken> first = new TestSubscriber<>();
+    TestSubscriber<JsonToken> second = new TestSubscriber<>();
+    cache.get("a", 1, tokens).subscribe(first);
+    cache.get("a", 1, tokens).subscribe(second);
+
+    first.unsubscribe();
+    TestSubscriber<JsonToken> third = new TestSubscriber<>();
+    cache.get("a", 1, VALUES.create(2)).subscribe(third);
+    third.assertNoValues();
+    assertTrue(tokens.hasObservers());
+
+    second.unsubscribe();
+    third.unsubscribe();
+    assertFalse(tokens.hasObservers());
+    assertEqualsString(cache.get("a", 1, VALUES.create(1)), "1");
+    assertEquals(cache.getSize(), 1);
+  }
+
+  @Test
+  public void shouldNotCacheErrors() throws Exception {
+    JsonCache cache = JsonCache.of(1024);
+    TestSubscriber<JsonToken> ts = new TestSubscriber<>();
+    cache.get("a", 1, Observable.error(new RuntimeException("failed"))).subscribe(ts);
+
+    ts.assertError(RuntimeException.class);
+    assertEquals(cache.getSize(), 0);
+    assertEqualsString(cache.get("a", 1, VALUES.create(1)), "1");
+  }
+}
@@ -0,0 +1,180 @@
+package com.trunk.rx.json;
+
+import com.trunk.rx.json.JsonParseHub.SlowConsumerPolicy;
+import com.trunk.rx.json.operator.OperatorCollectObjects;
+import com.trunk.rx.json.operator.OperatorJsonToken;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.Subscription;
+import rx.exceptions.MissingBackpressureException;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JsonParseHubTest {
+
+  private static final String JSON = "{\"a\":[1,2,3,4,5,6],\"b\":{\"c\":\"d\"}}";
+
+  @Test
+  public void shouldParseOnceForAllSubscribers() throws Exception {
+    int[] subscriptions = {0};
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = RxJson.parseHub(source.onBackpressureBuffer().doOnSubscribe(() -> subscriptions[0] += 1));
+    TestSubscriber<String> a = new TestSubscriber<>();
+    TestSubscriber<String> b = new TestSubscriber<>();
+
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(a);
+    hub.observe("$.b").compose(JsonParseHubTest::values).subscribe(b);
+    source.onNext(JSON);
+    source.onCompleted();
+
+    assertEquals(subscriptions[0], 1);
+    a.assertNoErrors();
+    a.assertCompleted();
+    a.assertValues("1", "2", "3", "4", "5", "6", "");
+    b.assertNoErrors();
+    b.assertCompleted();
+    b.assertValues("{", "c", "d", "}", "");
+  }
+
+  @Test
+  public void shouldRouteEventsForCollection() throws Exception {
+    TestSubscriber<JsonPath> ts = new TestSubscriber<>();
+    JsonParseHub.from(Observable.just(JSON, JSON), new OperatorJsonToken().lenient(), 4, SlowConsumerPolicy.BACKPRESSURE)
+      .observe("$.*")
+      .lift(new OperatorCollectObjects())
+      .map(JsonObjectEvent::getPath)
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(JsonPath.parse("$.a"), JsonPath.parse("$.b"), JsonPath.parse("$.a"), JsonPath.parse("$.b"));
+  }
+
+  @Test
+  public void shouldHoldAllSubscribersToSlowestWithBackPressure() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = JsonParseHub.from(source.onBackpressureBuffer(), new OperatorJsonToken(), 2, SlowConsumerPolicy.BACKPRESSURE);
+    TestSubscriber<String> slow = new TestSubscriber<>(0);
+    TestSubscriber<String> fast = new TestSubscriber<>();
+
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(slow);
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(fast);
+    source.onNext(JSON);
+    source.onCompleted();
+
+    slow.assertNoValues();
+    fast.assertValues("1", "2");
+
+    slow.requestMore(1);
+    slow.assertValues("1");
+    fast.assertValues("1", "2", "3");
+
+    slow.requestMore(Long.MAX_VALUE);
+    slow.assertCompleted();
+    fast.assertCompleted();
+    fast.assertValues("1", "2", "3", "4", "5", "6", "");
+  }
+
+  @Test
+  public void shouldDropEventsForSlowSubscriber() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = JsonParseHub.from(source.onBackpressureBuffer(), new OperatorJsonToken(), 2, SlowConsumerPolicy.DROP);
+    TestSubscriber<String> slow = new TestSubscriber<>(0);
+    TestSubscriber<String> fast = new TestSubscriber<>();
+
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(slow);
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(fast);
+    source.onNext(JSON);
+    source.onCompleted();
+
+    fast.assertCompleted();
+    fast.assertValues("1", "2", "3", "4", "5", "6", "");
+    slow.requestMore(Long.MAX_VALUE);
+    slow.assertCompleted();
+    slow.assertValues("1", "2");
+  }
+
+  @Test
+  public void shouldFailSlowSubscriber() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = JsonParseHub.from(source.onBackpressureBuffer(), new OperatorJsonToken(), 2, SlowConsumerPolicy.ERROR);
+    TestSubscriber<String> slow = new TestSubscriber<>(0);
+    TestSubscriber<String> fast = new TestSubscriber<>();
+
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(slow);
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(fast);
+    source.onNext(JSON);
+    source.onCompleted();
+
+    fast.assertCompleted();
+    fast.assertValues("1", "2", "3", "4", "5", "6", "");
+    slow.assertError(MissingBackpressureException.class);
+    slow.assertNoValues();
+  }
+
+  @Test
+  public void shouldStartLateSubscriberAtNextObject() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = RxJson.parseHub(source.onBackpressureBuffer());
+    TestSubscriber<String> early = new TestSubscriber<>();
+    TestSubscriber<String> late = new TestSubscriber<>();
+
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(early);
+    source.onNext("{\"a\":[[1,2],[");
+    hub.observe("$.a[*]").compose(JsonParseHubTest::values).subscribe(late);
+    source.onNext("3,4],[5]]}");
+    source.onCompleted();
+
+    early.assertCompleted();
+    early.assertValues("[", "1", "2", "]", "[", "3", "4", "]", "[", "5", "]", "");
+    late.assertCompleted();
+    late.assertValues("[", "5", "]", "");
+  }
+
+  @Test
+  public void shouldStartLateSubscriberOnNewPathAtNextObject() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = RxJson.parseHub(source.onBackpressureBuffer());
+    TestSubscriber<String> other = new TestSubscriber<>();
+    TestSubscriber<String> late = new TestSubscriber<>();
+
+    hub.observe("$.x").compose(JsonParseHubTest::values).subscribe(other);
+    source.onNext("{\"a\":[1,2,");
+    hub.observe("$.a").compose(JsonParseHubTest::values).subscribe(late);
+    source.onNext("3,4],\"a\":[5],\"a\":6}");
+    source.onCompleted();
+
+    late.assertCompleted();
+    late.assertValues("[", "5", "]", "6", "");
+    other.assertValues("");
+  }
+
+  @Test
+  public void shouldDisconnectWhenLastSubscriberDetaches() throws Exception {
+    PublishSubject<String> source = PublishSubject.create();
+    JsonParseHub hub = RxJson.parseHub(source.onBackpressureBuffer());
+
+    Subscription a = hub.observe("$.a").subscribe();
+    Subscription b = hub.observe("$.b").subscribe();
+    assertTrue(source.hasObservers());
+    assertEquals(hub.subscriberCount(), 2);
+
+    a.unsubscribe();
+    assertTrue(source.hasObservers());
+    assertEquals(hub.subscriberCount(), 1);
+
+    b.unsubscribe();
+    assertFalse(source.hasObservers());
+    assertEquals(hub.subscriberCount(), 0);
+  }
+
+  private static Observable<String> values(Observable<JsonPathEvent> events) {
+    return events.map(JsonPathEvent::getTokenEvent).map(JsonTokenEvent::getToken).map(JsonToken::value);
+  }
+}
@@ -0,0 +1,163 @@
+package com.trunk.rx.json;
+
+import com.google.common.collect.ImmutableList;
+import com.trunk.rx.json.operator.OperatorJsonTokenTest;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonArray;
+import com.trunk.rx.json.token.JsonName;
+import com.trunk.rx.json.token.JsonObject;
+import com.trunk.rx.json.token.JsonString;
+import com.trunk.rx.json.token.JsonTokenType;
+import com.trunk.rx.json.transformer.TransformerRxJson;
+import org.testng.annotations.Test;
+import rx.Observable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JsonTokenTapeTest {
+
+  private static final String JSON =
+    "{\"a\":[{\"b\":\"c\",\"d\":[1,2.5,true,null]},{\"e\":{\"f\":{\"g\":[]}}},\"h\"],\"i\":{}}";
+
+  @Test
+  public void shouldMatchCollectedObjects() throws Exception {
+    for (String path : new String[]{"$", "$.a", "$.a[0]", "$.a[*]", "$..d", "$.i"}) {
+      List<JsonObjectEvent> objects = collect(JSON, path).collectObjects();
+      List<JsonTokenTape> tapes = collect(JSON, path).collectTapes();
+
+      assertEquals(tapes.size(), objects.size(), path);
+      for (int i = 0; i < objects.size(); ++i) {
+        assertEquals(tapes.get(i).getPath(), objects.get(i).getPath(), path);
+        assertEquals(ImmutableList.copyOf(tapes.get(i)), ImmutableList.copyOf(objects.get(i).getTokens()), path);
+        assertEquals(
+          ImmutableList.copyOf(tapes.get(i).toObjectEvent().getTokens()),
+          ImmutableList.copyOf(objects.get(i).getTokens()),
+          path
+        );
+      }
+    }
+  }
+
+  @Test
+  public void shouldMatchCollectedNestedObjects() throws Exception {
+    TransformerRxJson nested = RxJson.parse("$.a[*]", "$..d", "$..f").nested().lenient();
+    List<JsonObjectEvent> objects = Observable.just(JSON).compose(nested.collectObjects()).toList().toBlocking().single();
+    List<JsonTokenTape> tapes = Observable.just(JSON).compose(nested.collectTapes()).toList().toBlocking().single();
+
+    assertEquals(tapes.size(), 5);
+    assertEquals(tapes.size(), objects.size());
+    for (int i = 0; i < objects.size(); ++i) {
+      assertEquals(tapes.get(i).toObjectEvent(), objects.get(i));
+    }
+  }
+
+  @Test
+  public void shouldEqualObjectEventOfList() throws Exception {
+    JsonTokenTape tape = collect(JSON, "$.a[*]").collectTapes().get(0);
+    JsonObjectEvent event = new JsonObjectEvent(tape.getPath(), new ArrayList<>(tape));
+
+    assertEquals(tape.toObjectEvent(), event);
+    assertEquals(event, tape.toObjectEvent());
+    assertEquals(tape.toObjectEvent().hashCode(), event.hashCode());
+    assertEquals(collect(JSON, "$.a[*]").collectObjects().get(0), tape.toObjectEvent());
+  }
+
+  @Test
+  public void shouldMatchCollectedDeepObject() throws Exception {
+    String json = OperatorJsonTokenTest.bigObject();
+    JsonObjectEvent object = collect(json, "$").collectObjects().get(0);
+    JsonTokenTape tape = collect(json, "$").collectTapes().get(0);
+
+    assertEquals(ImmutableList.copyOf(tape), ImmutableList.copyOf(object.getTokens()));
+  }
+
+  @Test
+  public void shouldExposeTokensThroughCursor() throws Exception {
+    JsonTokenTape tape = JsonTokenTape.builder(JsonPath.parse("$.a"))
+      .append(JsonObject.start(), JsonPath.parse("$.a"))
+      .append(JsonName.of("b"), JsonPath.parse("$.a.b"))
+      .append(JsonArray.start(), JsonPath.parse("$.a.b"))
+      .append(JsonString.of("c"), JsonPath.parse("$.a.b[0]"))
+      .append(JsonArray.end(), JsonPath.parse("$.a.b"))
+      .append(JsonObject.end(), JsonPath.parse("$.a"))
+      .build();
+
+    assertEquals(tape.size(), 6);
+    assertEquals(tape.textLength(), 2);
+
+    JsonTokenTape.Cursor cursor = tape.cursor();
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.OBJECT_START);
+    assertEquals(cursor.depth(), 0);
+    assertEquals(cursor.path(), JsonPath.parse("$.a"));
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.NAME);
+    assertEquals(cursor.text(), "b");
+    assertEquals(cursor.depth(), 1);
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.ARRAY_START);
+    assertEquals(cursor.path(), JsonPath.parse("$.a.b"));
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.STRING);
+    assertEquals(cursor.textLength(), 1);
+    assertEquals(cursor.charAt(0), 'c');
+    assertEquals(cursor.depth(), 2);
+    assertEquals(cursor.path(), JsonPath.parse("$.a.b[0]"));
+    assertEquals(cursor.token(), JsonString.of("c"));
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.ARRAY_END);
+    assertTrue(cursor.next());
+    assertEquals(cursor.type(), JsonTokenType.OBJECT_END);
+    assertEquals(cursor.depth(), 0);
+    assertFalse(cursor.next());
+  }
+
+  @Test
+  public void shouldStorePathsNotSeenInEarlierTokens() throws Exception {
+    JsonTokenTape tape = JsonTokenTape.builder(JsonPath.parse("$"))
+      .append(JsonString.of("x"), JsonPath.parse("$.a[2].b"))
+      .append(JsonString.of("y"), JsonPath.parse("$.a[3]"))
+      .build();
+
+    assertEquals(
+      ImmutableList.copyOf(tape),
+      ImmutableList.of(
+        new JsonTokenEvent(JsonString.of("x"), JsonPath.parse("$.a[2].b")),
+        new JsonTokenEvent(JsonString.of("y"), JsonPath.parse("$.a[3]"))
+      )
+    );
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectPathOutsideRoot() throws Exception {
+    JsonTokenTape.builder(JsonPath.parse("$.a"))
+      .append(JsonString.of("b"), JsonPath.parse("$.b"));
+  }
+
+  private static Collected collect(String json, String path) {
+    return new Collected(json, path);
+  }
+
+  private static class Collected {
+    private final String json;
+    private final String path;
+
+    Collected(String json, String path) {
+      this.json = json;
+      this.path = path;
+    }
+
+    List<JsonObjectEvent> collectObjects() {
+      return Observable.just(json).compose(RxJson.parse(path).collectObjects()).toList().toBlocking().single();
+    }
+
+    List<JsonTokenTape> collectTapes() {
+      return Observable.just(json).compose(RxJson.parse(path).collectTapes()).toList().toBlocking().single();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.trunk.rx.json.aggregate;
+
+import com.trunk.rx.json.token.JsonNull;
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonString;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class HyperLogLogTest {
+
+  @Test
+  public void shouldCountFewValuesExactly() throws Exception {
+    HyperLogLog hyperLogLog = HyperLogLog.of();
+    for (int i = 0; i < 3; ++i) {
+      hyperLogLog.add(JsonString.of("a"));
+      hyperLogLog.add(JsonString.of("1"));
+      hyperLogLog.add(JsonNumber.of("1"));
+      hyperLogLog.add(JsonNull.instance());
+    }
+
+    assertEquals(hyperLogLog.estimate(), 3);
+  }
+
+  @Test
+  public void shouldEstimateManyValues() throws Exception {
+    HyperLogLog hyperLogLog = HyperLogLog.of();
+    int distinct = 200_000;
+    for (int i = 0; i < distinct * 2; ++i) {
+      hyperLogLog.add(JsonString.of("id-" + (i % distinct)));
+    }
+
+    double error = Math.abs(hyperLogLog.estimate() - distinct) / (double) distinct;
+    assertTrue(error < 0.03, "error " + error);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectPrecisionOutOfRange() throws Exception {
+    HyperLogLog.of(HyperLogLog.MAX_PRECISION + 1);
+  }
+}
@@ -0,0 +1,97 @@
+package com.trunk.rx.json.element;
+
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.Arrays;
+
+import static com.trunk.rx.json.Assert.assertEquals;
+import static com.trunk.rx.json.Assert.assertEqualsString;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JsonArrayTest {
+  @Test
+  public void shouldBuildArray() throws Exception {
+    JsonArray.Builder<JsonElement> builder = JsonArray.builder()
+      .add(RxJson.valueBuilder().create(1))
+      .addAll(Arrays.asList(RxJson.valueBuilder().create("a"), RxJson.valueBuilder().Null()));
+    JsonArray<JsonElement> array = builder.build();
+    builder.add(RxJson.valueBuilder().create(false));
+
+    assertEquals(array, "[1,\"a\",null]");
+    assertEquals(array.add(RxJson.newArray()), "[1,\"a\",null,[]]");
+    assertEquals(array, "[1,\"a\",null]");
+    assertEquals(builder.build(), "[1,\"a\",null,false]");
+  }
+
+  @Test
+  public void shouldBuildLargeArray() throws Exception {
+    JsonArray.Builder<JsonElement> builder = RxJson.newArrayBuilder();
+    StringBuilder expected = new StringBuilder("[");
+    for (int i = 0; i < 10_000; ++i) {
+      builder.add(RxJson.valueBuilder().create(i));
+      expected.append(i == 0 ? "" : ",").append(i);
+    }
+    assertEqualsString(builder.build(), expected.append("]").toString());
+  }
+
+  @Test
+  public void shouldKnowTokensOfValues() throws Exception {
+    JsonArray<JsonElement> known = RxJson.newArray(
+      RxJson.valueBuilder().create(1),
+      RxJson.newObject().add("a", RxJson.valueBuilder().create("b"))
+    );
+    JsonArray<JsonElement> unknown = known.add(JsonArray.of(Observable.just(RxJson.valueBuilder().create(2))));
+
+    assertTrue(known.getKnownTokens().isPresent());
+    assertEqualsString(Observable.from(known.getKnownTokens().get()), "[1,{\"a\":\"b\"}]");
+    assertFalse(unknown.getKnownTokens().isPresent());
+    assertEqualsString(unknown, "[1,{\"a\":\"b\"},[2]]");
+  }
+
+  @Test
+  public void shouldSubscribeToValuesEagerlyInOrder() throws Exception {
+    PublishSubject<JsonElement> a = PublishSubject.create();
+    PublishSubject<JsonElement> b = PublishSubject.create();
+    PublishSubject<JsonElement> c = PublishSubject.create();
+    TestSubscriber<String> ts = new TestSubscriber<>();
+
+    JsonArray.<JsonElement>builder()
+      .add(new TestElement(a.concatMap(element -> element)))
+      .add(new TestElement(b.concatMap(element -> element)))
+      .add(new TestElement(c.concatMap(element -> element)))
+      .eager(2)
+      .build()
+      .compose(RxJson.toJson())
+      .reduce("", String::concat)
+      .subscribe(ts);
+
+    assertTrue(a.hasObservers());
+    assertTrue(b.hasObservers());
+    assertFalse(c.hasObservers());
+
+    b.onNext(RxJson.valueBuilder().create(2));
+    b.onCompleted();
+    a.onNext(RxJson.valueBuilder().create(1));
+    a.onCompleted();
+
+    assertTrue(c.hasObservers());
+
+    c.onNext(RxJson.valueBuilder().create(3));
+    c.onCompleted();
+
+    ts.assertValue("[1,2,3]");
+    ts.assertCompleted();
+  }
+
+  private static final class TestElement extends JsonElement {
+    TestElement(Observable<JsonToken> tokens) {
+      super(tokens);
+    }
+  }
+}
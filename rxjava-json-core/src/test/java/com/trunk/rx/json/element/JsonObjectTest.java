@@ -5,10 +5,13 @@ import com.trunk.rx.json.token.JsonNull;
 import org.testng.annotations.Test;
 import rx.Observable;
 import rx.schedulers.Schedulers;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
 
 import java.util.stream.Stream;
 
 import static com.trunk.rx.json.Assert.assertEquals;
+import static com.trunk.rx.json.Assert.assertEqualsString;
 
 public class JsonObjectTest {
   @Test
@@ -79,4 +82,104 @@ public class JsonObjectTest {
       "{\"a\":\"b\"}"
     );
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldBuildObject() throws Exception {
+    JsonObject.Builder<JsonElement> builder = JsonObject.builder()
+      .add("a", RxJson.valueBuilder().create("b"))
+      .add("c", Observable.empty());
+    JsonObject<JsonElement> object = builder.build();
+    builder.add("d", RxJson.valueBuilder().create(1));
+
+    assertEquals(object, "{\"a\":\"b\", \"c\":null}");
+    assertEquals(object.add("e", RxJson.valueBuilder().create(true)), "{\"a\":\"b\", \"c\":null, \"e\":true}");
+    assertEquals(object, "{\"a\":\"b\", \"c\":null}");
+    assertEquals(builder.suppressNulls(true).build(), "{\"a\":\"b\", \"d\":1}");
+  }
+
+  @Test
+  public void shouldBuildLargeObject() throws Exception {
+    JsonObject.Builder<JsonElement> builder = JsonObject.builder();
+    StringBuilder expected = new StringBuilder("{");
+    for (int i = 0; i < 10_000; ++i) {
+      builder.add("k" + i, RxJson.valueBuilder().create(i));
+      expected.append(i == 0 ? "" : ",").append("\"k").append(i).append("\":").append(i);
+    }
+    assertEqualsString(builder.build(), expected.append("}").toString());
+  }
+
+  @Test
+  public void shouldPrerender() throws Exception {
+    JsonObject<JsonElement> object = RxJson.newObject(
+      JsonObject.entry("name", RxJson.valueBuilder().create("caf\u00e9 \"\u20ac\"")),
+      JsonObject.entry("values", RxJson.newArray(RxJson.valueBuilder().create(1), RxJson.valueBuilder().Null()))
+    );
+    JsonElement rendered = object.prerender();
+    String json = "{\"name\":\"caf\u00e9 \\\"\u20ac\\\"\",\"values\":[1,null]}";
+
+    assertEqualsString(rendered, json);
+    org.testng.Assert.assertEquals(rendered.getKnownTokens().get().size(), 1);
+    org.testng.Assert.assertSame(rendered.prerender(), rendered);
+    assertEqualsString(RxJson.newArray(rendered, rendered), "[" + json + "," + json + "]");
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldNotPrerenderObservableValues() throws Exception {
+    RxJson.newObject().add("a", Observable.just(RxJson.valueBuilder().create(1))).prerender();
+  }
+
+  @Test
+  public void shouldSubscribeToValuesEagerlyInOrder() throws Exception {
+    PublishSubject<JsonElement> a = PublishSubject.create();
+    PublishSubject<JsonElement> b = PublishSubject.create();
+    TestSubscriber<String> ts = new TestSubscriber<>();
+
+    RxJson.newObject()
+      .add("a", a)
+      .add("b", b)
+      .eager(2)
+      .compose(RxJson.toJson())
+      .reduce("", String::concat)
+      .subscribe(ts);
+
+    org.testng.Assert.assertTrue(a.hasObservers());
+    org.testng.Assert.assertTrue(b.hasObservers());
+
+    b.onNext(RxJson.valueBuilder().create(2));
+    b.onCompleted();
+    a.onNext(RxJson.valueBuilder().create(1));
+    a.onCompleted();
+
+    ts.assertValue("{\"a\":1,\"b\":2}");
+    ts.assertCompleted();
+  }
+
+  @Test
+  public void shouldSubscribeToValuesInTurnByDefault() throws Exception {
+    PublishSubject<JsonElement> a = PublishSubject.create();
+    PublishSubject<JsonElement> b = PublishSubject.create();
+    TestSubscriber<String> ts = new TestSubscriber<>();
+
+    RxJson.newObject()
+      .add("a", a)
+      .add("b", b)
+      .compose(RxJson.toJson())
+      .reduce("", String::concat)
+      .subscribe(ts);
+
+    org.testng.Assert.assertTrue(a.hasObservers());
+    org.testng.Assert.assertFalse(b.hasObservers());
+
+    a.onNext(RxJson.valueBuilder().create(1));
+    a.onCompleted();
+    b.onNext(RxJson.valueBuilder().create(2));
+    b.onCompleted();
+
+    ts.assertValue("{\"a\":1,\"b\":2}");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldRequirePositiveConcurrency() throws Exception {
+    RxJson.newObject().eager(0);
+  }
+}
@@ -1,9 +1,11 @@
 package com.trunk.rx.json.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.trunk.rx.json.JsonObjectEvent;
 import com.trunk.rx.json.JsonPathEvent;
 import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.RxJson;
 import com.trunk.rx.json.path.JsonPath;
 import com.trunk.rx.json.path.NoopToken;
 import com.trunk.rx.json.token.JsonArray;
@@ -283,4 +285,115 @@ public class OperatorCollectObjectsTest {
     );
     assertEquals(emitted[0], 11);
   }
+
+  @Test
+  public void shouldCollectNestedObjects() throws Exception {
+    JsonTokenEvent start = new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a"));
+    JsonTokenEvent b0 = new JsonTokenEvent(JsonString.of("b"), JsonPath.parse("$.a[0]"));
+    JsonTokenEvent c1 = new JsonTokenEvent(JsonString.of("c"), JsonPath.parse("$.a[1]"));
+    JsonTokenEvent end = new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.a"));
+    TestSubscriber<JsonObjectEvent> ts = new TestSubscriber<>();
+    Observable.just(
+      new JsonPathEvent(JsonPath.parse("$.a"), start),
+      new JsonPathEvent(JsonPath.parse("$.a"), b0),
+      new JsonPathEvent(JsonPath.parse("$.a[0]"), b0),
+      new JsonPathEvent(JsonPath.parse("$.a"), c1),
+      new JsonPathEvent(JsonPath.parse("$.a[1]"), c1),
+      new JsonPathEvent(JsonPath.parse("$.a"), end),
+      new JsonPathEvent(NoopToken.instance(), new JsonTokenEvent(JsonDocumentEnd.instance(), NoopToken.instance()))
+    )
+      .lift(new OperatorCollectObjects())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonObjectEvent(JsonPath.parse("$.a[0]"), ImmutableList.of(b0)),
+      new JsonObjectEvent(JsonPath.parse("$.a[1]"), ImmutableList.of(c1)),
+      new JsonObjectEvent(JsonPath.parse("$.a"), ImmutableList.of(start, b0, c1, end))
+    );
+  }
+
+  @Test
+  public void shouldCollectOpenObjectsOnCompletion() throws Exception {
+    JsonTokenEvent start = new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a"));
+    JsonTokenEvent b0 = new JsonTokenEvent(JsonString.of("b"), JsonPath.parse("$.a[0]"));
+    JsonTokenEvent end = new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.a"));
+    TestSubscriber<JsonObjectEvent> ts = new TestSubscriber<>();
+    Observable.just(
+      new JsonPathEvent(JsonPath.parse("$.a"), start),
+      new JsonPathEvent(JsonPath.parse("$.a"), b0),
+      new JsonPathEvent(JsonPath.parse("$.a[0]"), b0),
+      new JsonPathEvent(JsonPath.parse("$.a"), end)
+    )
+      .lift(new OperatorCollectObjects())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonObjectEvent(JsonPath.parse("$.a[0]"), ImmutableList.of(b0)),
+      new JsonObjectEvent(JsonPath.parse("$.a"), ImmutableList.of(start, b0, end))
+    );
+  }
+
+  @Test
+  public void shouldCollectNestedParsedObjects() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"orders\":[{\"id\":1,\"lines\":[{\"sku\":\"a\"},{\"sku\":\"b\"}]},{\"id\":2,\"lines\":[]}]}")
+      .compose(RxJson.parse("$.orders[*]", "$.orders[*].lines[*]").nested().collectObjects())
+      .map(o -> o.getPath() + "=" + Iterables.size(o.getTokens()))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      "$.orders[0].lines[0]=4",
+      "$.orders[0].lines[1]=4",
+      "$.orders[0]=15",
+      "$.orders[1]=7"
+    );
+  }
+
+  @Test
+  public void shouldCollectProjectedObjects() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"items\":[{\"id\":1,\"meta\":{\"id\":9,\"x\":[1,{\"y\":2}]},\"price\":2.5,\"tags\":[\"a\"],\"sku\":\"a\"},{\"sku\":\"b\",\"note\":\"}]\"}]}")
+      .compose(RxJson.parse("$.items[*]").project("id", "sku").collectObjects())
+      .map(o -> Observable.from(o.getTokens()).map(e -> e.getToken().value()).reduce("", String::concat).toBlocking().single())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      "{id1skua}",
+      "{skub}"
+    );
+  }
+
+  @Test
+  public void shouldOnlyProjectMatchedObjects() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{a:{b:{c:1,d:2},c:3,d:4}}")
+      .compose(RxJson.parse("$.a").lenient().project("b", "c").collectObjects())
+      .map(o -> Observable.from(o.getTokens()).map(e -> e.getToken().value()).reduce("", String::concat).toBlocking().single())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("{b{c1d2}c3}");
+  }
+
+  @Test
+  public void shouldKeepFilteredFieldWhenProjecting() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("[{\"id\":1,\"ok\":true,\"x\":1},{\"id\":2,\"ok\":false,\"x\":2}]")
+      .compose(RxJson.parse("$[?(@.ok == true)]").project("id").collectObjects())
+      .map(o -> Observable.from(o.getTokens()).map(e -> e.getToken().value()).reduce("", String::concat).toBlocking().single())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("{id1oktrue}");
+  }
 }
@@ -685,6 +685,27 @@ public class OperatorJsonTokenTest {
       .run();
   }
 
+  @Test
+  public void shouldSkipMembersNoPathSelects() throws Exception {
+    should("skip members no path selects")
+      .given(BASE_PARSER.select(ImmutableList.of(JsonPath.parse("$.m[match('cpu\\..*')]"), JsonPath.parse("$.m.mem"))))
+      .when("{\"m\":{\"cpu.user\":1,\"disk\":{\"a\":[2]},\"mem\":3,\"cpu\":4},\"x\":{\"cpu.y\":5}}")
+      .then(
+        JsonObject.start(),
+        JsonName.of("m"),
+        JsonObject.start(),
+        JsonName.of("cpu.user"),
+        JsonNumber.of("1"),
+        JsonName.of("mem"),
+        JsonNumber.of("3"),
+        JsonObject.end(),
+        JsonObject.end(),
+        JsonDocumentEnd.instance()
+      )
+      .then(Is.COMPLETED)
+      .run();
+  }
+
   @Test
   public void shouldRejectAlternateNameValueSeparatorEquals() throws Exception {
     should("reject alternate name value separator =")
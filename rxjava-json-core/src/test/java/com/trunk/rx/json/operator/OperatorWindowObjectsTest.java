@@ -0,0 +1,175 @@
+package com.trunk.rx.json.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.path.NoopToken;
+import com.trunk.rx.json.token.JsonArray;
+import com.trunk.rx.json.token.JsonDocumentEnd;
+import com.trunk.rx.json.token.JsonString;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observables.GroupedObservable;
+import rx.observers.TestSubscriber;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class OperatorWindowObjectsTest {
+
+  private static Observable<JsonPathEvent> twoObjects() {
+    return Observable.just(
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a"))),
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonString.of("a"), JsonPath.parse("$.a[0]"))),
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.a"))),
+      new JsonPathEvent(JsonPath.parse("$.b"), new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.b"))),
+      new JsonPathEvent(JsonPath.parse("$.b"), new JsonTokenEvent(JsonString.of("b"), JsonPath.parse("$.b[0]"))),
+      new JsonPathEvent(JsonPath.parse("$.b"), new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.b"))),
+      new JsonPathEvent(NoopToken.instance(), new JsonTokenEvent(JsonDocumentEnd.instance(), NoopToken.instance()))
+    );
+  }
+
+  @Test
+  public void shouldEmitWindowPerObject() throws Exception {
+    TestSubscriber<List<JsonTokenEvent>> ts = new TestSubscriber<>();
+    twoObjects()
+      .lift(new OperatorWindowObjects())
+      .concatMap(Observable::toList)
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    assertEquals(
+      ts.getOnNextEvents(),
+      ImmutableList.of(
+        ImmutableList.of(
+          new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a")),
+          new JsonTokenEvent(JsonString.of("a"), JsonPath.parse("$.a[0]")),
+          new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.a"))
+        ),
+        ImmutableList.of(
+          new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.b")),
+          new JsonTokenEvent(JsonString.of("b"), JsonPath.parse("$.b[0]")),
+          new JsonTokenEvent(JsonArray.end(), JsonPath.parse("$.b"))
+        )
+      )
+    );
+  }
+
+  @Test
+  public void shouldKeyWindowsByMatchedPath() throws Exception {
+    TestSubscriber<JsonPath> ts = new TestSubscriber<>();
+    twoObjects()
+      .lift(new OperatorWindowObjects())
+      .concatMap(w -> w.ignoreElements().cast(JsonPath.class).concatWith(Observable.just(w.getKey())))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(JsonPath.parse("$.a"), JsonPath.parse("$.b"));
+  }
+
+  @Test
+  public void shouldSplitSamePathInDifferentDocuments() throws Exception {
+    TestSubscriber<Integer> ts = new TestSubscriber<>();
+    Observable.just(
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonString.of("a"), JsonPath.parse("$.a"))),
+      new JsonPathEvent(NoopToken.instance(), new JsonTokenEvent(JsonDocumentEnd.instance(), NoopToken.instance())),
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonString.of("a"), JsonPath.parse("$.a"))),
+      new JsonPathEvent(NoopToken.instance(), new JsonTokenEvent(JsonDocumentEnd.instance(), NoopToken.instance()))
+    )
+      .lift(new OperatorWindowObjects())
+      .concatMap(Observable::count)
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(1, 1);
+  }
+
+  @Test
+  public void shouldStreamTokensWithBackPressure() throws Exception {
+    int[] emitted = {0};
+    TestSubscriber<GroupedObservable<JsonPath, JsonTokenEvent>> windows = new TestSubscriber<>(1);
+    twoObjects()
+      .doOnNext(e -> emitted[0] += 1)
+      .lift(new OperatorWindowObjects())
+      .subscribe(windows);
+
+    windows.assertValueCount(1);
+    assertEquals(emitted[0], 1);
+
+    TestSubscriber<JsonTokenEvent> tokens = new TestSubscriber<>(0);
+    windows.getOnNextEvents().get(0).subscribe(tokens);
+    tokens.assertNoValues();
+    assertEquals(emitted[0], 1);
+
+    tokens.requestMore(1);
+    tokens.assertValue(new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a")));
+    assertEquals(emitted[0], 1);
+
+    tokens.requestMore(2);
+    tokens.assertValueCount(3);
+    tokens.assertNotCompleted();
+    assertEquals(emitted[0], 3);
+
+    tokens.requestMore(1);
+    tokens.assertCompleted();
+    windows.assertValueCount(1);
+    windows.assertNotCompleted();
+
+    windows.requestMore(1);
+    windows.assertValueCount(2);
+  }
+
+  @Test
+  public void shouldSkipUnsubscribedWindow() throws Exception {
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    twoObjects()
+      .lift(new OperatorWindowObjects())
+      .concatMap(w -> w.getKey().equals(JsonPath.parse("$.a")) ? w.take(1).count().map(Integer::longValue) : w.countLong())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(1L, 3L);
+  }
+
+  @Test
+  public void shouldPassOnErrorToOpenWindow() throws Exception {
+    RuntimeException exception = new RuntimeException();
+    TestSubscriber<JsonTokenEvent> ts = new TestSubscriber<>();
+    Observable.just(
+      new JsonPathEvent(JsonPath.parse("$.a"), new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a")))
+    )
+      .concatWith(Observable.error(exception))
+      .lift(new OperatorWindowObjects())
+      .concatMap(w -> w)
+      .subscribe(ts);
+
+    ts.assertError(exception);
+    ts.assertValue(new JsonTokenEvent(JsonArray.start(), JsonPath.parse("$.a")));
+  }
+
+  @Test
+  public void shouldWindowParsedObjects() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":[1,2,3],\"b\":{\"c\":\"d\"}}")
+      .compose(RxJson.parse("$.a", "$.b").windowObjects())
+      .concatMap(
+        w -> w.map(JsonTokenEvent::getToken)
+          .map(JsonToken::value)
+          .reduce("", String::concat)
+          .map(s -> w.getKey() + "=" + s)
+      )
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.a=[123]", "$.b={cd}");
+  }
+}
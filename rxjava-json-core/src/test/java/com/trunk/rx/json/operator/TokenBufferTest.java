@@ -0,0 +1,44 @@
+package com.trunk.rx.json.operator;
+
+import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.path.JsonPath;
+import com.trunk.rx.json.token.JsonNumber;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class TokenBufferTest {
+
+  @Test
+  public void shouldKeepRangesWhileAppending() throws Exception {
+    TokenBuffer buffer = new TokenBuffer();
+    List<JsonTokenEvent> expected = new ArrayList<>();
+    List<List<JsonTokenEvent>> ranges = new ArrayList<>();
+    for (int i = 0; i < 5000; ++i) {
+      JsonTokenEvent token = new JsonTokenEvent(JsonNumber.of(Integer.toString(i)), JsonPath.parse("$[" + i + "]"));
+      buffer.add(token);
+      expected.add(token);
+      if (i % 7 == 0) {
+        ranges.add(buffer.range(i / 2, i + 1));
+      }
+    }
+
+    assertEquals(buffer.size(), 5000);
+    assertEquals(buffer.range(0, 5000), expected);
+    assertEquals(buffer.range(10, 10).size(), 0);
+    for (List<JsonTokenEvent> range : ranges) {
+      int end = Integer.parseInt(range.get(range.size() - 1).getToken().value()) + 1;
+      assertEquals(range, expected.subList(end - range.size(), end));
+    }
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void shouldRejectRangeNotYetAppended() throws Exception {
+    TokenBuffer buffer = new TokenBuffer();
+    buffer.add(new JsonTokenEvent(JsonNumber.of("1"), JsonPath.parse("$")));
+    buffer.range(0, 2);
+  }
+}
@@ -0,0 +1,119 @@
+package com.trunk.rx.json.path;
+
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.exception.MalformedPathException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class JsonPathCacheTest {
+
+  @Test
+  public void shouldReturnCachedPath() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(10);
+
+    JsonPath path = cache.parse("$.a.*.b");
+
+    assertSame(cache.parse("$.a.*.b"), path);
+    assertEquals(path, JsonPath.from(RootToken.instance(), ObjectToken.of("a"), WildcardToken.object(), ObjectToken.of("b")));
+    assertEquals(cache.stats().getHitCount(), 1);
+    assertEquals(cache.stats().getMissCount(), 1);
+    assertEquals(cache.stats().hitRate(), 0.5);
+  }
+
+  @Test
+  public void shouldShareEqualPaths() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(10);
+
+    JsonPath path = cache.parse("$.a");
+
+    assertSame(cache.parse("$['a']"), path);
+    assertSame(cache.intern(JsonPath.from(RootToken.instance(), ObjectToken.of("a"))), path);
+    assertEquals(cache.stats().getMissCount(), 2);
+    assertEquals(cache.stats().getSize(), 2);
+  }
+
+  @Test
+  public void shouldShareCompiledAutomaton() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(10);
+
+    assertSame(cache.parse("$..a").automaton(), cache.parse("$..a").automaton());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedPath() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(2);
+
+    JsonPath a = cache.parse("$.a");
+    cache.parse("$.b");
+    cache.parse("$.a");
+    cache.parse("$.c");
+
+    assertSame(cache.parse("$.a"), a);
+    assertEquals(cache.stats().getEvictionCount(), 1);
+    assertEquals(cache.stats().getSize(), 2);
+    assertEquals(cache.stats().getHitCount(), 2);
+    cache.parse("$.b");
+    assertEquals(cache.stats().getMissCount(), 4);
+  }
+
+  @Test
+  public void shouldStayBoundedWhenSharedBetweenThreads() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(8);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> parses = new ArrayList<>();
+      for (int t = 0; t < 4; ++t) {
+        parses.add(executor.submit(() -> {
+          for (int i = 0; i < 1000; ++i) {
+            String path = "$.a" + (i % 16);
+            assertEquals(cache.parse(path), JsonPath.parseUncached(path));
+          }
+        }));
+      }
+      for (Future<?> parse : parses) {
+        parse.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(cache.stats().getHitCount() + cache.stats().getMissCount(), 4000);
+    assertTrue(cache.stats().getSize() <= 8);
+    assertSame(cache.parse("$.a0"), cache.parse("$['a0']"));
+  }
+
+  @Test
+  public void shouldNotCacheMalformedPath() throws Exception {
+    JsonPathCache cache = JsonPathCache.of(10);
+
+    for (int i = 0; i < 2; ++i) {
+      try {
+        cache.parse("$.");
+        fail("expected MalformedPathException");
+      } catch (MalformedPathException e) {
+        // expected
+      }
+    }
+    assertEquals(cache.stats().getMissCount(), 2);
+    assertEquals(cache.stats().getSize(), 0);
+  }
+
+  @Test
+  public void shouldParseThroughDefaultCache() throws Exception {
+    assertSame(JsonPath.parse("$.shouldParseThroughDefaultCache"), RxJson.path("$.shouldParseThroughDefaultCache"));
+    assertSame(RxJson.pathCache(), JsonPathCache.defaultCache());
+    assertNotSame(JsonPath.parseUncached("$.shouldParseThroughDefaultCache"), JsonPath.parse("$.shouldParseThroughDefaultCache"));
+  }
+}
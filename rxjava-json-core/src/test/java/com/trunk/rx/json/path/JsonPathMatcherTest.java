@@ -0,0 +1,161 @@
+package com.trunk.rx.json.path;
+
+import com.trunk.rx.json.JsonPathEvent;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JsonPathMatcherTest {
+
+  private static final List<String> PATTERNS = Arrays.asList(
+    "$", "$.a", "$..a", "$..b", "$.a..b", "$..a..b", "$..a.b", "$..[1]", "$.a[*]..c", "$..[0:2].a"
+  );
+
+  private static final List<String> PATHS = Arrays.asList(
+    "$", "$.a", "$.b", "$.a.b", "$.a.a.b", "$.a.c.b", "$.a.b.b", "$.c.a.d.b", "$.a[1]", "$.a[1].c", "$.a[0].a",
+    "$.a[1].x.c", "$.b.a", "$.b.a.b", "$.a[1].a.b", "$.x[0].a"
+  );
+
+  @Test
+  public void shouldMatchAsJsonPath() throws Exception {
+    for (String pattern : PATTERNS) {
+      JsonPath path = JsonPath.parse(pattern);
+      JsonPathMatcher matcher = JsonPathMatcher.of(path);
+      for (String p : PATHS) {
+        JsonPath pathToTest = JsonPath.parse(p);
+        assertEquals(matcher.matchedFragment(pathToTest), backtrack(path, pathToTest), pattern + " " + p);
+        assertEquals(matcher.matches(pathToTest), backtrack(path, pathToTest).isPresent(), pattern + " " + p);
+        assertEquals(path.matchedFragment(pathToTest), backtrack(path, pathToTest), pattern + " " + p);
+      }
+    }
+  }
+
+  @Test
+  public void shouldMatchAsJsonPathInAnyOrder() throws Exception {
+    List<String> paths = new ArrayList<>(PATHS);
+    Collections.reverse(paths);
+    paths.addAll(PATHS);
+    for (String pattern : PATTERNS) {
+      JsonPath path = JsonPath.parse(pattern);
+      JsonPathMatcher matcher = JsonPathMatcher.of(path);
+      for (String p : paths) {
+        JsonPath pathToTest = JsonPath.parse(p);
+        assertEquals(matcher.matchedFragment(pathToTest), backtrack(path, pathToTest), pattern + " " + p);
+      }
+    }
+  }
+
+  @Test
+  public void shouldNotReuseFragmentAfterPrefixChanges() throws Exception {
+    JsonPathMatcher matcher = JsonPathMatcher.of(JsonPath.parse("$.*"));
+
+    assertEquals(matcher.matchedFragment(JsonPath.parse("$.a.x")), Optional.of(JsonPath.parse("$.a")));
+    assertEquals(matcher.matchedFragment(JsonPath.parse("$.b")), Optional.of(JsonPath.parse("$.b")));
+    assertEquals(matcher.matchedFragment(JsonPath.parse("$.b.y")), Optional.of(JsonPath.parse("$.b")));
+  }
+
+  @Test
+  public void shouldMatchRecursiveDescentInDeepPath() throws Exception {
+    JsonPathMatcher matcher = JsonPathMatcher.of(JsonPath.parse("$..a..id"));
+    JsonPath deep = deepPath(150, "id");
+
+    assertEquals(matcher.matchedFragment(deep), Optional.of(deep));
+    assertEquals(JsonPath.parse("$..a..id").matchedFragment(deep), Optional.of(deep));
+    assertFalse(matcher.matches(deepPath(150, "x")));
+    assertTrue(matcher.matches(deep));
+  }
+
+  @Test
+  public void shouldFallBackForLongPaths() throws Exception {
+    StringBuilder pattern = new StringBuilder("$");
+    for (int i = 0; i < PathAutomaton.MAX_STEPS + 1; ++i) {
+      pattern.append("..a");
+    }
+    JsonPath path = JsonPath.parse(pattern.toString());
+    JsonPath deep = deepPath(PathAutomaton.MAX_STEPS + 1, "a");
+
+    assertFalse(PathAutomaton.compile(path).isPresent());
+    assertTrue(JsonPathMatcher.of(path).matches(deep));
+    assertFalse(JsonPathMatcher.of(path).matches(deepPath(PathAutomaton.MAX_STEPS, "b")));
+  }
+
+  @Test
+  public void shouldParseRecursiveDescentInDeepDocument() throws Exception {
+    int depth = 200;
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < depth; ++i) {
+      json.append("{\"id\":").append(i).append(",\"a\":");
+    }
+    json.append("null");
+    for (int i = 0; i < depth; ++i) {
+      json.append('}');
+    }
+    TestSubscriber<Integer> ts = new TestSubscriber<>();
+
+    Observable.just(json.toString())
+      .compose(RxJson.parse("$..id"))
+      .map(JsonPathEvent::getTokenEvent)
+      .map(e -> e.getToken())
+      .filter(JsonToken::isNumber)
+      .map(t -> Integer.parseInt(t.value()))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValueCount(depth);
+    assertEquals(ts.getOnNextEvents().get(depth - 1).intValue(), depth - 1);
+  }
+
+  private static JsonPath deepPath(int depth, String last) {
+    List<JsonPath> tokens = new ArrayList<>();
+    tokens.add(RootToken.instance());
+    for (int i = 0; i < depth; ++i) {
+      tokens.add(ObjectToken.of("a"));
+      tokens.add(ArrayIndexToken.of(i));
+    }
+    tokens.add(ObjectToken.of(last));
+    return JsonPath.from(tokens);
+  }
+
+  // the original backtracking match
+  private static Optional<JsonPath> backtrack(JsonPath path, JsonPath pathToTest) {
+    return backtrack(Optional.of(path), Optional.of(pathToTest), new ArrayList<>()).map(JsonPath::from);
+  }
+
+  private static Optional<List<JsonPath>> backtrack(Optional<JsonPath> path, Optional<JsonPath> pathToTest, List<JsonPath> matched) {
+    if (!path.isPresent()) {
+      return Optional.of(matched);
+    }
+    JsonPath step = path.get();
+    if (step instanceof RecursiveToken) {
+      Optional<JsonPath> p = pathToTest;
+      List<JsonPath> skipped = new ArrayList<>(matched);
+      while (p.isPresent()) {
+        Optional<List<JsonPath>> result = backtrack(step.nextPathToken, p, new ArrayList<>(skipped));
+        if (result.isPresent()) {
+          return result;
+        }
+        skipped.add(p.get());
+        p = p.get().nextPathToken;
+      }
+      return Optional.empty();
+    }
+    if (!pathToTest.isPresent() || !step.matchesFragment(pathToTest.get())) {
+      return Optional.empty();
+    }
+    matched.add(pathToTest.get());
+    return backtrack(step.nextPathToken, pathToTest.get().nextPathToken, matched);
+  }
+}
@@ -45,24 +45,69 @@ public class JsonPathParserTest {
     PARSER.parse("$.a['1'");
   }
 
+  @Test
+  public void shouldParseArrayFilter() throws Exception {
+    assertEquals(
+      PARSER.parse("$.a[?(@.isbn)]"),
+      ImmutableList.of(RootToken.instance(), ObjectToken.of("a"), FilterToken.of("isbn", FilterToken.Operator.EXISTS, ImmutableList.of()))
+    );
+  }
+
+  @Test
+  public void shouldParseNegativeInSliceStart() throws Exception {
+    assertEquals(
+      PARSER.parse("$.a[-1:]"),
+      ImmutableList.of(RootToken.instance(), ObjectToken.of("a"), ArraySliceToken.of(-1, null))
+    );
+  }
+
+  @Test
+  public void shouldParseNegativeIndex() throws Exception {
+    assertEquals(
+      PARSER.parse("$.a[-1]"),
+      ImmutableList.of(RootToken.instance(), ObjectToken.of("a"), ArrayIndexToken.of(-1))
+    );
+  }
+
+  @Test
+  public void shouldParseNegativeInSliceEnd() throws Exception {
+    assertEquals(
+      PARSER.parse("$.a[:-2]"),
+      ImmutableList.of(RootToken.instance(), ObjectToken.of("a"), ArraySliceToken.of(null, -2))
+    );
+  }
+
+  @Test
+  public void shouldParseNegativePositions() throws Exception {
+    assertEquals(JsonPath.parse("$.a[-5:-2]").toString(), "$.a[-5:-2]");
+    assertEquals(JsonPath.parse("$.a[2:-1]").toString(), "$.a[2:-1]");
+    assertEquals(JsonPath.parse("$.a[-3:2].b").toString(), "$.a[-3:2].b");
+    assertEquals(JsonPath.parse("$.a[-1]").toString(), "$.a[-1]");
+  }
+
   @Test(expectedExceptions = MalformedPathException.class)
-  public void shouldRejectArrayFilter() throws Exception {
-    PARSER.parse("$.a[?(@.isbn)]");
+  public void shouldRejectNegativeSliceOutOfOrder() throws Exception {
+    PARSER.parse("$.a[-1:-3]");
   }
 
   @Test(expectedExceptions = MalformedPathException.class)
-  public void shouldRejectNegativeInSliceStart() throws Exception {
-    PARSER.parse("$.a[-1:]");
+  public void shouldRejectNegativeInStep() throws Exception {
+    PARSER.parse("$.a[-4::2]");
   }
 
   @Test(expectedExceptions = MalformedPathException.class)
-  public void shouldRejectNegativeIndex() throws Exception {
-    PARSER.parse("$.a[-1]");
+  public void shouldRejectNegativeInUnion() throws Exception {
+    PARSER.parse("$.a[1,-1]");
   }
 
   @Test(expectedExceptions = MalformedPathException.class)
-  public void shouldRejectNegativeInSliceEnd() throws Exception {
-    PARSER.parse("$.a[:-2]");
+  public void shouldRejectSignWithoutPosition() throws Exception {
+    PARSER.parse("$.a[-:2]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectMultipleNegativePositions() throws Exception {
+    PARSER.parse("$.a[-1].b[-1]");
   }
 
   @Test(expectedExceptions = MalformedPathException.class)
@@ -285,4 +330,80 @@ public class JsonPathParserTest {
       )
     );
   }
+
+  @Test
+  public void shouldParseFilter() throws Exception {
+    assertEquals(
+      PARSER.parse("$.a[?(@.b == 'c')]"),
+      ImmutableList.of(
+        RootToken.instance(),
+        ObjectToken.of("a"),
+        FilterToken.of("b", FilterToken.Operator.EQ, ImmutableList.of(FilterToken.Literal.string("c")))
+      )
+    );
+  }
+
+  @Test
+  public void shouldParseFilterOperators() throws Exception {
+    assertEquals(JsonPath.parse("$[?(@.b)]").toString(), "$[?(@.b)]");
+    assertEquals(JsonPath.parse("$[?( @['b c'] != \"d\" )]").toString(), "$[?(@['b c'] != 'd')]");
+    assertEquals(JsonPath.parse("$[?(@.b<-1.5e3)]").toString(), "$[?(@.b < -1.5e3)]");
+    assertEquals(JsonPath.parse("$[?(@.b > 2)].c").toString(), "$[?(@.b > 2)].c");
+    assertEquals(JsonPath.parse("$.a[?(@.b in [1, 'x', true, null])]").toString(), "$.a[?(@.b in [1,'x',true,null])]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectFilterAfterRecursiveDescent() throws Exception {
+    PARSER.parse("$..[?(@.price < 10)]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectFilterAnywhereAfterRecursiveDescent() throws Exception {
+    PARSER.parse("$..book[?(@.price < 10)].title");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectMultipleFilters() throws Exception {
+    PARSER.parse("$[?(@.a)][?(@.b)]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectFilterOnNestedField() throws Exception {
+    PARSER.parse("$[?(@.a.b == 1)]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectUnclosedFilter() throws Exception {
+    PARSER.parse("$[?(@.a == 1]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectFilterWithoutValue() throws Exception {
+    PARSER.parse("$[?(@.a == )]");
+  }
+
+  @Test
+  public void shouldParseNamePattern() throws Exception {
+    assertEquals(
+      PARSER.parse("$.tenants[prefix('eu-')]"),
+      ImmutableList.of(RootToken.instance(), ObjectToken.of("tenants"), NamePatternToken.of(NamePattern.prefix("eu-")))
+    );
+  }
+
+  @Test
+  public void shouldParseNamePatternFunctions() throws Exception {
+    assertEquals(JsonPath.parse("$[suffix(\"it's\")]").toString(), "$[suffix('it\\'s')]");
+    assertEquals(JsonPath.parse("$.metrics[match('cpu\\..*')].value").toString(), "$.metrics[match('cpu\\..*')].value");
+    assertEquals(JsonPath.parse("$..[suffix('.count')]").toString(), "$..[suffix('.count')]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectUnknownNamePatternFunction() throws Exception {
+    PARSER.parse("$[contains('x')]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectUnsupportedNamePattern() throws Exception {
+    PARSER.parse("$[match('a{2}')]");
+  }
 }
@@ -132,4 +132,11 @@ public class JsonPathTest {
   public void objectWildcardShouldMatchAnyObject() throws Exception {
     assertEquals(JsonPath.parse("$.*").match(JsonPath.parse("$.a")).toBlocking().single(), JsonPath.parse("$.a"));
   }
+
+  @Test
+  public void namePatternShouldMatchMatchingNames() throws Exception {
+    assertEquals(JsonPath.parse("$[prefix('eu-')]").match(JsonPath.parse("$['eu-west'].id")).toBlocking().single(), JsonPath.parse("$['eu-west']"));
+    assertTrue(JsonPath.parse("$[prefix('eu-')]").match(JsonPath.parse("$['us-east']")).isEmpty().toBlocking().single());
+    assertTrue(JsonPath.parse("$[match('.*')]").match(JsonPath.parse("$[0]")).isEmpty().toBlocking().single());
+  }
 }
@@ -0,0 +1,92 @@
+package com.trunk.rx.json.path;
+
+import com.trunk.rx.json.exception.MalformedPathException;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class NamePatternTest {
+
+  private static final List<String> REGEXES = Arrays.asList(
+    "cpu\\..*", "a|b", "(ab)*c", "a+b?", "[a-c]+", "[^.]*", "\\d+", "\\w+\\.count", "x(y|z)*", "", "a.c", "[-a]", "(a|)+b", "\\S\\s\\W"
+  );
+
+  private static final List<String> NAMES = Arrays.asList(
+    "", "a", "b", "ab", "abc", "ababc", "c", "cpu", "cpu.", "cpu.user", "mem.used", "aab", "aaab", "bbb", "a.b", "123",
+    "x", "xyzzy", "xyq", "a-", "-", "abc.count", "b ?", "\u00e9", "a\u2028c"
+  );
+
+  @Test
+  public void shouldMatchAsRegex() throws Exception {
+    for (String regex : REGEXES) {
+      NamePattern pattern = NamePattern.match(regex);
+      // . matches any character of a name, including line separators
+      Pattern expected = Pattern.compile(regex, Pattern.DOTALL);
+      for (String name : NAMES) {
+        assertEquals(pattern.matches(name), expected.matcher(name).matches(), regex + " " + name);
+        assertEquals(pattern.matches(("_" + name + "_").toCharArray(), 1, name.length()), expected.matcher(name).matches(), regex + " " + name);
+      }
+    }
+  }
+
+  @Test
+  public void shouldMatchPrefixAndSuffix() throws Exception {
+    assertTrue(NamePattern.prefix("eu-").matches("eu-west"));
+    assertTrue(NamePattern.prefix("eu-").matches("eu-"));
+    assertFalse(NamePattern.prefix("eu-").matches("us-east"));
+    assertFalse(NamePattern.prefix("eu-").matches("eu"));
+    assertTrue(NamePattern.suffix(".count").matches("cpu.count"));
+    assertFalse(NamePattern.suffix(".count").matches("cpu.counts"));
+    assertTrue(NamePattern.prefix(".*").matches(".*a"));
+    assertFalse(NamePattern.prefix(".*").matches("a"));
+  }
+
+  @Test
+  public void shouldPrintAsPathFunction() throws Exception {
+    assertEquals(NamePattern.prefix("eu-").toString(), "prefix('eu-')");
+    assertEquals(NamePattern.suffix("it's").toString(), "suffix('it\\'s')");
+    assertEquals(NamePattern.match("cpu\\..*").toString(), "match('cpu\\..*')");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectBackreference() throws Exception {
+    NamePattern.match("(a)\\1");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectCountedRepetition() throws Exception {
+    NamePattern.match("a{2}");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectAnchors() throws Exception {
+    NamePattern.match("^a$");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectUnclosedGroup() throws Exception {
+    NamePattern.match("(a|b");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectUnclosedClass() throws Exception {
+    NamePattern.match("[a-");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectDanglingQuantifier() throws Exception {
+    NamePattern.match("*a");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectPatternsWithTooManyStates() throws Exception {
+    // the automaton must remember the last 12 characters
+    NamePattern.match(".*a............");
+  }
+}
@@ -0,0 +1,87 @@
+package com.trunk.rx.json.token;
+
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class JsonEscaperTest {
+
+  @Test
+  public void shouldReturnValueWithNothingToEscape() throws Exception {
+    String value = "plain text, with 'quotes' and \u00e9";
+    assertSame(JsonEscaper.escape(value), value);
+    assertFalse(JsonEscaper.needsEscaping(value));
+  }
+
+  @Test
+  public void shouldEscapeQuotesBackslashesAndControlCharacters() throws Exception {
+    assertEquals(JsonEscaper.escape("a\"b\\c"), "a\\\"b\\\\c");
+    assertEquals(JsonEscaper.escape("\b\f\n\r\t"), "\\b\\f\\n\\r\\t");
+    assertEquals(JsonEscaper.escape("\u0000x\u001f\u007f"), "\\u0000x\\u001f\u007f");
+    assertTrue(JsonEscaper.needsEscaping("\u0001"));
+  }
+
+  @Test
+  public void shouldEscapeJavaScriptLineTerminators() throws Exception {
+    assertEquals(JsonEscaper.escape("a\u2028b\u2029"), "a\\u2028b\\u2029");
+  }
+
+  @Test
+  public void shouldAppendEscapedValue() throws Exception {
+    StringBuilder builder = new StringBuilder("[");
+    JsonEscaper.appendTo("a\nb", builder);
+    JsonEscaper.appendTo("c", builder);
+    assertEquals(builder.toString(), "[a\\nbc");
+
+    StringWriter writer = new StringWriter();
+    JsonEscaper.appendTo("\"x\"\u2028", writer);
+    assertEquals(writer.toString(), "\\\"x\\\"\\u2028");
+  }
+
+  @Test(enabled = false, description = "escaping cost against chained String.replace")
+  public void shouldEscapeInSinglePass() throws Exception {
+    StringBuilder ascii = new StringBuilder();
+    StringBuilder escapes = new StringBuilder();
+    for (int i = 0; i < 10_000; ++i) {
+      ascii.append("the quick brown fox ").append(i).append(' ');
+      escapes.append("line \"").append(i).append("\"\n\tpath\\to\\file\r\n");
+    }
+    String[][] payloads = {{"ascii", ascii.toString()}, {"escapes", escapes.toString()}};
+    for (int round = 0; round < 5; ++round) {
+      for (String[] payload : payloads) {
+        String value = payload[1];
+        int length = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; ++i) {
+          length += replaceEscape(value).length();
+        }
+        long replaced = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < 20; ++i) {
+          length += JsonEscaper.escape(value).length();
+        }
+        long escaped = System.nanoTime() - start;
+        System.out.println(String.format(
+          "%s: replace %.2f ns/char, escaper %.2f ns/char (%,d)",
+          payload[0], (double) replaced / value.length() / 20, (double) escaped / value.length() / 20, length
+        ));
+      }
+    }
+  }
+
+  private static String replaceEscape(String value) {
+    return value
+      .replace("\\", "\\\\")
+      .replace("\"", "\\\"")
+      .replace("\b", "\\b")
+      .replace("\f", "\\f")
+      .replace("\n", "\\n")
+      .replace("\r", "\\r")
+      .replace("\t", "\\t");
+  }
+}
@@ -0,0 +1,74 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.aggregate.Aggregators;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+public class TransformerAggregateTest {
+
+  private static final String ORDERS =
+    "{\"orders\":[" +
+      "{\"id\":\"a\",\"total\":10.5,\"lines\":[{\"total\":1}]}," +
+      "{\"id\":\"b\",\"total\":-2}," +
+      "{\"id\":\"c\",\"total\":\"n/a\"}," +
+      "{\"id\":\"a\",\"total\":null}," +
+      "{\"id\":\"d\",\"total\":1e2}" +
+    "]}";
+
+  @Test
+  public void shouldAggregateMatchedNumbers() throws Exception {
+    assertAggregate(RxJson.parse("$.orders[*].total").aggregate(Aggregators::count), 4L);
+    assertAggregate(RxJson.parse("$.orders[*].total").aggregate(Aggregators::sum), 108.5);
+    assertAggregate(RxJson.parse("$.orders[*].total").aggregate(Aggregators::min), -2.0);
+    assertAggregate(RxJson.parse("$.orders[*].total").aggregate(Aggregators::max), 100.0);
+    assertAggregate(RxJson.parse("$.orders[*].total").aggregate(Aggregators::mean), 108.5 / 3);
+    assertAggregate(RxJson.parse("$.orders[*].id").aggregate(Aggregators::distinct), 4L);
+  }
+
+  @Test
+  public void shouldNotAggregateValuesWithinMatchedObjects() throws Exception {
+    assertAggregate(RxJson.parse("$.orders[*]").aggregate(Aggregators::count), 0L);
+    assertAggregate(RxJson.parse("$..total").aggregate(Aggregators::sum), 109.5);
+  }
+
+  @Test
+  public void shouldAggregateNothing() throws Exception {
+    assertAggregate(RxJson.parse("$.none").aggregate(Aggregators::sum), 0.0);
+    assertAggregate(RxJson.parse("$.none").aggregate(Aggregators::mean), Double.NaN);
+  }
+
+  @Test
+  public void shouldEmitSnapshots() throws Exception {
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    Observable.just(ORDERS)
+      .compose(RxJson.parse("$.orders[*].total").aggregate(Aggregators::count, 2))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    // a snapshot after every two values, including the null, and the final count
+    ts.assertValues(2L, 3L, 4L);
+  }
+
+  @Test
+  public void shouldAggregateEachSubscriptionSeparately() throws Exception {
+    Observable<Double> sum = Observable.just(ORDERS).compose(RxJson.parse("$.orders[*].total").aggregate(Aggregators::sum));
+
+    TestSubscriber<Double> ts = new TestSubscriber<>();
+    sum.concatWith(sum).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues(108.5, 108.5);
+  }
+
+  private static <T> void assertAggregate(Observable.Transformer<String, T> aggregate, T expected) {
+    TestSubscriber<T> ts = new TestSubscriber<>();
+    Observable.just(ORDERS).compose(aggregate).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValue(expected);
+  }
+}
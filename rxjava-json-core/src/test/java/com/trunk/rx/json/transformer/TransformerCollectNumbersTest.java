@@ -0,0 +1,121 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonNumberChunk;
+import com.trunk.rx.json.RxJson;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TransformerCollectNumbersTest {
+
+  private static final String SERIES =
+    "{\"series\":[" +
+      "{\"name\":\"a\",\"values\":[1.5,2,null,-4e1,5]}," +
+      "{\"name\":\"b\",\"values\":[]}" +
+    "]}";
+
+  @Test
+  public void shouldCollectDoublesInChunks() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just(SERIES)
+      .compose(RxJson.parse("$.series[*].values").collectDoubles(2))
+      .map(TransformerCollectNumbersTest::describe)
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      "$.series[0].values@0[1.5, 2.0]",
+      "$.series[0].values@2[NaN, -40.0]",
+      "$.series[0].values@4[5.0] last",
+      "$.series[1].values@0[] last"
+    );
+  }
+
+  @Test
+  public void shouldCollectDoublesOffHeap() throws Exception {
+    TestSubscriber<JsonNumberChunk<DoubleBuffer>> ts = new TestSubscriber<>();
+    Observable.just("[1,2,3]")
+      .compose(RxJson.parse("$").collectDoubles(8, true))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValueCount(1);
+    DoubleBuffer values = ts.getOnNextEvents().get(0).getValues();
+    assertTrue(values.isDirect());
+    assertEquals(values.remaining(), 3);
+    assertEquals(values.get(2), 3.0);
+  }
+
+  @Test
+  public void shouldCollectLongs() throws Exception {
+    TestSubscriber<JsonNumberChunk<LongBuffer>> ts = new TestSubscriber<>();
+    Observable.just("{\"t\":[1,9007199254740993,-3],\"x\":[4]}")
+      .compose(RxJson.parse("$.t").collectLongs(4))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValueCount(1);
+    LongBuffer values = ts.getOnNextEvents().get(0).getValues();
+    long[] longs = new long[values.remaining()];
+    values.get(longs);
+    assertEquals(longs, new long[] {1, 9007199254740993L, -3});
+  }
+
+  @Test
+  public void shouldFailOnNonNumericElement() throws Exception {
+    TestSubscriber<JsonNumberChunk<LongBuffer>> ts = new TestSubscriber<>();
+    Observable.just("[1,2.5]")
+      .compose(RxJson.parse("$").collectLongs(4))
+      .subscribe(ts);
+
+    ts.assertError(IllegalStateException.class);
+
+    TestSubscriber<JsonNumberChunk<DoubleBuffer>> doubles = new TestSubscriber<>();
+    Observable.just("[1,[2]]")
+      .compose(RxJson.parse("$").collectDoubles(4))
+      .subscribe(doubles);
+
+    doubles.assertError(IllegalStateException.class);
+  }
+
+  @Test
+  public void shouldApplyBackPressure() throws Exception {
+    int size = 10_000;
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < size; ++i) {
+      json.append(i == 0 ? "" : ",").append(i);
+    }
+    int[] emitted = {0};
+    TestSubscriber<JsonNumberChunk<LongBuffer>> ts = new TestSubscriber<>(0);
+    Observable.from(json.append("]").toString().split("(?<=,)"))
+      .doOnNext(s -> emitted[0] += 1)
+      .compose(RxJson.parse("$").collectLongs(100))
+      .subscribe(ts);
+
+    ts.requestMore(1);
+    ts.assertValueCount(1);
+    assertFalse(ts.getOnNextEvents().get(0).isLast());
+    assertTrue(emitted[0] < size / 2, "emitted " + emitted[0]);
+
+    ts.requestMore(Long.MAX_VALUE);
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValueCount(size / 100 + 1);
+    assertEquals(ts.getOnNextEvents().get(size / 100 - 1).getValues().get(99), size - 1);
+  }
+
+  private static String describe(JsonNumberChunk<DoubleBuffer> chunk) {
+    double[] values = new double[chunk.getValues().remaining()];
+    chunk.getValues().get(values);
+    return chunk.getPath() + "@" + chunk.getOffset() + Arrays.toString(values) + (chunk.isLast() ? " last" : "");
+  }
+}
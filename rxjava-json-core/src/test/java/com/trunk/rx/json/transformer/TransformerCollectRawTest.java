@@ -0,0 +1,128 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.JsonRawEvent;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.exception.MalformedJsonException;
+import com.trunk.rx.json.operator.OperatorJsonTokenTest;
+import com.trunk.rx.json.path.JsonPath;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static org.testng.Assert.assertTrue;
+
+public class TransformerCollectRawTest {
+
+  private static final String JSON =
+    "{\"a\": [ 1, {\"b\" : \"c\\\"d\"} ,true,-2.5e3], \"e\":{ }, \"f\":null, \"g\":\"h\"}";
+
+  @Test
+  public void shouldCaptureMatchedObjects() throws Exception {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just(JSON)
+      .compose(RxJson.parse("$.a", "$.e").collectRaw())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonRawEvent(JsonPath.parse("$.a"), "[ 1, {\"b\" : \"c\\\"d\"} ,true,-2.5e3]"),
+      new JsonRawEvent(JsonPath.parse("$.e"), "{ }")
+    );
+  }
+
+  @Test
+  public void shouldCaptureMatchedValues() throws Exception {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just(JSON)
+      .compose(RxJson.parse("$.a[*]", "$.f", "$.g").collectRaw())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonRawEvent(JsonPath.parse("$.a[0]"), "1"),
+      new JsonRawEvent(JsonPath.parse("$.a[1]"), "{\"b\" : \"c\\\"d\"}"),
+      new JsonRawEvent(JsonPath.parse("$.a[2]"), "true"),
+      new JsonRawEvent(JsonPath.parse("$.a[3]"), "-2.5e3"),
+      new JsonRawEvent(JsonPath.parse("$.f"), "null"),
+      new JsonRawEvent(JsonPath.parse("$.g"), "\"h\"")
+    );
+  }
+
+  @Test
+  public void shouldOnlyCaptureOutermostMatch() throws Exception {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":{\"a\":{\"a\":1}},\"b\":[{\"a\":2}]}")
+      .compose(RxJson.parse("$..a").collectRaw())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonRawEvent(JsonPath.parse("$.a"), "{\"a\":{\"a\":1}}"),
+      new JsonRawEvent(JsonPath.parse("$.b[0].a"), "2")
+    );
+  }
+
+  @Test
+  public void shouldCaptureRoot() throws Exception {
+    String json = OperatorJsonTokenTest.bigObject();
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just(json)
+      .compose(RxJson.parse("$").collectRaw())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValue(new JsonRawEvent(JsonPath.parse("$"), json));
+  }
+
+  @Test
+  public void shouldCaptureEachDocumentWhenLenient() throws Exception {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":1} {\"a\":[2]}", " 3 4")
+      .compose(RxJson.parse("$.a", "$").lenient().collectRaw())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      new JsonRawEvent(JsonPath.parse("$"), "{\"a\":1}"),
+      new JsonRawEvent(JsonPath.parse("$"), "{\"a\":[2]}"),
+      new JsonRawEvent(JsonPath.parse("$"), "3"),
+      new JsonRawEvent(JsonPath.parse("$"), "4")
+    );
+  }
+
+  @Test
+  public void shouldFailOnInvalidCapturedValue() throws Exception {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":[tru]}")
+      .compose(RxJson.parse("$.a").collectRaw())
+      .subscribe(ts);
+
+    ts.assertError(MalformedJsonException.class);
+    ts.assertNoValues();
+  }
+
+  @Test
+  public void shouldReportPathOfCapturedValueOnError() throws Exception {
+    assertErrorPath("{\"a\":{\"b\":[1,{\"c\": x}]}}", "$.a", "path $.a");
+    assertErrorPath("{\"a\":{\"b\":[1,{\"c\": x}]}}", "$.a.b[*]", "path $.a.b[1]");
+    assertErrorPath("{\"a\":[1,2 x]}", "$.a", "path $.a");
+    assertErrorPath("[[1], [2, x]]", "$[*]", "path $[1]");
+    assertErrorPath("[1, x]", "$[*]", "path $[1]");
+  }
+
+  private static void assertErrorPath(String json, String path, String expected) {
+    TestSubscriber<JsonRawEvent> ts = new TestSubscriber<>();
+    Observable.just(json)
+      .compose(RxJson.parse(path).collectRaw())
+      .subscribe(ts);
+
+    ts.assertError(MalformedJsonException.class);
+    String message = ts.getOnErrorEvents().get(0).getMessage();
+    assertTrue(message.endsWith(expected), message);
+  }
+}
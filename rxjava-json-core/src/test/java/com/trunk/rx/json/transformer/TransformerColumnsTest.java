@@ -0,0 +1,127 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.column.ColumnBatch;
+import com.trunk.rx.json.column.ColumnSpec;
+import com.trunk.rx.json.column.ColumnType;
+import com.trunk.rx.json.exception.MalformedPathException;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TransformerColumnsTest {
+
+  private static final ColumnSpec SPEC = ColumnSpec.of()
+    .with("id", ColumnType.LONG)
+    .with("price", ColumnType.DOUBLE)
+    .with("inStock", ColumnType.BOOLEAN)
+    .with("meta.category", ColumnType.STRING)
+    .with("['tags'][1]", ColumnType.STRING);
+
+  private static final String ITEMS =
+    "{\"items\":[" +
+      "{\"id\":1,\"price\":9.5,\"inStock\":true,\"name\":\"a\",\"meta\":{\"category\":\"tools\",\"x\":1},\"tags\":[\"p\",\"q\"]}," +
+      "{\"price\":null,\"id\":2,\"meta\":{\"category\":\"toys\"},\"inStock\":false}," +
+      "{\"id\":3,\"price\":7,\"meta\":{\"category\":\"tools\"},\"tags\":[\"r\",\"q\"]}," +
+      "3," +
+      "{\"id\":4}" +
+    "]}";
+
+  @Test
+  public void shouldExtractColumnsInBatches() throws Exception {
+    TestSubscriber<ColumnBatch> ts = new TestSubscriber<>();
+    Observable.just(ITEMS)
+      .compose(RxJson.parse("$.items[*]").columns(SPEC, 3))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValueCount(2);
+    ColumnBatch batch = ts.getOnNextEvents().get(0);
+    assertEquals(batch.getRowCount(), 3);
+    assertEquals(batch.getLongs("id").getValues(), new long[] {1, 2, 3});
+    assertEquals(batch.getDoubles("price").get(0), 9.5);
+    assertTrue(batch.getDoubles("price").isNull(1));
+    assertEquals(batch.getDoubles("price").get(2), 7.0);
+    assertTrue(batch.getBooleans("inStock").get(0));
+    assertFalse(batch.getBooleans("inStock").get(1));
+    assertTrue(batch.getBooleans("inStock").isNull(2));
+    assertEquals(batch.getBooleans("inStock").getNullCount(), 1);
+    assertEquals(batch.getStrings("meta.category").getDictionary(), Arrays.asList("tools", "toys"));
+    assertEquals(batch.getStrings("meta.category").getCodes(), new int[] {0, 1, 0});
+    assertEquals(batch.getStrings("['tags'][1]").get(0), "q");
+    assertNull(batch.getStrings("['tags'][1]").get(1));
+    assertEquals(batch.getStrings("['tags'][1]").getDictionary(), Arrays.asList("q"));
+
+    ColumnBatch last = ts.getOnNextEvents().get(1);
+    assertEquals(last.getRowCount(), 1);
+    assertEquals(last.getLongs("id").getValues(), new long[] {4});
+    assertEquals(last.getColumn("price").getNullCount(), 1);
+  }
+
+  @Test
+  public void shouldNotEmitEmptyBatch() throws Exception {
+    TestSubscriber<ColumnBatch> ts = new TestSubscriber<>();
+    Observable.just("{\"items\":[{\"id\":1},{\"id\":2}]}")
+      .compose(RxJson.parse("$.items[*]").columns(ColumnSpec.of().with("id", ColumnType.LONG), 2))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValueCount(1);
+    assertEquals(ts.getOnNextEvents().get(0).getRowCount(), 2);
+  }
+
+  @Test
+  public void shouldFailOnMismatchedType() throws Exception {
+    TestSubscriber<ColumnBatch> ts = new TestSubscriber<>();
+    Observable.just("[{\"id\":1.5}]")
+      .compose(RxJson.parse("$[*]").columns(ColumnSpec.of().with("id", ColumnType.LONG), 2))
+      .subscribe(ts);
+
+    ts.assertError(IllegalStateException.class);
+
+    TestSubscriber<ColumnBatch> container = new TestSubscriber<>();
+    Observable.just("[{\"id\":{\"value\":1}}]")
+      .compose(RxJson.parse("$[*]").columns(ColumnSpec.of().with("id", ColumnType.LONG), 2))
+      .subscribe(container);
+
+    container.assertError(IllegalStateException.class);
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectWildcardColumn() throws Exception {
+    ColumnSpec.of().with("tags[*]", ColumnType.STRING);
+  }
+
+  @Test
+  public void shouldApplyBackPressure() throws Exception {
+    int size = 10_000;
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < size; ++i) {
+      json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append("}");
+    }
+    int[] emitted = {0};
+    TestSubscriber<ColumnBatch> ts = new TestSubscriber<>(0);
+    Observable.from(json.append("]").toString().split("(?<=,)"))
+      .doOnNext(s -> emitted[0] += 1)
+      .compose(RxJson.parse("$[*]").columns(ColumnSpec.of().with("id", ColumnType.LONG), 100))
+      .subscribe(ts);
+
+    ts.requestMore(1);
+    ts.assertValueCount(1);
+    assertTrue(emitted[0] < size / 2, "emitted " + emitted[0]);
+
+    ts.requestMore(Long.MAX_VALUE);
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValueCount(size / 100);
+    assertEquals(ts.getOnNextEvents().get(size / 100 - 1).getLongs("id").get(99), size - 1);
+  }
+}
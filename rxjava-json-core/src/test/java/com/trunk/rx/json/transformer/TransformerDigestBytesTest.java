@@ -0,0 +1,91 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.JsonDigest;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.element.JsonElement;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+import static com.trunk.rx.json.transformer.TransformerJsonTokenToDigestTest.digest;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TransformerDigestBytesTest {
+
+  private static final JsonElement ELEMENT = RxJson.newArray(
+    RxJson.valueBuilder().create("caf\u00e9"),
+    RxJson.valueBuilder().create("a long enough value to span chunks")
+  );
+
+  private static final String JSON = "[\"caf\u00e9\",\"a long enough value to span chunks\"]";
+
+  @Test
+  public void shouldDigestChunksAsTheyStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TransformerDigestBytes digest = RxJson.digest("SHA-256");
+    TestSubscriber<JsonDigest> digests = new TestSubscriber<>();
+    digest.getDigest().subscribe(digests);
+
+    ELEMENT.compose(RxJson.toJsonBytes(ByteBufferPool.of(16, 4, false)))
+      .compose(digest)
+      .doOnNext(chunk -> {
+        digests.assertNoValues();
+        byte[] bytes = chunk.toByteArray();
+        out.write(bytes, 0, bytes.length);
+        chunk.release();
+      })
+      .toBlocking()
+      .subscribe();
+
+    assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), JSON);
+    digests.assertValue(digest("SHA-256", JSON));
+    digests.assertCompleted();
+    assertEquals(digests.getOnNextEvents().get(0).toETag().length(), 45);
+  }
+
+  @Test
+  public void shouldEmitErrorOfChunks() throws Exception {
+    TransformerDigestBytes digest = RxJson.digest("SHA-256");
+    TestSubscriber<JsonDigest> digests = new TestSubscriber<>();
+    digest.getDigest().subscribe(digests);
+
+    Observable.<JsonBytes>error(new RuntimeException("failed")).compose(digest).subscribe(new TestSubscriber<>());
+
+    digests.assertError(RuntimeException.class);
+  }
+
+  @Test
+  public void shouldCancelDigestWhenUnsubscribedBeforeCompletion() throws Exception {
+    TransformerDigestBytes digest = RxJson.digest("SHA-256");
+    TestSubscriber<JsonDigest> digests = new TestSubscriber<>();
+    digest.getDigest().subscribe(digests);
+    PublishSubject<JsonBytes> chunks = PublishSubject.create();
+
+    Subscription subscription = chunks.compose(digest).subscribe();
+    digests.assertNoTerminalEvent();
+    subscription.unsubscribe();
+
+    assertFalse(chunks.hasObservers());
+    digests.assertError(CancellationException.class);
+  }
+
+  @Test
+  public void shouldOnlyDigestSingleStream() throws Exception {
+    TransformerDigestBytes digest = RxJson.digest("SHA-256");
+    Observable<JsonBytes> chunks = ELEMENT.compose(RxJson.toJsonBytes()).compose(digest);
+    chunks.subscribe(JsonBytes::release);
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>();
+    chunks.subscribe(ts);
+
+    ts.assertError(IllegalStateException.class);
+  }
+}
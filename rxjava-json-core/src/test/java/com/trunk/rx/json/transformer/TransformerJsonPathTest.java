@@ -3,6 +3,8 @@ package com.trunk.rx.json.transformer;
 import com.trunk.rx.character.CharacterObservable;
 import com.trunk.rx.json.JsonPathEvent;
 import com.trunk.rx.json.JsonTokenEvent;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.exception.MalformedPathException;
 import com.trunk.rx.json.operator.OperatorJsonToken;
 import com.trunk.rx.json.operator.OperatorJsonTokenTest;
 import com.trunk.rx.json.path.JsonPath;
@@ -17,6 +19,9 @@ import org.testng.annotations.Test;
 import rx.Observable;
 import rx.observers.TestSubscriber;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.testng.Assert.assertEquals;
 
 public class TransformerJsonPathTest {
@@ -503,4 +508,332 @@ public class TransformerJsonPathTest {
     ts.assertCompleted();
     ts.assertValueCount(100);
   }
+
+  @Test
+  public void shouldEmitEveryMatchWhenNested() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":{\"b\":[1]}}")
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(TransformerJsonPath.from("$.a", "$..b", "$.a.b").nested())
+      .map(e -> e.getTokenEvent().getJsonPath() + ":" + e.getMatchedPathFragment())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(
+      "$.a:$.a",
+      "$.a:$.a",
+      "$.a.b:$.a",
+      "$.a.b:$.a.b",
+      "$.a.b[0]:$.a",
+      "$.a.b[0]:$.a.b",
+      "$.a.b:$.a",
+      "$.a.b:$.a.b",
+      "$.a:$.a",
+      "<NOOP>:<NOOP>"
+    );
+  }
+
+  private static final String ORDERS =
+    "{\"orders\":[" +
+      "{\"id\":1,\"status\":\"open\",\"total\":10}," +
+      "{\"id\":2,\"lines\":[{\"sku\":\"x\"}],\"status\":\"closed\",\"total\":25.5}," +
+      "{\"id\":3,\"total\":5}," +
+      "{\"id\":4,\"status\":\"open\",\"total\":100}," +
+      "\"open\"" +
+    "]}";
+
+  private static Observable<String> collectedPaths(String json, String path) {
+    return Observable.just(json)
+      .compose(RxJson.parse(path).collectObjects())
+      .map(o -> o.getPath() + "=" + Observable.from(o.getTokens()).map(e -> e.getToken().value()).reduce("", String::concat).toBlocking().single());
+  }
+
+  private static Observable<String> filterOrders(TransformerJsonPath transformer) {
+    return Observable.just(ORDERS)
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(transformer)
+      .filter(e -> e.getMatchedPathFragment() != NoopToken.instance())
+      .map(e -> e.getMatchedPathFragment().toString())
+      .distinctUntilChanged();
+  }
+
+  @Test
+  public void shouldFilterOnFieldValue() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.status == 'open')]")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.orders[0]", "$.orders[3]");
+  }
+
+  @Test
+  public void shouldFilterOnFieldAfterOtherFields() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.status != 'open')]")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.orders[1]");
+  }
+
+  @Test
+  public void shouldFilterOnNumbers() throws Exception {
+    TestSubscriber<String> lt = new TestSubscriber<>();
+    TestSubscriber<String> gt = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.total < 25.5)]")).subscribe(lt);
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.total > 10)]")).subscribe(gt);
+
+    lt.assertValues("$.orders[0]", "$.orders[2]");
+    gt.assertValues("$.orders[1]", "$.orders[3]");
+  }
+
+  @Test
+  public void shouldFilterOnSetOfValues() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.id in [2, 3])]")).subscribe(ts);
+
+    ts.assertValues("$.orders[1]", "$.orders[2]");
+  }
+
+  @Test
+  public void shouldFilterOnExistence() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.lines)]")).subscribe(ts);
+
+    ts.assertValues("$.orders[1]");
+  }
+
+  @Test(expectedExceptions = MalformedPathException.class)
+  public void shouldRejectFilterAfterRecursiveDescent() throws Exception {
+    TransformerJsonPath.from("$..[?(@.price < 10)]");
+  }
+
+  @Test
+  public void shouldEmitAllTokensOfFilteredElementInOrder() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just(ORDERS)
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(TransformerJsonPath.from("$.orders[?(@.status == 'closed')]"))
+      .map(e -> e.getTokenEvent().getToken().value())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues("{", "id", "2", "lines", "[", "{", "sku", "x", "}", "]", "status", "closed", "total", "25.5", "}");
+  }
+
+  @Test
+  public void shouldFilterBeforeRestOfPath() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.status == 'closed')].lines[*]")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues("$.orders[1].lines[0]");
+  }
+
+  @Test
+  public void shouldKeepOrderWithUnfilteredPaths() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.total > 50)]", "$.orders[*].id")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues(
+      "$.orders[0].id", "$.orders[1].id", "$.orders[2].id", "$.orders[3]"
+    );
+  }
+
+  @Test
+  public void shouldFailWhenFilterBufferIsExceeded() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[?(@.status == 'closed')]").filterBufferSize(5)).subscribe(ts);
+
+    ts.assertError(IllegalStateException.class);
+  }
+
+  @Test
+  public void shouldSelectFromEndOfArray() throws Exception {
+    TestSubscriber<String> last = new TestSubscriber<>();
+    TestSubscriber<String> lastTwo = new TestSubscriber<>();
+    TestSubscriber<String> third = new TestSubscriber<>();
+    TestSubscriber<String> all = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[-1]")).subscribe(last);
+    filterOrders(TransformerJsonPath.from("$.orders[-2:]")).subscribe(lastTwo);
+    filterOrders(TransformerJsonPath.from("$.orders[-3]")).subscribe(third);
+    filterOrders(TransformerJsonPath.from("$.orders[-10:]")).subscribe(all);
+
+    last.assertNoErrors();
+    last.assertCompleted();
+    last.assertValues("$.orders[4]");
+    lastTwo.assertValues("$.orders[3]", "$.orders[4]");
+    third.assertValues("$.orders[2]");
+    all.assertValues("$.orders[0]", "$.orders[1]", "$.orders[2]", "$.orders[3]", "$.orders[4]");
+  }
+
+  @Test
+  public void shouldCollectObjectsFromEndOfArrayInStrictMode() throws Exception {
+    TestSubscriber<String> last = new TestSubscriber<>();
+    TestSubscriber<String> lastTwo = new TestSubscriber<>();
+    TestSubscriber<String> filtered = new TestSubscriber<>();
+    collectedPaths("{\"items\":[1,2,3,4,5]}", "$.items[-1]").subscribe(last);
+    collectedPaths("{\"items\":[1,2,3,4,5]}", "$.items[-2:]").subscribe(lastTwo);
+    collectedPaths("{\"items\":[{\"p\":5},{\"p\":20},{\"p\":7}],\"n\":1}", "$.items[?(@.p < 10)]").subscribe(filtered);
+
+    last.assertNoErrors();
+    last.assertCompleted();
+    last.assertValues("$.items[4]=5");
+    lastTwo.assertValues("$.items[3]=4", "$.items[4]=5");
+    filtered.assertValues("$.items[0]={p5}", "$.items[2]={p7}");
+  }
+
+  @Test
+  public void shouldSliceWithNegativeEnd() throws Exception {
+    TestSubscriber<String> head = new TestSubscriber<>();
+    TestSubscriber<String> middle = new TestSubscriber<>();
+    TestSubscriber<String> between = new TestSubscriber<>();
+    TestSubscriber<String> mixed = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[:-3]")).subscribe(head);
+    filterOrders(TransformerJsonPath.from("$.orders[1:-1]")).subscribe(middle);
+    filterOrders(TransformerJsonPath.from("$.orders[-4:-2]")).subscribe(between);
+    filterOrders(TransformerJsonPath.from("$.orders[-4:2]")).subscribe(mixed);
+
+    head.assertNoErrors();
+    head.assertCompleted();
+    head.assertValues("$.orders[0]", "$.orders[1]");
+    middle.assertValues("$.orders[1]", "$.orders[2]", "$.orders[3]");
+    between.assertValues("$.orders[1]", "$.orders[2]");
+    mixed.assertValues("$.orders[1]");
+  }
+
+  @Test
+  public void shouldSelectFromEndBeforeRestOfPath() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[-3:-1].id")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues("$.orders[2].id", "$.orders[3].id");
+  }
+
+  @Test
+  public void shouldSelectFromEndOfEachArray() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":[[1,2],[3],[],[4,5,6]]}")
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(TransformerJsonPath.from("$.a[*][-1]"))
+      .filter(e -> e.getMatchedPathFragment() != NoopToken.instance())
+      .map(e -> e.getMatchedPathFragment() + "=" + e.getTokenEvent().getToken().value())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.a[0][1]=2", "$.a[1][0]=3", "$.a[3][2]=6");
+  }
+
+  @Test
+  public void shouldKeepOrderWithPathsNotFromEnd() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    filterOrders(TransformerJsonPath.from("$.orders[-2:]", "$.orders[*].id")).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValues(
+      "$.orders[0].id", "$.orders[1].id", "$.orders[2].id", "$.orders[3]", "$.orders[4]"
+    );
+  }
+
+  @Test
+  public void shouldOnlyHoldElementsAtEndOfArray() throws Exception {
+    int size = 10000;
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < size; ++i) {
+      json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}");
+    }
+    json.append("]");
+    TestSubscriber<String> ts = new TestSubscriber<>();
+
+    Observable.just(json.toString())
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(TransformerJsonPath.from("$[-2:].id").filterBufferSize(1))
+      .filter(e -> e.getMatchedPathFragment() != NoopToken.instance())
+      .map(e -> e.getTokenEvent().getToken().value())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(Integer.toString(size - 2), Integer.toString(size - 1));
+  }
+
+  @Test
+  public void shouldMatchNamePatterns() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"metrics\":{\"cpu.user\":1,\"mem.used\":2,\"cpu.system\":{\"value\":3},\"cpu\":4}}")
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .compose(TransformerJsonPath.from("$.metrics[match('cpu\\..*')]"))
+      .filter(e -> e.getMatchedPathFragment() != NoopToken.instance())
+      .map(e -> e.getMatchedPathFragment().toString())
+      .distinct()
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.metrics[cpu.user]", "$.metrics[cpu.system]");
+  }
+
+  @Test
+  public void shouldOnlyParseSelectedNames() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    Observable.just("{\"tenants\":{\"eu-west\":{\"id\":1},\"us-east\":{\"id\":2},\"eu-north\":{\"id\":3}},\"count\":3}")
+      .compose(RxJson.parse("$.tenants[prefix('eu-')].id", "$.count"))
+      .filter(e -> e.getMatchedPathFragment() != NoopToken.instance())
+      .map(e -> e.getMatchedPathFragment() + "=" + e.getTokenEvent().getToken().value())
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues("$.tenants[eu-west].id=1", "$.tenants[eu-north].id=3", "$.count=3");
+  }
+
+  @Test(enabled = false, description = "per token cost with 1, 10 and 100 matchers")
+  public void shouldMatchWithFlatCostPerToken() throws Exception {
+    StringBuilder json = new StringBuilder("{\"items\":[");
+    for (int i = 0; i < 20_000; ++i) {
+      json.append(i == 0 ? "{" : ",{");
+      for (int f = 0; f < 10; ++f) {
+        json.append(f == 0 ? "" : ",").append("\"f").append(f).append("\":").append(i);
+      }
+      json.append("}");
+    }
+    String document = json.append("]}").toString();
+    List<JsonTokenEvent> tokens = Observable.just(document)
+      .lift(CharacterObservable.toCharacter())
+      .lift(STRICT_PARSER)
+      .toList()
+      .toBlocking()
+      .single();
+
+    for (int round = 0; round < 5; ++round) {
+      for (int matcherCount : new int[] {1, 10, 100}) {
+        List<JsonPath> paths = new ArrayList<>();
+        for (int j = 0; j < matcherCount; ++j) {
+          paths.add(JsonPath.parse("$.items[*].f" + j));
+        }
+        long start = System.nanoTime();
+        int matched = Observable.from(tokens)
+          .compose(TransformerJsonPath.from(paths))
+          .count()
+          .toBlocking()
+          .single();
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format(
+          "%,d matchers: %,d ns/token, %,d ns/token/matcher (%,d matched)",
+          matcherCount, elapsed / tokens.size(), elapsed / tokens.size() / matcherCount, matched
+        ));
+      }
+    }
+  }
 }
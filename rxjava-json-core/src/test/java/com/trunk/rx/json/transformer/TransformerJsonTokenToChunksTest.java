@@ -0,0 +1,185 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.element.JsonArray;
+import com.trunk.rx.json.element.JsonObject;
+import com.trunk.rx.json.element.JsonValueBuilder;
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TransformerJsonTokenToChunksTest {
+
+  private static final JsonValueBuilder VALUES = RxJson.valueBuilder();
+
+  @Test
+  public void shouldCoalesceTokensIntoChunks() throws Exception {
+    JsonObject<JsonArray<?>> object = RxJson.<JsonArray<?>>newObject()
+      .add("a\"b", RxJson.newArray(VALUES.create(1), VALUES.create("x\ny"), VALUES.create(true)));
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    object.compose(RxJson.toJson(8)).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    String json = String.join("", ts.getOnNextEvents());
+    assertEquals(json, String.join("", object.compose(RxJson.toJson()).toList().toBlocking().single()));
+    assertEquals(json, "{\"a\\\"b\":[1,\"x\\ny\",true]}");
+    for (String chunk : ts.getOnNextEvents().subList(0, ts.getOnNextEvents().size() - 1)) {
+      assertTrue(chunk.length() >= 8, chunk);
+    }
+  }
+
+  @Test
+  public void shouldCountRequestsInChunks() throws Exception {
+    int[] requested = {0};
+    TestSubscriber<String> ts = new TestSubscriber<>(0);
+    Observable.range(0, 10_000)
+      .map(i -> (JsonToken) JsonNumber.of(Integer.toString(i)))
+      .doOnRequest(n -> requested[0] += n)
+      .compose(RxJson.toJson(100))
+      .subscribe(ts);
+
+    ts.assertNoValues();
+    assertEquals(requested[0], 0);
+
+    ts.requestMore(2);
+    ts.assertValueCount(2);
+    assertTrue(requested[0] <= 2 * TransformerJsonTokenToChunks.TOKEN_BATCH_SIZE, "requested " + requested[0]);
+
+    ts.requestMore(Long.MAX_VALUE);
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 10_000; ++i) {
+      expected.append(i);
+    }
+    assertEquals(String.join("", ts.getOnNextEvents()), expected.toString());
+  }
+
+  @Test
+  public void shouldEmitChunkAfterMaxLatency() throws Exception {
+    TestScheduler scheduler = new TestScheduler();
+    PublishSubject<JsonToken> tokens = PublishSubject.create();
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    tokens.compose(RxJson.toJson(1024, 50, TimeUnit.MILLISECONDS, scheduler)).subscribe(ts);
+
+    tokens.onNext(JsonNumber.of("1"));
+    scheduler.advanceTimeBy(40, TimeUnit.MILLISECONDS);
+    tokens.onNext(JsonNumber.of("2"));
+    ts.assertNoValues();
+
+    scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+    ts.assertValues("12");
+
+    tokens.onNext(JsonNumber.of("3"));
+    scheduler.advanceTimeBy(49, TimeUnit.MILLISECONDS);
+    ts.assertValueCount(1);
+    tokens.onCompleted();
+    ts.assertValues("12", "3");
+    ts.assertCompleted();
+  }
+
+  @Test
+  public void shouldEmitBufferedJsonBeforeError() throws Exception {
+    TestSubscriber<String> ts = new TestSubscriber<>();
+    VALUES.create("a")
+      .concatWith(Observable.error(new RuntimeException("boom")))
+      .compose(RxJson.toJson(1024))
+      .subscribe(ts);
+
+    ts.assertValues("\"a\"");
+    ts.assertError(RuntimeException.class);
+  }
+
+
+  @Test
+  public void shouldEncodeUtf8IntoPooledBuffers() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 4, false);
+    String text = "caf\u00e9 \u20ac \ud83d\ude00 \"quoted\" and more text than fits in one buffer";
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>();
+    VALUES.create(text).compose(RxJson.toJsonBytes(pool)).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (JsonBytes chunk : ts.getOnNextEvents()) {
+      assertTrue(chunk.getBuffer().remaining() <= 16);
+      bytes.write(chunk.toByteArray());
+      chunk.release();
+    }
+    String json = String.join("", VALUES.create(text).compose(RxJson.toJson()).toList().toBlocking().single());
+    assertEquals(bytes.toByteArray(), json.getBytes(StandardCharsets.UTF_8));
+    assertEquals(pool.getPooledCount(), 4);
+
+    ByteBuffer reused = pool.acquire();
+    assertEquals(reused.position(), 0);
+    assertEquals(reused.capacity(), 16);
+  }
+
+  @Test
+  public void shouldReleaseBuffersWhenUnsubscribed() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 8, true);
+    PublishSubject<JsonToken> tokens = PublishSubject.create();
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>(1);
+    tokens.compose(RxJson.toJsonBytes(pool)).subscribe(ts);
+
+    for (int i = 0; i < 5; ++i) {
+      tokens.onNext(JsonNumber.of("1234567"));
+    }
+    ts.assertValueCount(1);
+    ts.unsubscribe();
+
+    // the full chunk that was not requested and the partly written chunk
+    assertEquals(pool.getPooledCount(), 2);
+    ts.getOnNextEvents().get(0).release();
+    assertEquals(pool.getPooledCount(), 3);
+  }
+
+  @Test
+  public void shouldReleaseBuffersOfKnownTokensWhenUnsubscribed() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 8, false);
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>(1);
+    // a quote and 40 characters, so two full chunks and a partly written chunk
+    VALUES.create("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa").compose(RxJson.toJsonBytes(pool)).subscribe(ts);
+
+    ts.assertValueCount(1);
+    ts.unsubscribe();
+
+    assertEquals(pool.getPooledCount(), 2);
+    ts.getOnNextEvents().get(0).release();
+    assertEquals(pool.getPooledCount(), 3);
+  }
+
+  @Test
+  public void shouldSplitFragmentsBetweenCharacters() throws Exception {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 20; ++i) {
+      text.append("\u20ac");
+    }
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>();
+    VALUES.create(text.toString()).prerender().compose(RxJson.toJsonBytes(ByteBufferPool.of(16, 4, false))).subscribe(ts);
+
+    ts.assertNoErrors();
+    StringBuilder json = new StringBuilder();
+    for (JsonBytes chunk : ts.getOnNextEvents()) {
+      // each chunk decodes on its own
+      json.append(new String(chunk.toByteArray(), StandardCharsets.UTF_8));
+      chunk.release();
+    }
+    assertEquals(json.toString(), "\"" + text + "\"");
+  }
+}
@@ -0,0 +1,71 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonDigest;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.element.JsonElement;
+import com.trunk.rx.json.element.JsonObject;
+import com.trunk.rx.json.element.JsonValueBuilder;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TransformerJsonTokenToDigestTest {
+
+  private static final JsonValueBuilder VALUES = RxJson.valueBuilder();
+
+  private static final JsonElement ELEMENT = RxJson.newObject()
+    .add("name", VALUES.create("caf\u00e9 \"\u20ac\""))
+    .add("values", RxJson.newArray(VALUES.create(1), VALUES.create(2.5), VALUES.create(true)));
+
+  private static final String JSON = "{\"name\":\"caf\u00e9 \\\"\u20ac\\\"\",\"values\":[1,2.5,true]}";
+
+  @Test
+  public void shouldDigestKnownTokens() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 4, false);
+    TestSubscriber<JsonDigest> ts = new TestSubscriber<>();
+    ELEMENT.compose(RxJson.toDigest("SHA-256", pool)).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValue(digest("SHA-256", JSON));
+    // the chunk being digested and the next being encoded, both released
+    assertEquals(pool.getPooledCount(), 2);
+  }
+
+  @Test
+  public void shouldDigestTokensThatAreNotKnown() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 4, false);
+    TestSubscriber<JsonDigest> ts = new TestSubscriber<>();
+    JsonObject<JsonElement> object = JsonObject.of(Observable.just(JsonObject.entry("values", Observable.just(ELEMENT))));
+    object.compose(RxJson.toDigest("MD5", pool)).subscribe(ts);
+
+    ts.assertNoErrors();
+    assertFalse(object.getKnownTokens().isPresent());
+    ts.assertValue(digest("MD5", "{\"values\":" + JSON + "}"));
+    // the chunk being digested and the next being encoded, both released
+    assertEquals(pool.getPooledCount(), 2);
+  }
+
+  @Test
+  public void shouldDigestEachSubscription() throws Exception {
+    Observable<JsonDigest> digests = JsonObject.of(Observable.just(JsonObject.entry("a", VALUES.create(1)))).compose(RxJson.toDigest("SHA-256"));
+
+    assertEquals(digests.toBlocking().single(), digests.toBlocking().single());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldRequireKnownAlgorithm() throws Exception {
+    RxJson.toDigest("unknown");
+  }
+
+  static JsonDigest digest(String algorithm, String json) throws Exception {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    return new JsonDigest(algorithm, MessageDigest.getInstance(algorithm).digest(bytes), bytes.length);
+  }
+}
@@ -0,0 +1,137 @@
+package com.trunk.rx.json.transformer;
+
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.element.JsonArray;
+import com.trunk.rx.json.element.JsonElement;
+import com.trunk.rx.json.element.JsonObject;
+import com.trunk.rx.json.element.JsonValueBuilder;
+import com.trunk.rx.json.token.JsonNumber;
+import com.trunk.rx.json.token.JsonToken;
+import org.testng.annotations.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TransformerWriteJsonTest {
+
+  private static final JsonValueBuilder VALUES = RxJson.valueBuilder();
+
+  private static final JsonElement ELEMENT = RxJson.newObject()
+    .add("name", VALUES.create("caf\u00e9 \"\u20ac\""))
+    .add("values", RxJson.newArray(VALUES.create(1), VALUES.create(2.5), VALUES.create(true)));
+
+  private static final String JSON = "{\"name\":\"caf\u00e9 \\\"\u20ac\\\"\",\"values\":[1,2.5,true]}";
+
+  @Test
+  public void shouldWriteToOutputStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    ELEMENT.compose(RxJson.writeTo(out, ByteBufferPool.of(16, 4, false))).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    byte[] expected = JSON.getBytes(StandardCharsets.UTF_8);
+    ts.assertValue((long) expected.length);
+    assertEquals(out.toByteArray(), expected);
+  }
+
+  @Test
+  public void shouldWriteToWriter() throws Exception {
+    StringWriter writer = new StringWriter();
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    ELEMENT.compose(RxJson.writeTo(writer)).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValue((long) JSON.length());
+    assertEquals(writer.toString(), JSON);
+  }
+
+  @Test
+  public void shouldWriteToChannel() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    ELEMENT.compose(RxJson.writeTo(Channels.newChannel(out), ByteBufferPool.of(16, 4, true))).subscribe(ts);
+
+    ts.assertNoErrors();
+    assertEquals(out.toByteArray(), JSON.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldOnlyRequestTokensOnceWritten() throws Exception {
+    int size = 100_000;
+    long[] requested = {0};
+    int[] writes = {0};
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        ++writes[0];
+        // no more than a batch of tokens is requested ahead of the chunk being written
+        assertTrue(requested[0] <= (long) (writes[0] + 1) * 64 + TransformerJsonTokenToChunks.TOKEN_BATCH_SIZE, "requested " + requested[0]);
+      }
+    };
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    Observable.range(0, size)
+      .map(i -> (JsonToken) JsonNumber.of("1234567"))
+      .doOnRequest(n -> requested[0] += n)
+      .compose(RxJson.writeTo(out, ByteBufferPool.of(64, 4, false)))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertValue(7L * size);
+    assertTrue(writes[0] > 1000, "writes " + writes[0]);
+  }
+
+  @Test
+  public void shouldReleaseBuffersWhenWriteFails() throws Exception {
+    ByteBufferPool pool = ByteBufferPool.of(16, 8, false);
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("closed");
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        throw new IOException("closed");
+      }
+    };
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    JsonArray<JsonElement> array = RxJson.newArray();
+    for (int i = 0; i < 20; ++i) {
+      array = array.add(VALUES.create("value " + i));
+    }
+    array.compose(RxJson.writeTo(out, pool)).subscribe(ts);
+
+    ts.assertError(IOException.class);
+    assertTrue(pool.getPooledCount() > 0);
+    assertTrue(pool.acquire().position() == 0);
+  }
+
+  @Test
+  public void shouldWriteTokensThatAreNotKnown() throws Exception {
+    StringWriter writer = new StringWriter();
+    TestSubscriber<Long> ts = new TestSubscriber<>();
+    JsonObject<JsonElement> object = JsonObject.of(Observable.just(JsonObject.entry("values", Observable.just(ELEMENT))));
+    object.compose(RxJson.writeTo(writer)).subscribe(ts);
+
+    ts.assertNoErrors();
+    assertFalse(object.getKnownTokens().isPresent());
+    assertEquals(writer.toString(), "{\"values\":" + JSON + "}");
+  }
+}
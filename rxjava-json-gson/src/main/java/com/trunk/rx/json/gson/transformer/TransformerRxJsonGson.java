@@ -44,6 +44,16 @@ public class TransformerRxJsonGson<T> implements Observable.Transformer<String,
     return new TransformerRxJsonGson<>(transformerRxJson.strict(), operatorJsonGson, gson, converter);
   }
 
+  /**
+   * Only read the named members of matched objects. Other members are skipped by the parser and never reach Gson.
+   *
+   * @param names the names of the members to keep
+   * @return a new TransformerRxJsonGson that projects matched objects
+   */
+  public TransformerRxJsonGson<T> project(String... names) {
+    return new TransformerRxJsonGson<>(transformerRxJson.project(names), operatorJsonGson, gson, converter);
+  }
+
   /**
    * Replace the default
    *
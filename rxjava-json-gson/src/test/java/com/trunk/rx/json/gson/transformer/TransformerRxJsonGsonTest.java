@@ -34,6 +34,18 @@ public class TransformerRxJsonGsonTest {
     ts.assertValues(1.0, 2.0, 3.0, ImmutableMap.of("x", ImmutableList.of("4")));
   }
 
+  @Test
+  public void shouldMarshallProjectedObjects() throws Exception {
+    TestSubscriber<Object> ts = new TestSubscriber<>();
+    Observable.just("{\"a\":[{\"x\":1,\"y\":{\"z\":[2]},\"w\":\"3\"},4]}")
+      .compose(TransformerRxJsonGson.from("$.a[*]").project("x", "w"))
+      .subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ts.assertValues(ImmutableMap.of("x", 1.0, "w", "3"), 4.0);
+  }
+
   @Test
   public void shouldEmitComplexObjects() throws Exception {
     TestSubscriber<String> ts = new TestSubscriber<>();
@@ -5,7 +5,6 @@ import com.sun.javafx.fxml.builder.URLBuilder;
 import com.trunk.rx.json.element.JsonElement;
 import com.trunk.rx.json.element.JsonObject;
 import com.trunk.rx.json.element.JsonValueBuilder;
-import rx.Observable;
 
 import java.net.URI;
 import java.util.Locale;
@@ -56,8 +55,8 @@ public class HalLink extends JsonElement {
 
   protected HalLink(Optional<String> name, String href, Optional<Boolean> templated, Optional<String> type, Optional<String> deprecation, Optional<URI> profile, Optional<Locale> hreflang, Optional<String> title) {
     super(
-      JsonObject.of(
-        Observable.from(
+      JsonObject.<JsonElement>builder()
+        .addAll(
           Stream.<Optional<JsonObject.Entry<JsonElement>>>builder()
             .add(deprecation.map(d -> JsonObject.entry("deprecation", JsonValueBuilder.instance().create(d))))
             .add(Optional.of(JsonObject.entry("href", JsonValueBuilder.instance().create(href))))
@@ -71,7 +70,7 @@ public class HalLink extends JsonElement {
             .flatMap(o -> o.isPresent() ? Stream.of(o.get()) : Stream.empty())
             .collect(Collectors.toList())
         )
-      )
+        .build()
     );
     this.name = name;
     this.href = href;
@@ -83,6 +82,29 @@ public class HalLink extends JsonElement {
     this.title = title;
   }
 
+  private HalLink(HalLink link, JsonElement rendered) {
+    super(rendered);
+    this.name = link.name;
+    this.href = link.href;
+    this.templated = link.templated;
+    this.type = link.type;
+    this.deprecation = link.deprecation;
+    this.profile = link.profile;
+    this.hreflang = link.hreflang;
+    this.title = link.title;
+  }
+
+  /**
+   * Render the link once, for links that are constant, such as those to static resources. A link changed from the
+   * rendered link is rendered again when written.
+   *
+   * @return a new HalLink of the rendered JSON, which may be shared between threads
+   */
+  @Override
+  public HalLink prerender() {
+    return new HalLink(this, super.prerender());
+  }
+
   /**
    * Its value MAY be used as a secondary key for selecting Link Objects
    * which share the same relation type.
@@ -6,8 +6,11 @@ import com.trunk.rx.json.element.JsonElement;
 import com.trunk.rx.json.element.JsonObject;
 import rx.Observable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -32,10 +35,11 @@ public final class HalObject extends JsonElement {
         Collections.emptyMap(),
         Collections.emptyMap(),
         Collections.emptyMap(),
-        Observable.empty(),
+        KnownValues.<JsonObject.Entry<JsonElement>>of(),
         false,
         Order.LinksEmbeddedData,
-        false
+        false,
+        1
       );
   }
 
@@ -48,6 +52,8 @@ public final class HalObject extends JsonElement {
   private final boolean lenient;
   private final Order order;
   private final boolean suppressNulls;
+  // the most values subscribed to at once
+  private final int maxConcurrent;
 
   /**
    * @return an immutable empty HalObject
@@ -65,14 +71,10 @@ public final class HalObject extends JsonElement {
     Observable<JsonObject.Entry<JsonElement>> data,
     boolean lenient,
     Order order,
-    boolean suppressNulls
+    boolean suppressNulls,
+    int maxConcurrent
   ) {
-    super(
-      JsonObject.of(
-        getOrderedElements(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls)
-      )
-        .suppressNulls(suppressNulls)
-    );
+    super(getJsonObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent));
 
     this.self = self;
     this.singletonLinks = Collections.unmodifiableMap(singletonLinks);
@@ -83,6 +85,21 @@ public final class HalObject extends JsonElement {
     this.lenient = lenient;
     this.order = order;
     this.suppressNulls = suppressNulls;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  private HalObject(HalObject object, JsonElement rendered) {
+    super(rendered);
+    this.self = object.self;
+    this.singletonLinks = object.singletonLinks;
+    this.arrayLinks = object.arrayLinks;
+    this.singletonEmbedded = object.singletonEmbedded;
+    this.arrayEmbedded = object.arrayEmbedded;
+    this.data = object.data;
+    this.lenient = object.lenient;
+    this.order = object.order;
+    this.suppressNulls = object.suppressNulls;
+    this.maxConcurrent = object.maxConcurrent;
   }
 
   /**
@@ -92,7 +109,7 @@ public final class HalObject extends JsonElement {
    * @return an new HalObject
    */
   public HalObject lenient() {
-    return lenient ? this : new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, true, order, suppressNulls);
+    return lenient ? this : new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, true, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -101,7 +118,7 @@ public final class HalObject extends JsonElement {
    * @return an new HalObject
    */
   public HalObject strict() {
-    return !lenient ? this : new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, false, order, suppressNulls);
+    return !lenient ? this : new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, false, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -111,7 +128,7 @@ public final class HalObject extends JsonElement {
    * @return a new HalObject with the self link set to the given value
    */
   public HalObject self(HalLink self) {
-    return new HalObject(Optional.of(self), singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls);
+    return new HalObject(Optional.of(self), singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -126,7 +143,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(rel, "putLink requires a non-null rel");
     Objects.requireNonNull(link, "putLink requires a non-null link");
 
-    return putLink(rel, Observable.just(link));
+    return putLink(rel, KnownValues.of(link));
   }
 
 
@@ -146,9 +163,9 @@ public final class HalObject extends JsonElement {
 
     Map<String, Observable<HalLink>> newSingleton = new HashMap<>(singletonLinks);
     Map<String, Observable<HalLink>> newArray = new HashMap<>(arrayLinks);
-    newSingleton.put(rel, link.take(1));
+    newSingleton.put(rel, firstValue(link));
     newArray.remove(rel);
-    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls);
+    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -168,7 +185,7 @@ public final class HalObject extends JsonElement {
     Map<String, Observable<HalLink>> newArray = new HashMap<>(arrayLinks);
     newSingleton.remove(rel);
     newArray.put(rel, links);
-    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls);
+    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -200,7 +217,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(links, "putAllLinks requires a non-null links");
     requireRelNotSelf(rel);
 
-    return putAllLinks(rel, Observable.from(links));
+    return putAllLinks(rel, KnownValues.of(links));
   }
 
   /**
@@ -217,7 +234,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(link, "appendLink requires a non-null link");
     requireRelNotSelf(rel);
 
-    return appendLinks(rel, Observable.just(link));
+    return appendLinks(rel, KnownValues.of(link));
   }
 
   /**
@@ -237,15 +254,15 @@ public final class HalObject extends JsonElement {
     Map<String, Observable<HalLink>> newSingleton = new HashMap<>(singletonLinks);
     Map<String, Observable<HalLink>> newArray = new HashMap<>(arrayLinks);
     Observable<HalLink> newValue = newArray.containsKey(rel) ?
-      newArray.get(rel).concatWith(links) :
+      concatValues(newArray.get(rel), links) :
       (
         newSingleton.containsKey(rel) ?
-          newSingleton.get(rel).concatWith(links) :
+          concatValues(newSingleton.get(rel), links) :
           links
       );
     newSingleton.remove(rel);
     newArray.put(rel, newValue);
-    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls);
+    return new HalObject(self, newSingleton, newArray, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -279,7 +296,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(links, "appendLinks requires a non-null links");
     requireRelNotSelf(rel);
 
-    return appendLinks(rel, Observable.from(links));
+    return appendLinks(rel, KnownValues.of(links));
   }
 
   /**
@@ -293,7 +310,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(key, "putAllEmbedded requires a non-null key");
     Objects.requireNonNull(embedded, "putAllEmbedded requires a non-null embedded");
 
-    return putEmbedded(key, Observable.just(embedded));
+    return putEmbedded(key, KnownValues.of(embedded));
   }
 
   /**
@@ -310,9 +327,9 @@ public final class HalObject extends JsonElement {
 
     Map<String, Observable<HalObject>> newSingleton = new HashMap<>(singletonEmbedded);
     Map<String, Observable<HalObject>> newArray = new HashMap<>(arrayEmbedded);
-    newSingleton.put(key, embedded.take(1));
+    newSingleton.put(key, firstValue(embedded));
     newArray.remove(key);
-    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls);
+    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -330,7 +347,7 @@ public final class HalObject extends JsonElement {
     Map<String, Observable<HalObject>> newArray = new HashMap<>(arrayEmbedded);
     newSingleton.remove(key);
     newArray.put(key, embedded);
-    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls);
+    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -358,7 +375,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(key, "putAllEmbedded requires a non-null key");
     Objects.requireNonNull(embedded, "putAllEmbedded requires a non-null embedded");
 
-    return putAllEmbedded(key, Observable.from(embedded));
+    return putAllEmbedded(key, KnownValues.of(embedded));
   }
 
   /**
@@ -373,7 +390,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(key, "appendEmbedded requires a non-null key");
     Objects.requireNonNull(embedded, "appendEmbedded requires a non-null embedded");
 
-    return appendEmbedded(key, Observable.just(embedded));
+    return appendEmbedded(key, KnownValues.of(embedded));
   }
 
   /**
@@ -391,15 +408,15 @@ public final class HalObject extends JsonElement {
     Map<String, Observable<HalObject>> newSingleton = new HashMap<>(singletonEmbedded);
     Map<String, Observable<HalObject>> newArray = new HashMap<>(arrayEmbedded);
     Observable<HalObject> newValue = newArray.containsKey(key) ?
-        newArray.get(key).concatWith(embedded) :
+        concatValues(newArray.get(key), embedded) :
         (
             newSingleton.containsKey(key) ?
-                newSingleton.get(key).concatWith(embedded) :
+                concatValues(newSingleton.get(key), embedded) :
                 embedded
         );
     newSingleton.remove(key);
     newArray.put(key, newValue);
-    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls);
+    return new HalObject(self, singletonLinks, arrayLinks, newSingleton, newArray, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -429,7 +446,7 @@ public final class HalObject extends JsonElement {
     Objects.requireNonNull(key, "appendEmbedded requires a non-null key");
     Objects.requireNonNull(embedded, "appendEmbedded requires a non-null embedded");
 
-    return appendEmbedded(key, Observable.from(embedded));
+    return appendEmbedded(key, KnownValues.of(embedded));
   }
 
   /**
@@ -486,7 +503,7 @@ public final class HalObject extends JsonElement {
   public final HalObject appendData(JsonObject.Entry<JsonElement>... data) {
     Objects.requireNonNull(data, "appendData requires a non-null data");
 
-    return appendData(Observable.from(data));
+    return appendData(KnownValues.of(data));
   }
 
   /**
@@ -498,7 +515,7 @@ public final class HalObject extends JsonElement {
   public HalObject appendData(Observable<JsonObject.Entry<JsonElement>> data) {
     Objects.requireNonNull(data, "appendData requires a non-null data");
 
-    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, this.data.concatWith(data), lenient, order, suppressNulls);
+    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, concatValues(this.data, data), lenient, order, suppressNulls, maxConcurrent);
   }
 
   /**
@@ -512,15 +529,44 @@ public final class HalObject extends JsonElement {
   public HalObject withOrder(Order order) {
     Objects.requireNonNull(order, "withOrder requires a non-null order");
 
-    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls);
+    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
+  }
+
+  /**
+   * Render the object once, for objects that are constant or rarely change. Its links, embedded objects and data
+   * must be known values rather than Observables. An object changed from the rendered object is rendered again when
+   * written.
+   *
+   * @return a new HalObject of the rendered JSON, which may be shared between threads
+   * @throws IllegalStateException if the object has a value given as an Observable
+   */
+  @Override
+  public HalObject prerender() {
+    return new HalObject(this, super.prerender());
   }
 
   public HalObject suppressNulls() {
-    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, true);
+    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, true, maxConcurrent);
   }
 
   public HalObject suppressNulls(boolean suppress) {
-    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppress);
+    return new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppress, maxConcurrent);
+  }
+
+  /**
+   * By default the links, embedded objects and data given as Observables are subscribed to one at a time, each once
+   * the previous has completed. In eager mode up to the given number are subscribed to at once, so slow values are
+   * waited for concurrently. The JSON is still emitted in order, buffering the values of later Observables until
+   * earlier ones complete.
+   *
+   * @param maxConcurrent the most Observables subscribed to at once, or 1 to subscribe to them one at a time
+   * @return a new HalObject
+   * @throws IllegalArgumentException if maxConcurrent is less than 1
+   */
+  public HalObject eager(int maxConcurrent) {
+    requireMaxConcurrent(maxConcurrent);
+
+    return maxConcurrent == this.maxConcurrent ? this : new HalObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent);
   }
 
   private void requireRelNotSelf(String rel) {
@@ -535,7 +581,7 @@ public final class HalObject extends JsonElement {
     }
   }
 
-  private static Observable<JsonObject.Entry<JsonElement>> getOrderedElements(
+  private static JsonObject<JsonElement> getJsonObject(
     Optional<HalLink> self,
     Map<String, Observable<HalLink>> singletonLinks,
     Map<String, Observable<HalLink>> arrayLinks,
@@ -544,10 +590,135 @@ public final class HalObject extends JsonElement {
     Observable<JsonObject.Entry<JsonElement>> data,
     boolean lenient,
     Order order,
+    boolean suppressNulls,
+    int maxConcurrent
+  ) {
+    if (isKnown(singletonLinks) && isKnown(arrayLinks) && isKnown(singletonEmbedded) && isKnown(arrayEmbedded) && isKnown(data)) {
+      List<JsonObject.Entry<JsonElement>> _data = ((KnownValues<JsonObject.Entry<JsonElement>>) data).values;
+      if (_data.stream().noneMatch(e -> e.getKey().equals(Holder.LINKS) || e.getKey().equals(Holder.EMBEDDED))) {
+        return getKnownJsonObject(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, _data, order, suppressNulls, maxConcurrent);
+      }
+    }
+    return JsonObject.of(
+      getOrderedElements(self, singletonLinks, arrayLinks, singletonEmbedded, arrayEmbedded, data, lenient, order, suppressNulls, maxConcurrent)
+    )
+      .suppressNulls(suppressNulls)
+      .eager(maxConcurrent);
+  }
+
+  /**
+   * Build a list backed object when all values are known, so the tokens of the object are known if those of its data
+   * are, and it can be written without subscribing to it.
+   */
+  private static JsonObject<JsonElement> getKnownJsonObject(
+    Optional<HalLink> self,
+    Map<String, Observable<HalLink>> singletonLinks,
+    Map<String, Observable<HalLink>> arrayLinks,
+    Map<String, Observable<HalObject>> singletonEmbedded,
+    Map<String, Observable<HalObject>> arrayEmbedded,
+    List<JsonObject.Entry<JsonElement>> data,
+    Order order,
+    boolean suppressNulls,
+    int maxConcurrent
+  ) {
+    JsonObject.Builder<JsonElement> links = JsonObject.builder();
+    self.ifPresent(s -> links.add(Holder.SELF, s));
+    addKnown(links, singletonLinks, arrayLinks, suppressNulls);
+    JsonObject.Builder<JsonElement> embedded = JsonObject.builder();
+    addKnown(embedded, singletonEmbedded, arrayEmbedded, suppressNulls);
+
+    List<JsonObject.Entry<JsonElement>> linksEntry = self.isPresent() || !singletonLinks.isEmpty() || !arrayLinks.isEmpty() ?
+      Collections.singletonList(JsonObject.entry(Holder.LINKS, links.build())) :
+      Collections.emptyList();
+    List<JsonObject.Entry<JsonElement>> embeddedEntry = !singletonEmbedded.isEmpty() || !arrayEmbedded.isEmpty() ?
+      Collections.singletonList(JsonObject.entry(Holder.EMBEDDED, embedded.build())) :
+      Collections.emptyList();
+
+    List<List<JsonObject.Entry<JsonElement>>> ordered;
+    switch (order) {
+      case LinksDataEmbedded:
+        ordered = Arrays.asList(linksEntry, data, embeddedEntry);
+        break;
+      case EmbeddedLinksData:
+        ordered = Arrays.asList(embeddedEntry, linksEntry, data);
+        break;
+      case EmbeddedDataLinks:
+        ordered = Arrays.asList(embeddedEntry, data, linksEntry);
+        break;
+      case DataLinksEmbedded:
+        ordered = Arrays.asList(data, linksEntry, embeddedEntry);
+        break;
+      case DataEmbeddedLinks:
+        ordered = Arrays.asList(data, embeddedEntry, linksEntry);
+        break;
+      default:
+        ordered = Arrays.asList(linksEntry, embeddedEntry, data);
+    }
+    JsonObject.Builder<JsonElement> object = JsonObject.<JsonElement>builder().suppressNulls(suppressNulls).eager(maxConcurrent);
+    for (List<JsonObject.Entry<JsonElement>> entries : ordered) {
+      object.addAll(entries);
+    }
+    return object.build();
+  }
+
+  private static <T extends JsonElement> void addKnown(
+    JsonObject.Builder<JsonElement> builder,
+    Map<String, Observable<T>> singletons,
+    Map<String, Observable<T>> arrays,
     boolean suppressNulls
   ) {
-    Observable<JsonObject.Entry<JsonElement>> links = getLinks(self, singletonLinks, arrayLinks, lenient, suppressNulls);
-    Observable<JsonObject.Entry<JsonElement>> embedded = getEmbedded(singletonEmbedded, arrayEmbedded, suppressNulls);
+    for (Map.Entry<String, Observable<T>> e : singletons.entrySet()) {
+      List<T> values = ((KnownValues<T>) e.getValue()).values;
+      if (!values.isEmpty()) {
+        builder.add(e.getKey(), values.get(0));
+      } else if (!suppressNulls) {
+        builder.add(e.getKey(), RxJson.valueBuilder().Null());
+      }
+    }
+    for (Map.Entry<String, Observable<T>> e : arrays.entrySet()) {
+      builder.add(e.getKey(), JsonArray.<T>builder().addAll(((KnownValues<T>) e.getValue()).values).build());
+    }
+  }
+
+  private static boolean isKnown(Map<String, ? extends Observable<?>> values) {
+    return values.values().stream().allMatch(HalObject::isKnown);
+  }
+
+  private static boolean isKnown(Observable<?> values) {
+    return values instanceof KnownValues;
+  }
+
+  private static <T> Observable<T> firstValue(Observable<T> values) {
+    if (values instanceof KnownValues) {
+      List<T> known = ((KnownValues<T>) values).values;
+      return known.size() > 1 ? new KnownValues<>(known.subList(0, 1)) : values;
+    }
+    return values.take(1);
+  }
+
+  private static <T> Observable<T> concatValues(Observable<T> first, Observable<T> second) {
+    if (first instanceof KnownValues && second instanceof KnownValues) {
+      List<T> values = new ArrayList<>(((KnownValues<T>) first).values);
+      values.addAll(((KnownValues<T>) second).values);
+      return new KnownValues<>(Collections.unmodifiableList(values));
+    }
+    return first.concatWith(second);
+  }
+
+  private static Observable<JsonObject.Entry<JsonElement>> getOrderedElements(
+    Optional<HalLink> self,
+    Map<String, Observable<HalLink>> singletonLinks,
+    Map<String, Observable<HalLink>> arrayLinks,
+    Map<String, Observable<HalObject>> singletonEmbedded,
+    Map<String, Observable<HalObject>> arrayEmbedded,
+    Observable<JsonObject.Entry<JsonElement>> data,
+    boolean lenient,
+    Order order,
+    boolean suppressNulls,
+    int maxConcurrent
+  ) {
+    Observable<JsonObject.Entry<JsonElement>> links = getLinks(self, singletonLinks, arrayLinks, lenient, suppressNulls, maxConcurrent);
+    Observable<JsonObject.Entry<JsonElement>> embedded = getEmbedded(singletonEmbedded, arrayEmbedded, suppressNulls, maxConcurrent);
     Observable<JsonObject.Entry<JsonElement>> _data = getData(lenient, data);
 
     switch (order) {
@@ -585,29 +756,32 @@ public final class HalObject extends JsonElement {
   private static Observable<JsonObject.Entry<JsonElement>> getEmbedded(
     Map<String, Observable<HalObject>> singletonEmbedded,
     Map<String, Observable<HalObject>> arrayEmbedded,
-    boolean suppressNulls
+    boolean suppressNulls,
+    int maxConcurrent
   ) {
     return !singletonEmbedded.isEmpty() || !arrayEmbedded.isEmpty() ?
       Observable.just(
         JsonObject.entry(
           Holder.EMBEDDED,
           JsonObject.of(
-            Observable.from(singletonEmbedded.entrySet())
-              .concatMap(
-                e ->
-                  e.getValue()
-                    .map(v -> JsonObject.<JsonElement>entry(e.getKey(), v))
-                    .switchIfEmpty(
-                      suppressNulls ?
-                        Observable.empty() :
-                        Observable.just(JsonObject.<JsonElement>entry(e.getKey(), RxJson.valueBuilder().Null()))
-                    )
-              )
+            concatMap(
+              Observable.from(singletonEmbedded.entrySet()),
+              e ->
+                e.getValue()
+                  .map(v -> JsonObject.<JsonElement>entry(e.getKey(), v))
+                  .switchIfEmpty(
+                    suppressNulls ?
+                      Observable.empty() :
+                      Observable.just(JsonObject.<JsonElement>entry(e.getKey(), RxJson.valueBuilder().Null()))
+                  ),
+              maxConcurrent
+            )
               .concatWith(
                 Observable.from(arrayEmbedded.entrySet())
-                  .map(e -> JsonObject.entry(e.getKey(), JsonArray.of(e.getValue())))
+                  .map(e -> JsonObject.entry(e.getKey(), JsonArray.of(e.getValue()).eager(maxConcurrent)))
               )
           )
+            .eager(maxConcurrent)
         )
       ) :
       Observable.empty();
@@ -618,7 +792,8 @@ public final class HalObject extends JsonElement {
     Map<String, Observable<HalLink>> singletonLinks,
     Map<String, Observable<HalLink>> arrayLinks,
     boolean lenient,
-    boolean suppressNulls
+    boolean suppressNulls,
+    int maxConcurrent
   ) {
     return self.isPresent() || !singletonLinks.isEmpty() || !arrayLinks.isEmpty() ?
       Observable.just(
@@ -627,20 +802,21 @@ public final class HalObject extends JsonElement {
           JsonObject.of(
             self.map(s -> Observable.<JsonObject.Entry<JsonElement>>just(JsonObject.entry(Holder.SELF, s))).orElse(Observable.empty())
               .concatWith(
-                Observable.from(singletonLinks.entrySet())
-                  .concatMap(
-                    e ->
-                      e.getValue()
-                        .map(v -> JsonObject.<JsonElement>entry(e.getKey(), v))
-                        .switchIfEmpty(
-                          suppressNulls ?
-                            Observable.empty() :
-                            Observable.just(JsonObject.<JsonElement>entry(e.getKey(), RxJson.valueBuilder().Null()))
-                        )
-                  )
+                concatMap(
+                  Observable.from(singletonLinks.entrySet()),
+                  e ->
+                    e.getValue()
+                      .map(v -> JsonObject.<JsonElement>entry(e.getKey(), v))
+                      .switchIfEmpty(
+                        suppressNulls ?
+                          Observable.empty() :
+                          Observable.just(JsonObject.<JsonElement>entry(e.getKey(), RxJson.valueBuilder().Null()))
+                      ),
+                  maxConcurrent
+                )
                   .concatWith(
                     Observable.from(arrayLinks.entrySet())
-                      .map(e -> JsonObject.entry(e.getKey(), JsonArray.of(e.getValue())))
+                      .map(e -> JsonObject.entry(e.getKey(), JsonArray.of(e.getValue()).eager(maxConcurrent)))
                   )
                   .concatMap(e -> {
                     if (e.getKey().equals(Holder.SELF)) {
@@ -653,11 +829,33 @@ public final class HalObject extends JsonElement {
                   })
               )
           )
+            .eager(maxConcurrent)
         )
       ) :
       Observable.empty();
   }
 
+  /**
+   * Values given directly, rather than as an Observable, so an object of them can be built without subscribing.
+   */
+  private static final class KnownValues<T> extends Observable<T> {
+    private final List<T> values;
+
+    @SafeVarargs
+    static <T> KnownValues<T> of(T... values) {
+      List<T> list = new ArrayList<>(values.length);
+      for (T value : values) {
+        list.add(value);
+      }
+      return new KnownValues<>(Collections.unmodifiableList(list));
+    }
+
+    private KnownValues(List<T> values) {
+      super(Observable.from(values)::subscribe);
+      this.values = values;
+    }
+  }
+
   public enum Order {
     LinksEmbeddedData,
     LinksDataEmbedded,
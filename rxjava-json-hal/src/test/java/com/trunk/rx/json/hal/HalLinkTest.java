@@ -116,5 +116,14 @@ public class HalLinkTest {
 
     ts.assertCompleted();
     ts.assertValue(out);
-  } 
-}
\ No newline at end of file
+  }
+
+  @Test
+  public void shouldPrerender() throws Exception {
+    HalLink link = HalLink.create(URI.create("/test")).title("A \"title\"").prerender();
+
+    assertEquals(link, "{\"href\":\"/test\",\"title\":\"A \\\"title\\\"\"}");
+    org.testng.Assert.assertEquals(link.getKnownTokens().get().size(), 1);
+    assertEquals(link.name("a"), "{\"href\":\"/test\",\"name\":\"a\",\"title\":\"A \\\"title\\\"\"}");
+  }
+}
@@ -1,12 +1,19 @@
 package com.trunk.rx.json.hal;
 
+import com.trunk.rx.json.ByteBufferPool;
+import com.trunk.rx.json.JsonBytes;
 import com.trunk.rx.json.RxJson;
+import com.trunk.rx.json.element.JsonElement;
 import com.trunk.rx.json.element.JsonObject;
 import com.trunk.rx.json.element.JsonValueBuilder;
 import org.testng.annotations.Test;
 import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 
 import static com.trunk.rx.json.Assert.assertEquals;
@@ -465,4 +472,141 @@ public class HalObjectTest {
       "{}"
     );
   }
+
+  @Test
+  public void shouldWriteUtf8Bytes() throws Exception {
+    HalObject object = HalObject.create()
+      .self(HalLink.create(URI.create("/caf%C3%A9")))
+      .appendData("name", VALUE_BUILDER.create("caf\u00e9"));
+    TestSubscriber<JsonBytes> ts = new TestSubscriber<>();
+
+    object.compose(RxJson.toJsonBytes(ByteBufferPool.of(16, 8, false))).subscribe(ts);
+
+    ts.assertNoErrors();
+    ts.assertCompleted();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (JsonBytes chunk : ts.getOnNextEvents()) {
+      bytes.write(chunk.toByteArray());
+      chunk.release();
+    }
+    org.testng.Assert.assertEquals(
+      new String(bytes.toByteArray(), StandardCharsets.UTF_8),
+      "{\"_links\":{\"self\":{\"href\":\"/caf%C3%A9\"}},\"name\":\"caf\u00e9\"}"
+    );
+  }
+
+  @Test
+  public void shouldKnowTokensOfValues() throws Exception {
+    HalObject known = HalObject.create()
+      .self(HalLink.create("/orders/1"))
+      .appendLink("items", HalLink.create("/items/1"))
+      .putEmbedded("customer", HalObject.create().appendData("name", VALUE_BUILDER.create("a")))
+      .appendData("total", VALUE_BUILDER.create(2));
+    HalObject unknown = known.putLink("next", Observable.just(HalLink.create("/orders/2")));
+    String json = "{\"_links\":{\"self\":{\"href\":\"/orders/1\"},\"items\":[{\"href\":\"/items/1\"}]}," +
+      "\"_embedded\":{\"customer\":{\"name\":\"a\"}},\"total\":2}";
+
+    org.testng.Assert.assertTrue(known.getKnownTokens().isPresent());
+    assertEqualsString(Observable.from(known.getKnownTokens().get()), json);
+    org.testng.Assert.assertFalse(unknown.getKnownTokens().isPresent());
+    assertEqualsString(unknown.withOrder(HalObject.Order.DataLinksEmbedded).putLink("next", HalLink.create("/orders/2")),
+      "{\"total\":2,\"_links\":{\"self\":{\"href\":\"/orders/1\"},\"next\":{\"href\":\"/orders/2\"},\"items\":[{\"href\":\"/items/1\"}]}," +
+        "\"_embedded\":{\"customer\":{\"name\":\"a\"}}}");
+  }
+
+  @Test
+  public void shouldPrerender() throws Exception {
+    HalLink docs = HalLink.create("/docs/{rel}").name("ea").prerender();
+    HalObject object = HalObject.create()
+      .self(HalLink.create("/orders/1"))
+      .appendLink("curies", docs)
+      .appendData("total", VALUE_BUILDER.create(2));
+    String json = "{\"_links\":{\"self\":{\"href\":\"/orders/1\"}," +
+      "\"curies\":[{\"href\":\"/docs/{rel}\",\"name\":\"ea\",\"templated\":true}]},\"total\":2}";
+
+    assertEqualsString(object, json);
+    assertEqualsString(object.prerender(), json);
+    assertEqualsString(object.prerender().appendData("count", VALUE_BUILDER.create(1)), json.substring(0, json.length() - 1) + ",\"count\":1}");
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldNotPrerenderObservableValues() throws Exception {
+    HalObject.create().putLink("next", Observable.just(HalLink.create("/orders/2"))).prerender();
+  }
+
+  @Test
+  public void shouldSubscribeToValuesEagerlyInOrder() throws Exception {
+    PublishSubject<HalLink> link = PublishSubject.create();
+    PublishSubject<HalObject> embedded = PublishSubject.create();
+    PublishSubject<JsonElement> data = PublishSubject.create();
+    TestSubscriber<String> ts = new TestSubscriber<>();
+
+    HalObject.create()
+      .putLink("a", link)
+      .putEmbedded("b", embedded)
+      .appendData("c", data)
+      .eager(4)
+      .compose(RxJson.toJson())
+      .reduce("", String::concat)
+      .subscribe(ts);
+
+    org.testng.Assert.assertTrue(link.hasObservers());
+    org.testng.Assert.assertTrue(embedded.hasObservers());
+    org.testng.Assert.assertTrue(data.hasObservers());
+
+    data.onNext(VALUE_BUILDER.create(1));
+    data.onCompleted();
+    embedded.onNext(HalObject.create().appendData("d", VALUE_BUILDER.create(2)));
+    embedded.onCompleted();
+    ts.assertNoValues();
+    link.onNext(HalLink.create("/a"));
+    link.onCompleted();
+
+    ts.assertValue("{\"_links\":{\"a\":{\"href\":\"/a\"}},\"_embedded\":{\"b\":{\"d\":2}},\"c\":1}");
+    ts.assertCompleted();
+  }
+
+  @Test(enabled = false, description = "writing a 5 KB response to a stream")
+  public void shouldWriteTypicalResponse() throws Exception {
+    HalObject[] items = new HalObject[20];
+    for (int i = 0; i < items.length; ++i) {
+      items[i] = HalObject.create()
+        .self(HalLink.create("/orders/" + i))
+        .putLink("customer", HalLink.create("/customers/" + i * 7).title("Customer " + i))
+        .appendData("id", VALUE_BUILDER.create(i))
+        .appendData("status", VALUE_BUILDER.create(i % 2 == 0 ? "shipped" : "processing"))
+        .appendData("currency", VALUE_BUILDER.create("GBP"))
+        .appendData("total", VALUE_BUILDER.create(i * 12.5))
+        .appendData("note", VALUE_BUILDER.create("Leave at the \"side\" door\nafter 5pm"))
+        .appendData("gift", VALUE_BUILDER.create(i % 3 == 0))
+        .appendData("placed", VALUE_BUILDER.create("2017-03-0" + (i % 9 + 1) + "T12:00:00Z"));
+    }
+    HalObject response = HalObject.create()
+      .self(HalLink.create("/orders?page=2"))
+      .putLink("next", HalLink.create("/orders?page=3"))
+      .putLink("prev", HalLink.create("/orders?page=1"))
+      .putLink("find", HalLink.create("/orders{?id}"))
+      .putAllLinks("curies", HalLink.create("/docs/{rel}").name("ea"))
+      .putAllEmbedded("orders", items)
+      .appendData("currentlyProcessing", VALUE_BUILDER.create(14))
+      .appendData("shippedToday", VALUE_BUILDER.create(20));
+    HalObject prerendered = response.prerender();
+    ByteBufferPool pool = ByteBufferPool.of(8192, 8, false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+    for (int round = 0; round < 5; ++round) {
+      for (HalObject object : new HalObject[] {response, prerendered}) {
+        int count = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; ++i) {
+          out.reset();
+          object.compose(RxJson.writeTo(out, pool)).toBlocking().single();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format(
+          "%s %,d bytes: %.2f us per response",
+          object == response ? "tokens" : "prerendered", out.size(), elapsed / 1000.0 / count
+        ));
+      }
+    }
+  }
 }